@@ -0,0 +1,74 @@
+package consulting.reason.tax_forms_api.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates requests from a weighted endpoint mix such as {@code list:40,get:40,save:14,submit:2,return:2,accept:2},
+ * picking form ids uniformly from the forms of the configured year.
+ */
+public class GeneratedRequestSource implements RequestSource {
+    private static final String DETAILS = """
+            {"assessedValue":%d,"appraisedValue":%d,"ratio":%.2f,"comments":"load test"}""";
+
+    private final int year;
+    private final List<Integer> formIds;
+    private final List<String> endpoints = new ArrayList<>();
+    private final int[] cumulativeWeights;
+
+    public GeneratedRequestSource(String mix, int year, List<Integer> formIds) {
+        if (formIds.isEmpty()) {
+            throw new IllegalArgumentException("No forms found for year %d".formatted(year));
+        }
+
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] endpointWeight = entry.trim().split(":");
+            weights.put(endpointWeight[0], Integer.parseInt(endpointWeight[1]));
+        }
+
+        this.year = year;
+        this.formIds = formIds;
+        this.cumulativeWeights = new int[weights.size()];
+
+        int total = 0;
+        for (Map.Entry<String, Integer> weight : weights.entrySet()) {
+            total += weight.getValue();
+            cumulativeWeights[endpoints.size()] = total;
+            endpoints.add(weight.getKey());
+        }
+    }
+
+    @Override
+    public LoadTestRequest next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = 0;
+
+        while (pick >= cumulativeWeights[index]) {
+            index++;
+        }
+
+        String endpoint = endpoints.get(index);
+        Integer id = formIds.get(random.nextInt(formIds.size()));
+
+        return switch (endpoint) {
+            case "list" -> new LoadTestRequest(endpoint, "GET", "/forms?year=" + year, null);
+            case "get" -> new LoadTestRequest(endpoint, "GET", "/forms/" + id, null);
+            case "save" -> new LoadTestRequest(endpoint, "PATCH", "/forms/" + id, String.format(
+                    Locale.ROOT,
+                    DETAILS,
+                    random.nextInt(100_000),
+                    random.nextInt(100_000),
+                    random.nextDouble()
+            ));
+            case "submit", "return", "accept" ->
+                    new LoadTestRequest(endpoint, "PATCH", "/forms/%d/%s".formatted(id, endpoint), null);
+            default -> throw new IllegalArgumentException("Unknown endpoint " + endpoint);
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package consulting.reason.tax_forms_api.loadtest;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads a flight recording offline and reports count and latency percentiles of the tax form events per service
+ * operation, type map and repository method.
+ * <p>
+ * Configured through system properties, which the {@code jfrReport} Gradle task forwards from {@code -Pjfr.*}:
+ * <ul>
+ *     <li>{@code jfr.recording}: the recording, {@code build/jfr/tax-forms.jfr} by default</li>
+ *     <li>{@code jfr.output}: directory the report is written to</li>
+ * </ul>
+ */
+public class JfrReport {
+    private static final String EVENT_PREFIX = "consulting.reason.tax_forms.";
+
+    private static class Durations {
+        private long[] nanos = new long[64];
+        private int size;
+
+        void add(long duration) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = duration;
+        }
+
+        long[] sorted() {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+
+            return sorted;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path recording = Path.of(System.getProperty("jfr.recording", "build/jfr/tax-forms.jfr"));
+        Map<String, Durations> durations = new TreeMap<>();
+
+        try (RecordingFile recordingFile = new RecordingFile(recording)) {
+            while (recordingFile.hasMoreEvents()) {
+                RecordedEvent event = recordingFile.readEvent();
+                String name = event.getEventType().getName();
+
+                if (name.startsWith(EVENT_PREFIX)) {
+                    durations.computeIfAbsent(key(name.substring(EVENT_PREFIX.length()), event), k -> new Durations())
+                            .add(event.getDuration().toNanos());
+                }
+            }
+        }
+
+        report(System.out, durations);
+
+        String output = System.getProperty("jfr.output");
+        if (output != null) {
+            Files.createDirectories(Path.of(output));
+
+            try (PrintStream printStream = new PrintStream(
+                    Files.newOutputStream(Path.of(output, "jfr-report.txt")), true, StandardCharsets.UTF_8)) {
+                report(printStream, durations);
+            }
+        }
+    }
+
+    private static String key(String type, RecordedEvent event) {
+        return switch (type) {
+            case "Operation" -> type + " " + event.getString("operation");
+            case "Mapping" -> type + " " + event.getString("typeMap");
+            case "Repository" -> type + " " + event.getString("repository") + "." + event.getString("method");
+            default -> type;
+        };
+    }
+
+    private static void report(PrintStream out, Map<String, Durations> durations) {
+        out.printf("%-56s %8s %10s %10s %10s %10s %10s%n", "event", "count", "mean", "p50", "p90", "p99", "max");
+        durations.forEach((key, value) -> {
+            long[] sorted = value.sorted();
+
+            out.println(String.format(Locale.ROOT, "%-56s %8d %8.3fms %8.3fms %8.3fms %8.3fms %8.3fms",
+                    key,
+                    sorted.length,
+                    Arrays.stream(sorted).average().orElse(0) / 1_000_000,
+                    percentile(sorted, 50) / 1_000_000.0,
+                    percentile(sorted, 90) / 1_000_000.0,
+                    percentile(sorted, 99) / 1_000_000.0,
+                    sorted[sorted.length - 1] / 1_000_000.0));
+        });
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.max(0, (int) Math.ceil(p / 100 * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,4 @@
+package consulting.reason.tax_forms_api.loadtest;
+
+public record LoadTestRequest(String endpoint, String method, String path, String body) {
+}
@@ -0,0 +1,183 @@
+package consulting.reason.tax_forms_api.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import consulting.reason.tax_forms_api.TaxFormsApiApplication;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a request mix against the API and reports throughput and latency percentiles per endpoint.
+ * <p>
+ * Configured through system properties, which the {@code loadTest} Gradle task forwards from
+ * {@code -Ploadtest.*}:
+ * <ul>
+ *     <li>{@code loadtest.base-url}: target a running server instead of booting one</li>
+ *     <li>{@code loadtest.profile}: Spring profile of the booted server, {@code dev} by default</li>
+ *     <li>{@code loadtest.scenario}: JSONL scenario file to replay instead of the generated mix</li>
+ *     <li>{@code loadtest.mix}: weighted endpoint mix of the generator</li>
+ *     <li>{@code loadtest.year}: form year the generator lists and picks forms from</li>
+ *     <li>{@code loadtest.concurrency}, {@code loadtest.warmup}, {@code loadtest.duration}</li>
+ *     <li>{@code loadtest.output}: directory the .hgrm percentile distributions are written to</li>
+ * </ul>
+ */
+public class LoadTestRunner {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("loadtest.base-url");
+        ConfigurableApplicationContext context = null;
+
+        if (baseUrl == null) {
+            context = new SpringApplicationBuilder(TaxFormsApiApplication.class)
+                    .profiles(System.getProperty("loadtest.profile", "dev"))
+                    .properties("server.port=0")
+                    .run();
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        try {
+            new LoadTestRunner().run(baseUrl);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private void run(String baseUrl) throws Exception {
+        int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+        Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+        RequestSource requestSource = requestSource(baseUrl);
+
+        System.out.printf("Load testing %s with %d workers, %s warm-up, %s measured%n", baseUrl, concurrency, warmup, duration);
+
+        long warmupEnd = System.nanoTime() + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+        ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+
+        for (int i = 0; i < concurrency; i++) {
+            workers.submit(() -> {
+                while (System.nanoTime() < end) {
+                    send(baseUrl, requestSource.next());
+                }
+            });
+        }
+
+        Thread.sleep(warmup.toMillis());
+        stats.values().forEach(EndpointStats::reset);
+
+        workers.shutdown();
+        if (!workers.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+
+        report(duration, Path.of(System.getProperty("loadtest.output", "build/loadtest")));
+    }
+
+    private RequestSource requestSource(String baseUrl) throws IOException, InterruptedException {
+        String scenario = System.getProperty("loadtest.scenario");
+
+        if (scenario != null) {
+            return new ScenarioRequestSource(Path.of(scenario), objectMapper);
+        }
+
+        int year = Integer.getInteger("loadtest.year", 2024);
+        HttpResponse<String> response = httpClient.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/forms?year=" + year)).GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        List<Integer> formIds = new ArrayList<>();
+        for (JsonNode form : objectMapper.readTree(response.body())) {
+            formIds.add(form.get("id").asInt());
+        }
+
+        return new GeneratedRequestSource(
+                System.getProperty("loadtest.mix", "list:40,get:40,save:14,submit:2,return:2,accept:2"),
+                year,
+                formIds
+        );
+    }
+
+    private void send(String baseUrl, LoadTestRequest loadTestRequest) {
+        HttpRequest httpRequest = HttpRequest.newBuilder(URI.create(baseUrl + loadTestRequest.path()))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(loadTestRequest.method(), loadTestRequest.body() != null
+                        ? HttpRequest.BodyPublishers.ofString(loadTestRequest.body())
+                        : HttpRequest.BodyPublishers.noBody())
+                .build();
+
+        long start = System.nanoTime();
+        int status;
+
+        try {
+            status = httpClient.send(httpRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        stats.computeIfAbsent(loadTestRequest.endpoint(), endpoint -> new EndpointStats())
+                .record(System.nanoTime() - start, status);
+    }
+
+    private void report(Duration duration, Path output) throws IOException {
+        Files.createDirectories(output);
+        PrintStream out = System.out;
+        double seconds = duration.toMillis() / 1000.0;
+
+        out.printf(Locale.ROOT, "%n%-10s %10s %10s %8s %8s %10s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "req/s", "4xx", "5xx", "p50 ms", "p95 ms", "p99 ms", "p999 ms", "max ms");
+
+        for (Map.Entry<String, EndpointStats> entry : new TreeMap<>(stats).entrySet()) {
+            EndpointStats endpointStats = entry.getValue();
+            Histogram histogram = endpointStats.getLatencyMicros();
+
+            out.printf(Locale.ROOT, "%-10s %10d %10.1f %8d %8d %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                    entry.getKey(),
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / seconds,
+                    endpointStats.getClientErrors(),
+                    endpointStats.getServerErrors(),
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(95) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0);
+
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(output.resolve(entry.getKey() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+
+        out.printf("%nPercentile distributions in milliseconds written to %s%n", output.toAbsolutePath());
+    }
+}
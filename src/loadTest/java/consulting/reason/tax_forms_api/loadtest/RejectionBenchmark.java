@@ -0,0 +1,110 @@
+package consulting.reason.tax_forms_api.loadtest;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import consulting.reason.tax_forms_api.config.ControllerExceptionHandler;
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.exception.TaxFormNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Throughput of the rejection of a missing form, thrown {@code depth} frames below the handler as it is from a
+ * controller and answered by {@link ControllerExceptionHandler}: the previous full-stack
+ * {@link ResponseStatusException}, logged at ERROR with its trace, against the stackless
+ * {@link TaxFormNotFoundException}, counted and logged through the rate limiter. Both log through the same logback
+ * encoder into a discarding stream, so formatting is measured and appender I/O is not.
+ * <p>
+ * Run with {@code ./gradlew rejectionBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RejectionBenchmark {
+    @Param({"20", "120"})
+    private int depth;
+
+    private int id;
+    private ControllerExceptionHandler controllerExceptionHandler;
+
+    @Setup
+    public void setUp() {
+        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("%d %-5level [%thread] %logger : %msg%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(loggerContext);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        Logger logger = loggerContext.getLogger(ControllerExceptionHandler.class);
+        logger.detachAndStopAllAppenders();
+        logger.setAdditive(false);
+        logger.setLevel(Level.INFO);
+        logger.addAppender(appender);
+
+        controllerExceptionHandler = new ControllerExceptionHandler(
+                new TaxFormsApiProperties(),
+                new StaticListableBeanFactory(Map.of("meterRegistry", new SimpleMeterRegistry()))
+                        .getBeanProvider(MeterRegistry.class)
+        );
+    }
+
+    @Benchmark
+    public ResponseEntity<String> previous() {
+        return reject(
+                id -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Tax form %d not found".formatted(id)),
+                e -> controllerExceptionHandler.handleException(e, null)
+        );
+    }
+
+    @Benchmark
+    public ResponseEntity<String> stackless() {
+        return reject(
+                TaxFormNotFoundException::new,
+                e -> controllerExceptionHandler.handleRejection((TaxFormNotFoundException) e, null)
+        );
+    }
+
+    private ResponseEntity<String> reject(IntFunction<ResponseStatusException> exception,
+                                          Function<ResponseStatusException, ResponseEntity<String>> handler) {
+        try {
+            throwAt(depth, exception);
+            return null;
+        } catch (ResponseStatusException e) {
+            return handler.apply(e);
+        }
+    }
+
+    private void throwAt(int frames, IntFunction<ResponseStatusException> exception) {
+        if (frames > 0) {
+            throwAt(frames - 1, exception);
+            return;
+        }
+
+        throw exception.apply(++id);
+    }
+}
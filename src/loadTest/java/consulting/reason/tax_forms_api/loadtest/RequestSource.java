@@ -0,0 +1,5 @@
+package consulting.reason.tax_forms_api.loadtest;
+
+public interface RequestSource {
+    LoadTestRequest next();
+}
@@ -0,0 +1,53 @@
+package consulting.reason.tax_forms_api.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays the requests of a JSONL scenario file in order, wrapping around at the end. Each line is an object with
+ * {@code endpoint}, {@code method}, {@code path} and an optional {@code body}.
+ */
+public class ScenarioRequestSource implements RequestSource {
+    private final List<LoadTestRequest> requests;
+    private final AtomicLong position = new AtomicLong();
+
+    public ScenarioRequestSource(Path scenario, ObjectMapper objectMapper) throws IOException {
+        try (var lines = Files.lines(scenario)) {
+            this.requests = lines
+                    .filter(line -> !line.isBlank())
+                    .map(line -> read(objectMapper, line))
+                    .toList();
+        }
+
+        if (requests.isEmpty()) {
+            throw new IllegalArgumentException("Scenario %s has no requests".formatted(scenario));
+        }
+    }
+
+    @Override
+    public LoadTestRequest next() {
+        return requests.get((int) (position.getAndIncrement() % requests.size()));
+    }
+
+    private static LoadTestRequest read(ObjectMapper objectMapper, String line) {
+        try {
+            JsonNode request = objectMapper.readTree(line);
+            JsonNode body = request.get("body");
+
+            return new LoadTestRequest(
+                    request.get("endpoint").asText(),
+                    request.get("method").asText(),
+                    request.get("path").asText(),
+                    body != null && !body.isNull() ? body.toString() : null
+            );
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid scenario line: " + line, e);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package consulting.reason.tax_forms_api.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the API in separate JVMs that exit right after the context refresh and reports the wall-clock time from
+ * launch to process exit per mode, against the {@code dev} profile baseline which drops and rebuilds the schema.
+ * Spring's own "Started ... in" line is never logged when the context exits on refresh, so only the process is
+ * timed.
+ * <p>
+ * Configured through system properties, which the {@code startupBenchmark} Gradle task sets or forwards from
+ * {@code -Pstartup.*}:
+ * <ul>
+ *     <li>{@code startup.classpath}: flat jar classpath the AppCDS archive was recorded with</li>
+ *     <li>{@code startup.archive}: the AppCDS archive, the cds mode is skipped when it does not exist</li>
+ *     <li>{@code startup.runs}: measured starts per mode after one discarded start, 5 by default</li>
+ *     <li>{@code startup.output}: directory the report is written to</li>
+ * </ul>
+ */
+public class StartupBenchmark {
+    private static final String MAIN_CLASS = "consulting.reason.tax_forms_api.TaxFormsApiApplication";
+
+    private record Mode(String name, List<String> jvmArgs) {
+    }
+
+    private record Result(Mode mode, double wallMillis) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String classpath = System.getProperty("startup.classpath");
+        Path archive = Path.of(System.getProperty("startup.archive", "build/cds/tax-forms-api.jsa"));
+        int runs = Integer.getInteger("startup.runs", 5);
+
+        List<Mode> modes = new ArrayList<>(List.of(
+                new Mode("baseline", List.of("-Dspring.profiles.active=dev")),
+                new Mode("prod", List.of("-Dspring.profiles.active=dev,prod")),
+                new Mode("prod+aot", List.of("-Dspring.profiles.active=dev,prod", "-Dspring.aot.enabled=true"))
+        ));
+        if (Files.exists(archive)) {
+            modes.add(new Mode("prod+aot+cds", List.of(
+                    "-Dspring.profiles.active=dev,prod",
+                    "-Dspring.aot.enabled=true",
+                    "-XX:SharedArchiveFile=" + archive
+            )));
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (Mode mode : modes) {
+            start(classpath, mode);
+
+            for (int i = 0; i < runs; i++) {
+                results.add(start(classpath, mode));
+            }
+        }
+
+        report(System.out, modes, results);
+
+        String output = System.getProperty("startup.output");
+        if (output != null) {
+            Files.createDirectories(Path.of(output));
+
+            try (PrintStream printStream = new PrintStream(
+                    Files.newOutputStream(Path.of(output, "startup.txt")), true, StandardCharsets.UTF_8)) {
+                report(printStream, modes, results);
+            }
+        }
+    }
+
+    private static Result start(String classpath, Mode mode) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(mode.jvmArgs());
+        command.add("-Dspring.context.exit=onRefresh");
+        command.add("-cp");
+        command.add(classpath);
+        command.add(MAIN_CLASS);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+
+        if (!process.waitFor(5, TimeUnit.MINUTES)) {
+            process.destroyForcibly();
+            throw new IllegalStateException("Start of mode " + mode.name() + " did not exit within 5 minutes");
+        }
+        if (process.exitValue() != 0) {
+            throw new IllegalStateException("Start of mode " + mode.name() + " exited with " + process.exitValue());
+        }
+
+        return new Result(mode, (System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    private static void report(PrintStream out, List<Mode> modes, List<Result> results) {
+        double baseline = Double.NaN;
+
+        out.printf("%-14s %12s %12s %12s %10s%n", "mode", "wall mean", "wall min", "wall max", "vs base");
+        for (Mode mode : modes) {
+            List<Result> modeResults = results.stream()
+                    .filter(result -> result.mode().equals(mode))
+                    .toList();
+            double wallMean = modeResults.stream().mapToDouble(Result::wallMillis).average().orElse(Double.NaN);
+            double wallMin = modeResults.stream().mapToDouble(Result::wallMillis).min().orElse(Double.NaN);
+            double wallMax = modeResults.stream().mapToDouble(Result::wallMillis).max().orElse(Double.NaN);
+
+            if (Double.isNaN(baseline)) {
+                baseline = wallMean;
+            }
+
+            out.println(String.format(Locale.ROOT, "%-14s %10.0fms %10.0fms %10.0fms %9.1f%%",
+                    mode.name(), wallMean, wallMin, wallMax, (wallMean - baseline) / baseline * 100));
+        }
+    }
+}
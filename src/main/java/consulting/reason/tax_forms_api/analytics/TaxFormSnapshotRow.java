@@ -0,0 +1,7 @@
+package consulting.reason.tax_forms_api.analytics;
+
+import consulting.reason.tax_forms_api.dto.TaxFormDetailsDto;
+import consulting.reason.tax_forms_api.enums.TaxFormStatus;
+
+public record TaxFormSnapshotRow(Integer id, TaxFormStatus status, TaxFormDetailsDto details) {
+}
@@ -0,0 +1,243 @@
+package consulting.reason.tax_forms_api.analytics;
+
+import consulting.reason.tax_forms_api.enums.TaxFormStatus;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * The forms of one year as parallel primitive columns, indexed by position. Missing assessed and appraised values
+ * are stored as the type's minimum value and missing ratios as NaN. Ratios are also kept sorted per status, so
+ * percentiles are a lookup.
+ */
+public final class TaxFormYearSnapshot {
+    public static final int MISSING_ASSESSED_VALUE = Integer.MIN_VALUE;
+    public static final long MISSING_APPRAISED_VALUE = Long.MIN_VALUE;
+
+    private static final TaxFormStatus[] STATUSES = TaxFormStatus.values();
+    private static final int CHUNK_SIZE = 1 << 14;
+
+    private final int year;
+    private final int size;
+    private final int[] ids;
+    private final byte[] statuses;
+    private final int[] assessedValues;
+    private final long[] appraisedValues;
+    private final double[] ratios;
+    private final double[] sortedRatios;
+    private final double[][] sortedRatiosByStatus;
+    private final long changeSeq;
+    private final ZonedDateTime builtAt;
+
+    public record Histogram(int min, int max, long bucketWidth, long[][] counts, long[] missing) {
+    }
+
+    private TaxFormYearSnapshot(Builder builder) {
+        this.year = builder.year;
+        this.size = builder.size;
+        this.ids = Arrays.copyOf(builder.ids, size);
+        this.statuses = Arrays.copyOf(builder.statuses, size);
+        this.assessedValues = Arrays.copyOf(builder.assessedValues, size);
+        this.appraisedValues = Arrays.copyOf(builder.appraisedValues, size);
+        this.ratios = Arrays.copyOf(builder.ratios, size);
+        this.sortedRatios = sortedRatios(-1);
+        this.sortedRatiosByStatus = new double[STATUSES.length][];
+        for (int status = 0; status < STATUSES.length; status++) {
+            sortedRatiosByStatus[status] = sortedRatios(status);
+        }
+        this.changeSeq = builder.changeSeq;
+        this.builtAt = ZonedDateTime.now();
+    }
+
+    public static Builder builder(int year) {
+        return new Builder(year);
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The highest change sequence of the year's forms when the build started.
+     */
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public ZonedDateTime getBuiltAt() {
+        return builtAt;
+    }
+
+    public long bytes() {
+        long bytes = (long) ids.length * Integer.BYTES
+                + statuses.length
+                + (long) assessedValues.length * Integer.BYTES
+                + (long) appraisedValues.length * Long.BYTES
+                + (long) ratios.length * Double.BYTES
+                + (long) sortedRatios.length * Double.BYTES;
+
+        for (double[] statusRatios : sortedRatiosByStatus) {
+            bytes += (long) statusRatios.length * Double.BYTES;
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Counts the assessed values of each status into {@code buckets} equal-width buckets spanning the smallest to
+     * the largest assessed value of the year. Chunks of the columns are scanned in parallel, each into its own
+     * count array.
+     */
+    public Histogram assessedValueHistogram(int buckets) {
+        int min = IntStream.range(0, size)
+                .parallel()
+                .map(i -> assessedValues[i])
+                .filter(value -> value != MISSING_ASSESSED_VALUE)
+                .min()
+                .orElse(0);
+        int max = IntStream.range(0, size)
+                .parallel()
+                .map(i -> assessedValues[i])
+                .filter(value -> value != MISSING_ASSESSED_VALUE)
+                .max()
+                .orElse(0);
+        long bucketWidth = Math.max(1, ((long) max - min + buckets) / buckets);
+        int width = STATUSES.length * (buckets + 1);
+
+        long[] counts = IntStream.range(0, (size + CHUNK_SIZE - 1) / CHUNK_SIZE)
+                .parallel()
+                .mapToObj(chunk -> countChunk(chunk, min, bucketWidth, buckets, width))
+                .reduce(new long[width], TaxFormYearSnapshot::sum);
+
+        long[][] countsByStatus = new long[STATUSES.length][];
+        long[] missing = new long[STATUSES.length];
+        for (int status = 0; status < STATUSES.length; status++) {
+            int offset = status * (buckets + 1);
+            countsByStatus[status] = Arrays.copyOfRange(counts, offset, offset + buckets);
+            missing[status] = counts[offset + buckets];
+        }
+
+        return new Histogram(min, max, bucketWidth, countsByStatus, missing);
+    }
+
+    /**
+     * @param status the status to take the percentile of, or null for all forms
+     * @param percentile a percentile between 0 and 100, using the nearest rank
+     * @return the ratio at the percentile, or NaN when no form has a ratio
+     */
+    public double ratioPercentile(TaxFormStatus status, double percentile) {
+        double[] sorted = status != null ? sortedRatiosByStatus[status.ordinal()] : sortedRatios;
+
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.min(sorted.length - 1, Math.max(0, rank - 1))];
+    }
+
+    public int ratioCount(TaxFormStatus status) {
+        return status != null ? sortedRatiosByStatus[status.ordinal()].length : sortedRatios.length;
+    }
+
+    private long[] countChunk(int chunk, int min, long bucketWidth, int buckets, int width) {
+        long[] counts = new long[width];
+        int end = Math.min(size, (chunk + 1) * CHUNK_SIZE);
+
+        for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+            int offset = statuses[i] * (buckets + 1);
+            int value = assessedValues[i];
+
+            if (value == MISSING_ASSESSED_VALUE) {
+                counts[offset + buckets]++;
+            } else {
+                counts[offset + (int) Math.min(buckets - 1, ((long) value - min) / bucketWidth)]++;
+            }
+        }
+
+        return counts;
+    }
+
+    private static long[] sum(long[] left, long[] right) {
+        long[] sum = new long[left.length];
+
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] = left[i] + right[i];
+        }
+
+        return sum;
+    }
+
+    private double[] sortedRatios(int status) {
+        double[] sorted = IntStream.range(0, size)
+                .filter(i -> status < 0 || statuses[i] == status)
+                .mapToDouble(i -> ratios[i])
+                .filter(ratio -> !Double.isNaN(ratio))
+                .toArray();
+        Arrays.parallelSort(sorted);
+
+        return sorted;
+    }
+
+    public static final class Builder {
+        private final int year;
+        private int size;
+        private int[] ids = new int[1024];
+        private byte[] statuses = new byte[1024];
+        private int[] assessedValues = new int[1024];
+        private long[] appraisedValues = new long[1024];
+        private double[] ratios = new double[1024];
+        private long changeSeq;
+
+        private Builder(int year) {
+            this.year = year;
+        }
+
+        public Builder changeSeq(long changeSeq) {
+            this.changeSeq = changeSeq;
+
+            return this;
+        }
+
+        public Builder add(TaxFormSnapshotRow row) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                statuses = Arrays.copyOf(statuses, capacity);
+                assessedValues = Arrays.copyOf(assessedValues, capacity);
+                appraisedValues = Arrays.copyOf(appraisedValues, capacity);
+                ratios = Arrays.copyOf(ratios, capacity);
+            }
+
+            ids[size] = row.id();
+            statuses[size] = (byte) row.status().ordinal();
+            assessedValues[size] = MISSING_ASSESSED_VALUE;
+            appraisedValues[size] = MISSING_APPRAISED_VALUE;
+            ratios[size] = Double.NaN;
+
+            if (row.details() != null) {
+                if (row.details().getAssessedValue() != null) {
+                    assessedValues[size] = row.details().getAssessedValue();
+                }
+                if (row.details().getAppraisedValue() != null) {
+                    appraisedValues[size] = row.details().getAppraisedValue();
+                }
+                if (row.details().getRatio() != null) {
+                    ratios[size] = row.details().getRatio();
+                }
+            }
+            size++;
+
+            return this;
+        }
+
+        public TaxFormYearSnapshot build() {
+            return new TaxFormYearSnapshot(this);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package consulting.reason.tax_forms_api.analytics;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Holds the built snapshot of each year. Every invalidation bumps the year's generation, and a snapshot is only
+ * kept when no invalidation happened while it was being built, so a build that raced a write is never cached.
+ * The last snapshot built for a year outlives its invalidation, for callers that would rather have it than wait.
+ */
+@Component
+public class TaxFormYearSnapshotCache {
+    private final Map<Integer, TaxFormYearSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<Integer, TaxFormYearSnapshot> latest = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the cached snapshot of the year while it is still current, otherwise builds it again.
+     */
+    public TaxFormYearSnapshot get(Integer year,
+                                   Predicate<TaxFormYearSnapshot> current,
+                                   Supplier<TaxFormYearSnapshot> loader) {
+        TaxFormYearSnapshot snapshot = snapshots.get(year);
+
+        if (snapshot != null) {
+            if (current.test(snapshot)) {
+                return snapshot;
+            }
+            snapshots.remove(year, snapshot);
+        }
+
+        return refresh(year, loader);
+    }
+
+    public TaxFormYearSnapshot refresh(Integer year, Supplier<TaxFormYearSnapshot> loader) {
+        AtomicLong generation = generation(year);
+        long built = generation.get();
+        TaxFormYearSnapshot snapshot = loader.get();
+
+        snapshots.compute(year, (key, current) -> generation.get() == built ? snapshot : current);
+        latest.merge(year, snapshot, (previous, next) -> next.getBuiltAt().isBefore(previous.getBuiltAt())
+                ? previous
+                : next);
+
+        return snapshot;
+    }
+
+    /**
+     * Returns the last snapshot built for the year, current or not, or null when none was.
+     */
+    public TaxFormYearSnapshot latest(Integer year) {
+        return latest.get(year);
+    }
+
+    /**
+     * Drops the snapshot of the year now and, inside a transaction, once more after it commits, since a snapshot
+     * built in between would not see the write yet.
+     */
+    public void invalidate(Integer year) {
+        evict(year);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<Integer> years = (Set<Integer>) TransactionSynchronizationManager.getResource(this);
+        if (years == null) {
+            Set<Integer> written = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, written);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(TaxFormYearSnapshotCache.this);
+
+                    if (status == STATUS_COMMITTED) {
+                        written.forEach(TaxFormYearSnapshotCache.this::evict);
+                    }
+                }
+            });
+            years = written;
+        }
+        years.add(year);
+    }
+
+    private void evict(Integer year) {
+        generation(year).incrementAndGet();
+        snapshots.remove(year);
+    }
+
+    private AtomicLong generation(Integer year) {
+        return generations.computeIfAbsent(year, key -> new AtomicLong());
+    }
+}
@@ -1,16 +1,69 @@
 package consulting.reason.tax_forms_api.config;
 
+import consulting.reason.tax_forms_api.deadline.RequestDeadline;
+import consulting.reason.tax_forms_api.exception.TaxFormDeadlineExceededException;
+import consulting.reason.tax_forms_api.exception.TaxFormRejectionException;
+import consulting.reason.tax_forms_api.util.LogRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @ControllerAdvice
 public class ControllerExceptionHandler {
     private final Logger logger = LoggerFactory.getLogger(ControllerExceptionHandler.class);
+    private final MeterRegistry meterRegistry;
+    private final LogRateLimiter<Class<?>> logRateLimiter;
+    private final Map<Class<?>, Counter> rejections = new ConcurrentHashMap<>();
+
+    public ControllerExceptionHandler(TaxFormsApiProperties taxFormsApiProperties,
+                                      ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.logRateLimiter = new LogRateLimiter<>(taxFormsApiProperties.getRejectionLogging().getInterval());
+    }
+
+    @ExceptionHandler({TaxFormRejectionException.class})
+    public ResponseEntity<String> handleRejection(TaxFormRejectionException e, HttpServletRequest request) {
+        rejections.computeIfAbsent(e.getClass(), type -> Counter.builder("tax_forms.rejections")
+                        .tag("type", type.getSimpleName())
+                        .tag("status", String.valueOf(e.getStatusCode().value()))
+                        .register(meterRegistry))
+                .increment();
+
+        long suppressed = logRateLimiter.acquire(e.getClass());
+        if (suppressed >= 0) {
+            logger.info("{} occurred: {} ({} similar suppressed)", e.getClass().getSimpleName(), e.getMessage(), suppressed);
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("{} occurred: {}", e.getClass().getSimpleName(), e.getMessage());
+        }
+
+        return new ResponseEntity<>(e.getMessage(), e.getHeaders(), e.getStatusCode());
+    }
+
+    /**
+     * Answers statements cancelled by their query timeout or lock_timeout as the request running out of time.
+     */
+    @ExceptionHandler({QueryTimeoutException.class, CannotAcquireLockException.class})
+    public ResponseEntity<String> handleTimeout(RuntimeException e, HttpServletRequest request) {
+        RequestDeadline requestDeadline = RequestDeadline.current();
+
+        return handleRejection(
+                new TaxFormDeadlineExceededException(requestDeadline != null ? requestDeadline.getBudget() : null),
+                request
+        );
+    }
 
     @ExceptionHandler({ResponseStatusException.class})
     public ResponseEntity<String> handleException(ResponseStatusException e, HttpServletRequest request) {
@@ -1,11 +1,25 @@
 package consulting.reason.tax_forms_api.config;
 
 import com.zaxxer.hikari.HikariDataSource;
+import consulting.reason.tax_forms_api.datasource.ReadWriteRoutingDataSource;
+import consulting.reason.tax_forms_api.datasource.ShardRoutingDataSource;
+import consulting.reason.tax_forms_api.datasource.SlowStatementSummary;
+import consulting.reason.tax_forms_api.datasource.StatementLoggingListener;
+import consulting.reason.tax_forms_api.deadline.DeadlineQueryListener;
+import consulting.reason.tax_forms_api.timing.TimingQueryListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Configuration
 public class DatasourceConfig {
@@ -17,11 +31,69 @@ public class DatasourceConfig {
     }
 
     @Bean
-    @Primary
     @ConfigurationProperties(prefix = "tax-forms-api.datasource.configuration")
-    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
         return dataSourceProperties.initializeDataSourceBuilder()
                 .type(HikariDataSource.class)
                 .build();
     }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(HikariDataSource primaryDataSource,
+                                                                 TaxFormsApiProperties taxFormsApiProperties) {
+        List<HikariDataSource> replicas = taxFormsApiProperties.getReadReplicas().getInstances().stream()
+                .map(connectionPool -> {
+                    HikariDataSource replica = pooledDataSource(connectionPool);
+                    replica.setReadOnly(true);
+
+                    return replica;
+                })
+                .toList();
+
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource,
+                                                         TaxFormsApiProperties taxFormsApiProperties) {
+        Map<String, HikariDataSource> shards = taxFormsApiProperties.getShards().stream()
+                .collect(Collectors.toMap(
+                        TaxFormsApiProperties.Shard::getName,
+                        shard -> pooledDataSource(shard.getDatasource())
+                ));
+
+        return new ShardRoutingDataSource(readWriteRoutingDataSource, shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource,
+                                 TaxFormsApiProperties taxFormsApiProperties,
+                                 SlowStatementSummary slowStatementSummary) {
+        return ProxyDataSourceBuilder.create("tax-forms", new LazyConnectionDataSourceProxy(shardRoutingDataSource))
+                .listener(new DeadlineQueryListener(
+                        taxFormsApiProperties.getDeadlines().isServerTimeouts(),
+                        taxFormsApiProperties.getDeadlines().getServerStatementTimeout()
+                ))
+                .listener(new TimingQueryListener())
+                .listener(new StatementLoggingListener(taxFormsApiProperties, slowStatementSummary))
+                .build();
+    }
+
+    private static HikariDataSource pooledDataSource(TaxFormsApiProperties.ConnectionPool connectionPool) {
+        HikariDataSource hikariDataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(connectionPool.getUrl())
+                .username(connectionPool.getUsername())
+                .password(connectionPool.getPassword())
+                .build();
+
+        hikariDataSource.setMaximumPoolSize(connectionPool.getMaximumPoolSize());
+        hikariDataSource.setMinimumIdle(connectionPool.getMinimumIdle());
+        hikariDataSource.setConnectionTimeout(connectionPool.getConnectionTimeout().toMillis());
+        hikariDataSource.setIdleTimeout(connectionPool.getIdleTimeout().toMillis());
+        hikariDataSource.setMaxLifetime(connectionPool.getMaxLifetime().toMillis());
+
+        return hikariDataSource;
+    }
 }
@@ -0,0 +1,69 @@
+package consulting.reason.tax_forms_api.config;
+
+import consulting.reason.tax_forms_api.jfr.OperationEventInterceptor;
+import consulting.reason.tax_forms_api.jfr.RepositoryEventInterceptor;
+import consulting.reason.tax_forms_api.service.TaxFormService;
+import consulting.reason.tax_forms_api.service.TaxFormServiceImpl;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+@Configuration
+public class JfrConfig {
+    /**
+     * Advises the {@link TaxFormService} operations of {@link TaxFormServiceImpl} with the JFR operation event,
+     * ordered before the transaction advisor so the event also covers the commit. Infrastructure role, so the
+     * advisor also applies when only the infrastructure auto-proxy creator is registered.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor operationEventAdvisor() {
+        StaticMethodMatcherPointcutAdvisor advisor = new StaticMethodMatcherPointcutAdvisor(
+                new OperationEventInterceptor()
+        ) {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return TaxFormServiceImpl.class.isAssignableFrom(targetClass)
+                        && ReflectionUtils.findMethod(
+                                TaxFormService.class,
+                                method.getName(),
+                                method.getParameterTypes()
+                        ) != null;
+            }
+        };
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+
+        return advisor;
+    }
+
+    /**
+     * Adds the JFR repository event interceptor to every Spring Data repository proxy, before the repository
+     * factory beans create their repositories.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryEventPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+                    repositoryFactoryBean.addRepositoryFactoryCustomizer(repositoryFactory ->
+                            repositoryFactory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                                    proxyFactory.addAdvice(new RepositoryEventInterceptor(
+                                            repositoryInformation.getRepositoryInterface()
+                                    ))));
+                }
+
+                return bean;
+            }
+        };
+    }
+}
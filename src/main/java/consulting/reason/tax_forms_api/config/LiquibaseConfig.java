@@ -0,0 +1,28 @@
+package consulting.reason.tax_forms_api.config;
+
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternUtils;
+
+import java.util.Map;
+
+@Configuration
+public class LiquibaseConfig {
+    @Bean
+    public static LiquibaseFingerprintGate liquibaseFingerprintGate(Environment environment,
+                                                                    ResourceLoader resourceLoader) {
+        Binder binder = Binder.get(environment);
+
+        return new LiquibaseFingerprintGate(
+                binder.bind("tax-forms-api.migrations", TaxFormsApiProperties.Migrations.class)
+                        .orElseGet(TaxFormsApiProperties.Migrations::new),
+                ResourcePatternUtils.getResourcePatternResolver(resourceLoader),
+                binder.bind("spring.liquibase.parameters", Bindable.mapOf(String.class, String.class))
+                        .orElseGet(Map::of)
+        );
+    }
+}
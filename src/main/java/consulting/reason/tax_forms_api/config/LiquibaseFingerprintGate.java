@@ -0,0 +1,162 @@
+package consulting.reason.tax_forms_api.config;
+
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Skips a Liquibase run when the changelog resources, contexts and parameters hash to the fingerprint recorded
+ * by the last successful run against the same database, saving the changelog parsing, lock and
+ * DATABASECHANGELOG round trips on every boot. A drop-first run is never skipped.
+ */
+public class LiquibaseFingerprintGate implements BeanPostProcessor {
+    static final String TABLE = "databasechangelog_fingerprint";
+
+    private final Logger logger = LoggerFactory.getLogger(LiquibaseFingerprintGate.class);
+    private final TaxFormsApiProperties.Migrations migrations;
+    private final ResourcePatternResolver resourcePatternResolver;
+    private final Map<String, String> parameters;
+    private final Map<SpringLiquibase, String> pendingFingerprints = new ConcurrentHashMap<>();
+
+    public LiquibaseFingerprintGate(TaxFormsApiProperties.Migrations migrations,
+                                    ResourcePatternResolver resourcePatternResolver,
+                                    Map<String, String> parameters) {
+        this.migrations = migrations;
+        this.resourcePatternResolver = resourcePatternResolver;
+        this.parameters = parameters;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof SpringLiquibase springLiquibase && migrations.isSkipWhenUnchanged()) {
+            String fingerprint = fingerprint(springLiquibase, parameters);
+
+            if (isApplied(springLiquibase, fingerprint)) {
+                springLiquibase.setShouldRun(false);
+            } else {
+                pendingFingerprints.put(springLiquibase, fingerprint);
+            }
+        }
+
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof SpringLiquibase springLiquibase) {
+            String fingerprint = pendingFingerprints.remove(springLiquibase);
+
+            if (fingerprint != null) {
+                record(springLiquibase, fingerprint);
+            }
+        }
+
+        return bean;
+    }
+
+    public void migrate(SpringLiquibase springLiquibase, Map<String, String> parameters) throws LiquibaseException {
+        springLiquibase.setChangeLogParameters(parameters);
+
+        if (!migrations.isSkipWhenUnchanged()) {
+            springLiquibase.afterPropertiesSet();
+            return;
+        }
+
+        String fingerprint = fingerprint(springLiquibase, parameters);
+
+        if (!isApplied(springLiquibase, fingerprint)) {
+            springLiquibase.afterPropertiesSet();
+            record(springLiquibase, fingerprint);
+        }
+    }
+
+    private boolean isApplied(SpringLiquibase springLiquibase, String fingerprint) {
+        if (springLiquibase.isDropFirst()) {
+            return false;
+        }
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(springLiquibase.getDataSource());
+        createTable(jdbcTemplate);
+
+        boolean applied = jdbcTemplate.queryForList(
+                "SELECT fingerprint FROM " + TABLE + " WHERE change_log = ?",
+                String.class,
+                springLiquibase.getChangeLog()
+        ).contains(fingerprint);
+
+        if (applied) {
+            logger.info("Skipping {}, fingerprint {} is already applied", springLiquibase.getChangeLog(), fingerprint);
+        }
+
+        return applied;
+    }
+
+    private void record(SpringLiquibase springLiquibase, String fingerprint) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(springLiquibase.getDataSource());
+        createTable(jdbcTemplate);
+        jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE change_log = ?", springLiquibase.getChangeLog());
+        jdbcTemplate.update(
+                "INSERT INTO " + TABLE + " (change_log, fingerprint, applied_at) VALUES (?, ?, CURRENT_TIMESTAMP)",
+                springLiquibase.getChangeLog(),
+                fingerprint
+        );
+    }
+
+    private static void createTable(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+                + "change_log VARCHAR(255) PRIMARY KEY, "
+                + "fingerprint VARCHAR(64) NOT NULL, "
+                + "applied_at TIMESTAMP WITH TIME ZONE NOT NULL)");
+    }
+
+    private String fingerprint(SpringLiquibase springLiquibase, Map<String, String> parameters) {
+        try {
+            Resource[] resources = resourcePatternResolver.getResources(migrations.getFingerprintResources());
+            String[] resourceDigests = new String[resources.length];
+
+            for (int i = 0; i < resources.length; i++) {
+                try (InputStream inputStream = resources[i].getInputStream()) {
+                    resourceDigests[i] = HexFormat.of().formatHex(sha256().digest(inputStream.readAllBytes()));
+                }
+            }
+            Arrays.sort(resourceDigests);
+
+            MessageDigest messageDigest = sha256();
+            messageDigest.update(String.join(",", resourceDigests).getBytes(StandardCharsets.UTF_8));
+            messageDigest.update(Objects.toString(springLiquibase.getChangeLog()).getBytes(StandardCharsets.UTF_8));
+            messageDigest.update(Objects.toString(springLiquibase.getContexts()).getBytes(StandardCharsets.UTF_8));
+            messageDigest.update(new TreeMap<>(parameters).toString().getBytes(StandardCharsets.UTF_8));
+
+            return HexFormat.of().formatHex(messageDigest.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -6,6 +6,8 @@ import consulting.reason.tax_forms_api.dto.TaxFormDto;
 import consulting.reason.tax_forms_api.dto.request.TaxFormDetailsRequest;
 import consulting.reason.tax_forms_api.entity.TaxForm;
 import consulting.reason.tax_forms_api.entity.TaxFormHistory;
+import consulting.reason.tax_forms_api.jfr.TaxFormMappingEvent;
+import consulting.reason.tax_forms_api.timing.TimedModelMapper;
 
 import org.modelmapper.ModelMapper;
 import org.modelmapper.convention.MatchingStrategies;
@@ -14,9 +16,14 @@ import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class ModelMapperConfig {
+    /**
+     * Type map of {@link TaxForm} to {@link TaxFormDto} that leaves the history unset and its collection unloaded.
+     */
+    public static final String WITHOUT_HISTORY = "withoutHistory";
+
     @Bean
     public ModelMapper modelMapper() {
-        ModelMapper modelMapper = new ModelMapper();
+        ModelMapper modelMapper = new TimedModelMapper();
         modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
 
         modelMapper.typeMap(TaxFormDetailsRequest.class, TaxFormDetailsDto.class).setConverter(context -> {
@@ -32,23 +39,30 @@ public class ModelMapperConfig {
 
         modelMapper.typeMap(TaxForm.class, TaxFormDto.class).setConverter(context -> {
             TaxForm taxForm = context.getSource();
-            ModelMapper modelMap = new ModelMapper();
+            TaxFormMappingEvent event = TaxFormMappingEvent.start("default", taxForm.getId());
 
-            return TaxFormDto.builder()
-                    .id(taxForm.getId())
-                    .formYear(taxForm.getFormYear())
-                    .formName(taxForm.getFormName())
-                    .status(taxForm.getStatus())
-                    .details(taxForm.getDetails())
-                    .createdAt(taxForm.getCreatedAt())
-                    .updatedAt(taxForm.getUpdatedAt())
-                    .history(taxForm.getHistory() != null
-                                ? taxForm.getHistory()
-                                    .stream()
-                                    .map(history-> modelMap.map(history, TaxFormHistoryDto.class))
-                                    .toList() 
-                                : null)
-                    .build();
+            try {
+                return event.mapped(taxFormDto(taxForm)
+                        .history(taxForm.getHistory() != null
+                                    ? taxForm.getHistory()
+                                        .stream()
+                                        .map(history-> modelMapper.map(history, TaxFormHistoryDto.class))
+                                        .toList()
+                                    : null)
+                        .build());
+            } finally {
+                event.commit();
+            }
+        });
+
+        modelMapper.typeMap(TaxForm.class, TaxFormDto.class, WITHOUT_HISTORY).setConverter(context -> {
+            TaxFormMappingEvent event = TaxFormMappingEvent.start(WITHOUT_HISTORY, context.getSource().getId());
+
+            try {
+                return event.mapped(taxFormDto(context.getSource()).build());
+            } finally {
+                event.commit();
+            }
         });
 
         modelMapper.typeMap(TaxFormHistory.class, TaxFormHistoryDto.class).setConverter(context -> {
@@ -63,4 +77,19 @@ public class ModelMapperConfig {
 
         return modelMapper;
     }
-}
\ No newline at end of file
+
+    private static TaxFormDto.TaxFormDtoBuilder taxFormDto(TaxForm taxForm) {
+        return TaxFormDto.builder()
+                .id(taxForm.getId())
+                .formYear(taxForm.getFormYear())
+                .formName(taxForm.getFormName())
+                .status(taxForm.getStatus())
+                .details(taxForm.getDetails())
+                .createdAt(taxForm.getCreatedAt())
+                .updatedAt(taxForm.getUpdatedAt())
+                .submittedAt(taxForm.getSubmittedAt())
+                .claimedBy(taxForm.getClaimedBy())
+                .claimExpiresAt(taxForm.getClaimExpiresAt())
+                .flaggedAt(taxForm.getFlaggedAt());
+    }
+}
@@ -0,0 +1,53 @@
+package consulting.reason.tax_forms_api.config;
+
+import consulting.reason.tax_forms_api.datasource.ShardRoutingDataSource;
+import consulting.reason.tax_forms_api.datasource.TaxFormShardRouter;
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.core.io.ResourceLoader;
+
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+public class ShardLiquibaseConfig implements InitializingBean {
+    private final Logger logger = LoggerFactory.getLogger(ShardLiquibaseConfig.class);
+    private final ShardRoutingDataSource shardRoutingDataSource;
+    private final TaxFormsApiProperties taxFormsApiProperties;
+    private final ResourceLoader resourceLoader;
+    private final LiquibaseFingerprintGate liquibaseFingerprintGate;
+    @Value("${spring.liquibase.enabled:true}")
+    private boolean enabled;
+    @Value("${spring.liquibase.contexts:}")
+    private String contexts;
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (!enabled) {
+            return;
+        }
+
+        for (TaxFormsApiProperties.Shard shard : taxFormsApiProperties.getShards()) {
+            logger.info("Running {} against shard {}", shard.getChangeLog(), shard.getName());
+
+            SpringLiquibase springLiquibase = new SpringLiquibase();
+            springLiquibase.setDataSource(shardRoutingDataSource.getShards().get(shard.getName()));
+            springLiquibase.setChangeLog(shard.getChangeLog());
+            springLiquibase.setContexts(contexts);
+            springLiquibase.setResourceLoader(resourceLoader);
+            liquibaseFingerprintGate.migrate(
+                    springLiquibase,
+                    Map.of(
+                            "idStart", String.valueOf(TaxFormShardRouter.firstId(shard.getNumber())),
+                            "idEnd", String.valueOf(TaxFormShardRouter.lastId(shard.getNumber())),
+                            "historyArchiveSchema", taxFormsApiProperties.getHistoryPartitions().getArchiveSchema()
+                    )
+            );
+        }
+    }
+}
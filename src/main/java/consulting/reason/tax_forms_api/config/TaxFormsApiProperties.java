@@ -1,11 +1,338 @@
 package consulting.reason.tax_forms_api.config;
 
+import consulting.reason.tax_forms_api.datasource.TaxFormShardRouter;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
 @Validated
 @Component
 @ConfigurationProperties(prefix = "tax-forms-api")
 public class TaxFormsApiProperties {
+    @Valid
+    private HistoryPartitions historyPartitions = new HistoryPartitions();
+    @Valid
+    private History history = new History();
+    @Valid
+    private ReadReplicas readReplicas = new ReadReplicas();
+    @Valid
+    private List<Shard> shards = new ArrayList<>();
+    @Valid
+    private ReadCoalescing readCoalescing = new ReadCoalescing();
+    @Valid
+    private Autosave autosave = new Autosave();
+    @Valid
+    private Migrations migrations = new Migrations();
+    @Valid
+    private Warmup warmup = new Warmup();
+    @Valid
+    private BatchGet batchGet = new BatchGet();
+    @Valid
+    private BatchSave batchSave = new BatchSave();
+    @Valid
+    private ReviewQueue reviewQueue = new ReviewQueue();
+    @Valid
+    private DeltaSync deltaSync = new DeltaSync();
+    @Valid
+    private ServerTiming serverTiming = new ServerTiming();
+    @Valid
+    private SqlLogging sqlLogging = new SqlLogging();
+    @Valid
+    private RejectionLogging rejectionLogging = new RejectionLogging();
+    @Valid
+    private Analytics analytics = new Analytics();
+    @Valid
+    private Idempotency idempotency = new Idempotency();
+    @Valid
+    private AdmissionControl admissionControl = new AdmissionControl();
+    @Valid
+    private Deadlines deadlines = new Deadlines();
+    @Valid
+    private Jobs jobs = new Jobs();
+
+    @Getter
+    @Setter
+    public static class HistoryPartitions {
+        private boolean enabled = true;
+        @Min(0)
+        private int yearsAhead = 1;
+        @Min(1)
+        private int retainedYears = 2;
+        @NotBlank
+        private String archiveSchema = "tax_form_archive";
+    }
+
+    @Getter
+    @Setter
+    public static class History {
+        @Min(1)
+        private int responseLimit = 10;
+    }
+
+    @Getter
+    @Setter
+    public static class ReadReplicas {
+        @NotNull
+        private Duration lagWindow = Duration.ofSeconds(5);
+        @Valid
+        private List<ConnectionPool> instances = new ArrayList<>();
+    }
+
+    @Getter
+    @Setter
+    public static class ReadCoalescing {
+        private boolean enabled = true;
+        @NotNull
+        private Duration timeout = Duration.ofSeconds(2);
+    }
+
+    @Getter
+    @Setter
+    public static class Autosave {
+        @NotNull
+        private Duration window = Duration.ofSeconds(2);
+    }
+
+    @Getter
+    @Setter
+    public static class Migrations {
+        private boolean skipWhenUnchanged = false;
+        @NotBlank
+        private String fingerprintResources = "classpath*:liquibase/**/*.xml";
+    }
+
+    @Getter
+    @Setter
+    public static class Warmup {
+        private boolean enabled = true;
+        @Min(0)
+        private int iterations = 2000;
+        @Min(0)
+        private int queryIterations = 50;
+        @NotNull
+        private Duration timeout = Duration.ofSeconds(20);
+    }
+
+    @Getter
+    @Setter
+    public static class BatchGet {
+        @Min(1)
+        private int maxIds = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class BatchSave {
+        @Min(1)
+        private int maxItems = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class ReviewQueue {
+        @NotNull
+        private Duration lease = Duration.ofMinutes(15);
+        @Min(1)
+        private int maxClaim = 20;
+    }
+
+    @Getter
+    @Setter
+    public static class DeltaSync {
+        @Min(1)
+        private int maxPageSize = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class ServerTiming {
+        private boolean headerEnabled = true;
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double sampleRate = 0.0;
+    }
+
+    @Getter
+    @Setter
+    public static class SqlLogging {
+        @NotNull
+        private Duration threshold = Duration.ofMillis(200);
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double sampleRate = 0.0;
+        @Min(1)
+        private int topStatements = 20;
+        @Min(1)
+        private int maxTrackedStatements = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class RejectionLogging {
+        @NotNull
+        private Duration interval = Duration.ofSeconds(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Analytics {
+        @Min(1)
+        private int maxBuckets = 1000;
+        @NotNull
+        private Duration buildTimeout = Duration.ofSeconds(60);
+        @NotNull
+        private Duration snapshotMaxAge = Duration.ofMinutes(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Idempotency {
+        @NotNull
+        private Duration ttl = Duration.ofHours(24);
+        @NotNull
+        private Duration inFlightLease = Duration.ofSeconds(30);
+        @Min(1)
+        private int maxCachedKeys = 10000;
+        @Min(1)
+        private int maxKeyLength = 255;
+        @NotNull
+        private Duration purgeInterval = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class AdmissionControl {
+        private boolean enabled = true;
+        @NotNull
+        private Duration retryAfter = Duration.ofSeconds(1);
+        @Valid
+        private ConcurrencyLimit reads = new ConcurrencyLimit();
+        /**
+         * Reads of a whole year, a batch of ids or a page of changes, which take longer than a single form.
+         */
+        @Valid
+        private ConcurrencyLimit bulkReads = new ConcurrencyLimit(Duration.ofSeconds(5));
+        @Valid
+        private ConcurrencyLimit writes = new ConcurrencyLimit();
+    }
+
+    @Getter
+    @Setter
+    public static class ConcurrencyLimit {
+        @Min(1)
+        private int initialLimit = 20;
+        @Min(1)
+        private int minLimit = 2;
+        @Min(1)
+        private int maxLimit = 200;
+        @DecimalMin("0.5")
+        @DecimalMax("0.99")
+        private double backoffRatio = 0.9;
+        @NotNull
+        private Duration latencyThreshold;
+
+        public ConcurrencyLimit() {
+            this(Duration.ofSeconds(1));
+        }
+
+        public ConcurrencyLimit(Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Deadlines {
+        private boolean enabled = true;
+        @NotNull
+        private Duration defaultBudget = Duration.ofSeconds(10);
+        @NotNull
+        private Duration maxBudget = Duration.ofSeconds(30);
+        private boolean serverTimeouts = true;
+        private Duration serverStatementTimeout;
+        @Valid
+        private List<EndpointBudget> endpoints = new ArrayList<>();
+    }
+
+    @Getter
+    @Setter
+    public static class EndpointBudget {
+        private String method;
+        @NotBlank
+        private String pattern;
+        @NotNull
+        private Duration budget;
+    }
+
+    @Getter
+    @Setter
+    public static class Jobs {
+        @Min(1)
+        private int chunkSize = 1000;
+        @Min(1)
+        private int parallelism = 2;
+        @NotNull
+        private Duration pauseBetweenChunks = Duration.ofMillis(100);
+        @NotNull
+        private Duration staleAfter = Duration.ofDays(30);
+        @NotNull
+        private Duration lease = Duration.ofMinutes(2);
+        @NotNull
+        private Duration resumeInterval = Duration.ofMinutes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Shard {
+        @NotBlank
+        private String name;
+        @NotEmpty
+        private List<Integer> years = new ArrayList<>();
+        /**
+         * Selects the id range of the shard, see {@code TaxFormShardRouter}. The default shard is number 0.
+         */
+        @Min(1)
+        @Max(TaxFormShardRouter.MAX_SHARD_NUMBER)
+        private int number;
+        @NotBlank
+        private String changeLog = "classpath:liquibase/shard-master.xml";
+        @Valid
+        @NotNull
+        private ConnectionPool datasource = new ConnectionPool();
+    }
+
+    @Getter
+    @Setter
+    public static class ConnectionPool {
+        @NotBlank
+        private String url;
+        private String username;
+        private String password;
+        @Min(1)
+        private int maximumPoolSize = 10;
+        @Min(0)
+        private int minimumIdle = 2;
+        @NotNull
+        private Duration connectionTimeout = Duration.ofSeconds(30);
+        @NotNull
+        private Duration idleTimeout = Duration.ofMinutes(10);
+        @NotNull
+        private Duration maxLifetime = Duration.ofMinutes(30);
+    }
 }
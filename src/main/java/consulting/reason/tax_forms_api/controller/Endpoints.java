@@ -2,4 +2,8 @@ package consulting.reason.tax_forms_api.controller;
 
 public class Endpoints {
     public static final String FORMS = "/forms";
+    public static final String ANALYTICS = "/analytics";
+    public static final String HISTORY_PARTITIONS = "/admin/history-partitions";
+    public static final String SLOW_STATEMENTS = "/admin/slow-statements";
+    public static final String JOBS = "/admin/jobs";
 }
@@ -0,0 +1,10 @@
+package consulting.reason.tax_forms_api.controller;
+
+public class Headers {
+    public static final String AUTOSAVE = "X-Autosave";
+    public static final String REVIEWER = "X-Reviewer";
+    public static final String SERVER_TIMING = "X-Server-Timing";
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    public static final String REQUEST_TIMEOUT = "X-Request-Timeout";
+}
@@ -0,0 +1,30 @@
+package consulting.reason.tax_forms_api.controller;
+
+import consulting.reason.tax_forms_api.datasource.SlowStatementSummary;
+import consulting.reason.tax_forms_api.dto.SlowStatementDto;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(Endpoints.SLOW_STATEMENTS)
+public class SlowStatementController {
+    private final SlowStatementSummary slowStatementSummary;
+
+    public SlowStatementController(SlowStatementSummary slowStatementSummary) {
+        this.slowStatementSummary = slowStatementSummary;
+    }
+
+    @GetMapping
+    public List<SlowStatementDto> top() {
+        return slowStatementSummary.top();
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> reset() {
+        slowStatementSummary.reset();
+
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,60 @@
+package consulting.reason.tax_forms_api.controller;
+
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.dto.TaxFormHistogramDto;
+import consulting.reason.tax_forms_api.dto.TaxFormPercentilesDto;
+import consulting.reason.tax_forms_api.dto.TaxFormSnapshotDto;
+import consulting.reason.tax_forms_api.enums.TaxFormStatus;
+import consulting.reason.tax_forms_api.exception.TaxFormAnalyticsParameterException;
+import consulting.reason.tax_forms_api.service.TaxFormAnalyticsService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(Endpoints.ANALYTICS)
+public class TaxFormAnalyticsController {
+    private final TaxFormAnalyticsService taxFormAnalyticsService;
+    private final TaxFormsApiProperties taxFormsApiProperties;
+
+    public TaxFormAnalyticsController(TaxFormAnalyticsService taxFormAnalyticsService,
+                                      TaxFormsApiProperties taxFormsApiProperties) {
+        this.taxFormAnalyticsService = taxFormAnalyticsService;
+        this.taxFormsApiProperties = taxFormsApiProperties;
+    }
+
+    @GetMapping("/{year}/snapshot")
+    public TaxFormSnapshotDto snapshot(@PathVariable Integer year) {
+        return taxFormAnalyticsService.snapshot(year);
+    }
+
+    @PostMapping("/{year}/snapshot")
+    public TaxFormSnapshotDto refresh(@PathVariable Integer year) {
+        return taxFormAnalyticsService.refresh(year);
+    }
+
+    @GetMapping("/{year}/assessed-values/histogram")
+    public TaxFormHistogramDto assessedValueHistogram(@PathVariable Integer year,
+                                                      @RequestParam(defaultValue = "20") Integer buckets) {
+        int maxBuckets = taxFormsApiProperties.getAnalytics().getMaxBuckets();
+
+        if (buckets < 1 || buckets > maxBuckets) {
+            throw new TaxFormAnalyticsParameterException("buckets", buckets, 1, maxBuckets);
+        }
+
+        return taxFormAnalyticsService.assessedValueHistogram(year, buckets);
+    }
+
+    @GetMapping("/{year}/ratios/percentiles")
+    public TaxFormPercentilesDto ratioPercentiles(@PathVariable Integer year,
+                                                  @RequestParam(required = false) TaxFormStatus status,
+                                                  @RequestParam(defaultValue = "50,90,99") List<Double> p) {
+        for (Double percentile : p) {
+            if (percentile == null || !(percentile >= 0 && percentile <= 100)) {
+                throw new TaxFormAnalyticsParameterException("p", percentile, 0, 100);
+            }
+        }
+
+        return taxFormAnalyticsService.ratioPercentiles(year, status, p);
+    }
+}
@@ -1,21 +1,45 @@
 package consulting.reason.tax_forms_api.controller;
 
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.dto.TaxFormBatchDto;
+import consulting.reason.tax_forms_api.dto.TaxFormChangesDto;
 import consulting.reason.tax_forms_api.dto.TaxFormDto;
+import consulting.reason.tax_forms_api.dto.TaxFormSaveResultDto;
+import consulting.reason.tax_forms_api.dto.request.TaxFormBatchDetailsRequest;
 import consulting.reason.tax_forms_api.dto.request.TaxFormDetailsRequest;
+import consulting.reason.tax_forms_api.enums.TaxFormSaveOutcome;
+import consulting.reason.tax_forms_api.exception.TaxFormBatchItemException;
+import consulting.reason.tax_forms_api.exception.TaxFormBatchSizeException;
 import consulting.reason.tax_forms_api.exception.TaxFormNotFoundException;
+import consulting.reason.tax_forms_api.exception.TaxFormPageSizeException;
 import consulting.reason.tax_forms_api.service.TaxFormService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping(Endpoints.FORMS)
 public class TaxFormController {
     private final TaxFormService taxFormService;
+    private final TaxFormsApiProperties taxFormsApiProperties;
+    private final Validator validator;
 
-    public TaxFormController(TaxFormService taxFormService) {
+    public TaxFormController(TaxFormService taxFormService,
+                             TaxFormsApiProperties taxFormsApiProperties,
+                             Validator validator) {
         this.taxFormService = taxFormService;
+        this.taxFormsApiProperties = taxFormsApiProperties;
+        this.validator = validator;
     }
 
     @GetMapping
@@ -23,6 +47,31 @@ public class TaxFormController {
         return taxFormService.findAllByYear(year);
     }
 
+    @GetMapping(params = "ids")
+    public TaxFormBatchDto findAllByIds(@RequestParam List<Integer> ids) {
+        int maxIds = taxFormsApiProperties.getBatchGet().getMaxIds();
+
+        if (ids.size() > maxIds) {
+            throw new TaxFormBatchSizeException(ids.size(), maxIds);
+        }
+
+        return taxFormService.findAllByIds(ids);
+    }
+
+    @GetMapping("/changes")
+    public TaxFormChangesDto findChanges(@RequestParam Integer year,
+                                         @RequestParam(required = false) String since,
+                                         @RequestParam(required = false) Integer limit) {
+        int maxPageSize = taxFormsApiProperties.getDeltaSync().getMaxPageSize();
+        int pageSize = limit != null ? limit : maxPageSize;
+
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new TaxFormPageSizeException(pageSize, maxPageSize);
+        }
+
+        return taxFormService.findChanges(year, since, pageSize);
+    }
+
     @GetMapping("/{id}")
     public TaxFormDto findById(@PathVariable Integer id) {
         return taxFormService.findById(id)
@@ -30,9 +79,66 @@ public class TaxFormController {
     }
 
     @PatchMapping("/{id}")
-    public TaxFormDto save(@PathVariable Integer id, @Validated @RequestBody TaxFormDetailsRequest taxFormDetailsRequest) {
-        return taxFormService.save(id, taxFormDetailsRequest)
-                .orElseThrow(() -> new TaxFormNotFoundException(id));
+    public ResponseEntity<TaxFormDto> save(@PathVariable Integer id,
+                                           @RequestHeader(value = Headers.AUTOSAVE, defaultValue = "false") boolean autosave,
+                                           @Validated @RequestBody TaxFormDetailsRequest taxFormDetailsRequest) {
+        if (autosave) {
+            taxFormService.autosave(id, taxFormDetailsRequest);
+
+            return ResponseEntity.accepted().build();
+        }
+
+        return ResponseEntity.ok(taxFormService.save(id, taxFormDetailsRequest)
+                .orElseThrow(() -> new TaxFormNotFoundException(id)));
+    }
+
+    /**
+     * Saves the details of many forms at once. Items are validated one by one, and every item gets a result in
+     * request order; a later item for an id already in the batch is invalid.
+     */
+    @PatchMapping
+    public List<TaxFormSaveResultDto> saveAll(@RequestBody List<TaxFormBatchDetailsRequest> requests) {
+        int maxItems = taxFormsApiProperties.getBatchSave().getMaxItems();
+
+        if (requests.size() > maxItems) {
+            throw new TaxFormBatchSizeException(requests.size(), maxItems);
+        }
+
+        List<TaxFormSaveResultDto> results = new ArrayList<>();
+        Map<Integer, TaxFormDetailsRequest> detailsById = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (requests.get(i) == null) {
+                throw new TaxFormBatchItemException(i);
+            }
+        }
+
+        for (TaxFormBatchDetailsRequest request : requests) {
+            Set<ConstraintViolation<TaxFormBatchDetailsRequest>> violations = validator.validate(request);
+            String message = null;
+
+            if (!violations.isEmpty()) {
+                message = violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+            } else if (detailsById.putIfAbsent(request.getId(), request.getDetails()) != null) {
+                message = "Form %d is already in the batch".formatted(request.getId());
+            }
+
+            results.add(message == null ? null : TaxFormSaveResultDto.builder()
+                    .id(request.getId())
+                    .outcome(TaxFormSaveOutcome.INVALID)
+                    .message(message)
+                    .build());
+        }
+
+        Iterator<TaxFormSaveResultDto> saved = detailsById.isEmpty()
+                ? List.<TaxFormSaveResultDto>of().iterator()
+                : taxFormService.saveAll(detailsById).iterator();
+
+        return results.stream()
+                .map(result -> result != null ? result : saved.next())
+                .toList();
     }
 
     @PatchMapping("/{id}/submit")
@@ -41,15 +147,30 @@ public class TaxFormController {
                 .orElseThrow(() -> new TaxFormNotFoundException(id));
     }
 
+    @PostMapping("/queue/claim")
+    public List<TaxFormDto> claim(@RequestParam Integer year,
+                                  @RequestHeader(Headers.REVIEWER) String reviewer,
+                                  @RequestParam(defaultValue = "1") Integer limit) {
+        int maxClaim = taxFormsApiProperties.getReviewQueue().getMaxClaim();
+
+        if (limit < 1 || limit > maxClaim) {
+            throw new TaxFormBatchSizeException(limit, maxClaim);
+        }
+
+        return taxFormService.claim(year, reviewer, limit);
+    }
+
     @PatchMapping("/{id}/return")
-    public TaxFormDto returnForm(@PathVariable Integer id) {
-        return taxFormService.returnForm(id)
+    public TaxFormDto returnForm(@PathVariable Integer id,
+                                 @RequestHeader(value = Headers.REVIEWER, required = false) String reviewer) {
+        return taxFormService.returnForm(id, reviewer)
                 .orElseThrow(() -> new TaxFormNotFoundException(id));
     }   
 
     @PatchMapping("/{id}/accept")
-    public TaxFormDto accept(@PathVariable Integer id) {
-        return taxFormService.accept(id)
+    public TaxFormDto accept(@PathVariable Integer id,
+                             @RequestHeader(value = Headers.REVIEWER, required = false) String reviewer) {
+        return taxFormService.accept(id, reviewer)
                 .orElseThrow(() -> new TaxFormNotFoundException(id));
     }   
 }
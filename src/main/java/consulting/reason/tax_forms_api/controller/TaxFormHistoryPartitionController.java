@@ -0,0 +1,32 @@
+package consulting.reason.tax_forms_api.controller;
+
+import consulting.reason.tax_forms_api.service.TaxFormHistoryPartitionService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(Endpoints.HISTORY_PARTITIONS)
+public class TaxFormHistoryPartitionController {
+    private final TaxFormHistoryPartitionService taxFormHistoryPartitionService;
+
+    public TaxFormHistoryPartitionController(TaxFormHistoryPartitionService taxFormHistoryPartitionService) {
+        this.taxFormHistoryPartitionService = taxFormHistoryPartitionService;
+    }
+
+    @PostMapping
+    public List<String> createFuturePartitions() {
+        return taxFormHistoryPartitionService.createFuturePartitions();
+    }
+
+    @PostMapping("/{year}/archive")
+    public String archive(@PathVariable Integer year) {
+        return taxFormHistoryPartitionService.archive(year)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND,
+                        "History partition for year %d not found".formatted(year)
+                ));
+    }
+}
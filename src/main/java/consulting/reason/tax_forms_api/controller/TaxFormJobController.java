@@ -0,0 +1,49 @@
+package consulting.reason.tax_forms_api.controller;
+
+import consulting.reason.tax_forms_api.dto.TaxFormJobDto;
+import consulting.reason.tax_forms_api.dto.request.TaxFormJobRequest;
+import consulting.reason.tax_forms_api.exception.TaxFormJobNotFoundException;
+import consulting.reason.tax_forms_api.service.TaxFormJobService;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(Endpoints.JOBS)
+public class TaxFormJobController {
+    private final TaxFormJobService taxFormJobService;
+
+    public TaxFormJobController(TaxFormJobService taxFormJobService) {
+        this.taxFormJobService = taxFormJobService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public TaxFormJobDto start(@Validated @RequestBody TaxFormJobRequest taxFormJobRequest) {
+        return taxFormJobService.start(taxFormJobRequest);
+    }
+
+    @GetMapping
+    public List<TaxFormJobDto> findAllByYear(@RequestParam Integer year) {
+        return taxFormJobService.findAllByYear(year);
+    }
+
+    @GetMapping("/{year}/{id}")
+    public TaxFormJobDto findById(@PathVariable Integer year, @PathVariable Long id) {
+        return taxFormJobService.findById(year, id)
+                .orElseThrow(() -> new TaxFormJobNotFoundException(year, id));
+    }
+
+    @PostMapping("/{year}/{id}/resume")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public TaxFormJobDto resume(@PathVariable Integer year, @PathVariable Long id) {
+        return taxFormJobService.resume(year, id);
+    }
+
+    @PostMapping("/{year}/{id}/cancel")
+    public TaxFormJobDto cancel(@PathVariable Integer year, @PathVariable Long id) {
+        return taxFormJobService.cancel(year, id);
+    }
+}
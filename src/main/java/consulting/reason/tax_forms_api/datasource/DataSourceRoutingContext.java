@@ -0,0 +1,46 @@
+package consulting.reason.tax_forms_api.datasource;
+
+import consulting.reason.tax_forms_api.deadline.RequestDeadline;
+
+import java.util.function.Supplier;
+
+public class DataSourceRoutingContext {
+    public static final String DEFAULT_SHARD = "default";
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = ThreadLocal.withInitial(() -> false);
+    private static final ThreadLocal<String> SHARD = ThreadLocal.withInitial(() -> DEFAULT_SHARD);
+
+    public static boolean isPrimaryForced() {
+        return PRIMARY_FORCED.get();
+    }
+
+    public static String currentShard() {
+        return SHARD.get();
+    }
+
+    public static <T> T onPrimary(Supplier<T> supplier) {
+        boolean previous = PRIMARY_FORCED.get();
+        PRIMARY_FORCED.set(true);
+
+        try {
+            return supplier.get();
+        } finally {
+            PRIMARY_FORCED.set(previous);
+        }
+    }
+
+    /**
+     * Runs the supplier against the shard, unless the deadline of the current request has already passed.
+     */
+    public static <T> T onShard(String shard, Supplier<T> supplier) {
+        RequestDeadline.checkCurrent();
+        String previous = SHARD.get();
+        SHARD.set(shard);
+
+        try {
+            return supplier.get();
+        } finally {
+            SHARD.set(previous);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package consulting.reason.tax_forms_api.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Carries the time of a client's last write in a cookie that lives for the lag window, and starts the
+ * {@link ReplicaLagGuard} session of each request from it.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+public class ReplicaLagFilter extends OncePerRequestFilter {
+    public static final String COOKIE = "tf-written-at";
+
+    private final ReplicaLagGuard replicaLagGuard;
+
+    public ReplicaLagFilter(ReplicaLagGuard replicaLagGuard) {
+        this.replicaLagGuard = replicaLagGuard;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !replicaLagGuard.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        replicaLagGuard.start(writtenAt(request), writtenAt -> response.addCookie(cookie(writtenAt)));
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            replicaLagGuard.stop();
+        }
+    }
+
+    private Cookie cookie(long writtenAt) {
+        Cookie cookie = new Cookie(COOKIE, Long.toString(writtenAt));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.ceil(replicaLagGuard.getLagWindowMillis() / 1000.0));
+
+        return cookie;
+    }
+
+    private static long writtenAt(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return 0;
+        }
+
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+
+        return 0;
+    }
+}
@@ -0,0 +1,93 @@
+package consulting.reason.tax_forms_api.datasource;
+
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Pins the reads of a client that wrote within the configured lag window to the primary, so it reads its own
+ * writes even when the replicas are behind while every other client keeps reading from the replicas. The time of
+ * the client's last write travels with its requests, see {@link ReplicaLagFilter}, so the pin holds whichever node
+ * serves the next request. Writes outside a request, such as jobs, pin nothing.
+ */
+@Component
+public class ReplicaLagGuard {
+    private static final ThreadLocal<WriteSession> SESSION = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final long lagWindowMillis;
+
+    public ReplicaLagGuard(TaxFormsApiProperties taxFormsApiProperties) {
+        TaxFormsApiProperties.ReadReplicas readReplicas = taxFormsApiProperties.getReadReplicas();
+
+        this.enabled = !readReplicas.getInstances().isEmpty();
+        this.lagWindowMillis = readReplicas.getLagWindow().toMillis();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getLagWindowMillis() {
+        return lagWindowMillis;
+    }
+
+    /**
+     * Starts the session of the current request, given the epoch millis of the client's last write, or 0, and
+     * where to report the time of the first write the request makes.
+     */
+    public void start(long writtenAt, LongConsumer onWrite) {
+        SESSION.set(new WriteSession(writtenAt, onWrite));
+    }
+
+    public void stop() {
+        SESSION.remove();
+    }
+
+    public void recordWrite() {
+        WriteSession session = SESSION.get();
+
+        if (enabled && session != null) {
+            session.wrote(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Whether the reads of the current request go to the primary, because its client wrote within the lag window.
+     */
+    public boolean isPinned() {
+        WriteSession session = enabled ? SESSION.get() : null;
+
+        return session != null && System.currentTimeMillis() - session.writtenAt < lagWindowMillis;
+    }
+
+    public <T> T read(Supplier<T> supplier) {
+        if (isPinned()) {
+            return DataSourceRoutingContext.onPrimary(supplier);
+        }
+
+        return supplier.get();
+    }
+
+    private static final class WriteSession {
+        private final LongConsumer onWrite;
+        private long writtenAt;
+        private boolean reported;
+
+        private WriteSession(long writtenAt, LongConsumer onWrite) {
+            this.writtenAt = writtenAt;
+            this.onWrite = onWrite;
+        }
+
+        private void wrote(long now) {
+            writtenAt = now;
+
+            if (!reported) {
+                reported = true;
+                onWrite.accept(now);
+            }
+        }
+    }
+}
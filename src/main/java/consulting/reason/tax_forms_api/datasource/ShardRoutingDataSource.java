@@ -0,0 +1,41 @@
+package consulting.reason.tax_forms_api.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends connections to the shard selected in {@link DataSourceRoutingContext}. The default shard is the
+ * read/write routed primary, every other shard is a single pool.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    private final Map<String, HikariDataSource> shards;
+
+    public ShardRoutingDataSource(DataSource defaultShard, Map<String, HikariDataSource> shards) {
+        Map<Object, Object> targetDataSources = new HashMap<>(shards);
+        targetDataSources.put(DataSourceRoutingContext.DEFAULT_SHARD, defaultShard);
+
+        this.shards = shards;
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(defaultShard);
+        setLenientFallback(false);
+    }
+
+    public Map<String, HikariDataSource> getShards() {
+        return shards;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return DataSourceRoutingContext.currentShard();
+    }
+
+    @Override
+    public void destroy() {
+        shards.values().forEach(HikariDataSource::close);
+    }
+}
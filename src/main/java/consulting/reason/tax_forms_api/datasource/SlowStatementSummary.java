@@ -0,0 +1,65 @@
+package consulting.reason.tax_forms_api.datasource;
+
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.dto.SlowStatementDto;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates the statements that exceeded the SQL logging threshold by statement text. New statements are no
+ * longer tracked once the configured number of distinct statements is reached, which bounds its memory.
+ */
+@Component
+public class SlowStatementSummary {
+    private final int topStatements;
+    private final int maxTrackedStatements;
+    private final Map<String, Stats> statsBySql = new ConcurrentHashMap<>();
+
+    private record Stats(LongAdder count, LongAdder totalMillis, AtomicLong maxMillis) {
+    }
+
+    public SlowStatementSummary(TaxFormsApiProperties taxFormsApiProperties) {
+        TaxFormsApiProperties.SqlLogging sqlLogging = taxFormsApiProperties.getSqlLogging();
+
+        this.topStatements = sqlLogging.getTopStatements();
+        this.maxTrackedStatements = sqlLogging.getMaxTrackedStatements();
+    }
+
+    public void record(String sql, long elapsedMillis) {
+        Stats stats = statsBySql.get(sql);
+
+        if (stats == null) {
+            if (statsBySql.size() >= maxTrackedStatements) {
+                return;
+            }
+            stats = statsBySql.computeIfAbsent(sql, key -> new Stats(new LongAdder(), new LongAdder(), new AtomicLong()));
+        }
+
+        stats.count().increment();
+        stats.totalMillis().add(elapsedMillis);
+        stats.maxMillis().accumulateAndGet(elapsedMillis, Math::max);
+    }
+
+    public List<SlowStatementDto> top() {
+        return statsBySql.entrySet().stream()
+                .map(entry -> SlowStatementDto.builder()
+                        .sql(entry.getKey())
+                        .count(entry.getValue().count().sum())
+                        .totalMillis(entry.getValue().totalMillis().sum())
+                        .maxMillis(entry.getValue().maxMillis().get())
+                        .build())
+                .sorted(Comparator.comparingLong(SlowStatementDto::getTotalMillis).reversed())
+                .limit(topStatements)
+                .toList();
+    }
+
+    public void reset() {
+        statsBySql.clear();
+    }
+}
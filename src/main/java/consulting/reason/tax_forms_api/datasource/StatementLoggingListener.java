@@ -0,0 +1,90 @@
+package consulting.reason.tax_forms_api.datasource;
+
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Logs the statements slower than the configured threshold and a sampled share of the others, with their
+ * duration, bind parameter count and affected row count, and records the slow ones in the
+ * {@link SlowStatementSummary}. Statements are logged as soon as they execute: result sets are not proxied, so a
+ * statement that is neither slow nor sampled costs one comparison and one random draw, and queries are logged
+ * without a row count.
+ */
+public class StatementLoggingListener implements QueryExecutionListener {
+    private static final Logger logger = LoggerFactory.getLogger("tax_forms.sql");
+
+    private final long thresholdMillis;
+    private final double sampleRate;
+    private final SlowStatementSummary slowStatementSummary;
+
+    public StatementLoggingListener(TaxFormsApiProperties taxFormsApiProperties,
+                                    SlowStatementSummary slowStatementSummary) {
+        TaxFormsApiProperties.SqlLogging sqlLogging = taxFormsApiProperties.getSqlLogging();
+
+        this.thresholdMillis = sqlLogging.getThreshold().toMillis();
+        this.sampleRate = sqlLogging.getSampleRate();
+        this.slowStatementSummary = slowStatementSummary;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMillis = execInfo.getElapsedTime();
+        boolean slow = elapsedMillis >= thresholdMillis;
+
+        if (!slow && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+
+        String sql = queryInfoList.stream()
+                .map(QueryInfo::getQuery)
+                .collect(Collectors.joining("; "));
+        int parameters = queryInfoList.stream()
+                .flatMap(queryInfo -> queryInfo.getParametersList().stream())
+                .mapToInt(List::size)
+                .sum();
+
+        if (slow) {
+            slowStatementSummary.record(sql, elapsedMillis);
+        }
+
+        logger.info(String.format(
+                Locale.ROOT,
+                "sql duration_ms=%d slow=%b params=%d%s statement=\"%s\"",
+                elapsedMillis,
+                slow,
+                parameters,
+                rows(execInfo.getResult()),
+                sql.replace('"', '\'')
+        ));
+    }
+
+    private static String rows(Object result) {
+        if (result instanceof ResultSet) {
+            return "";
+        } else if (result instanceof Number number) {
+            return " rows=" + number.longValue();
+        } else if (result instanceof int[] counts) {
+            return " rows=" + IntStream.of(counts).filter(count -> count > 0).sum();
+        } else if (result instanceof long[] counts) {
+            return " rows=" + LongStream.of(counts).filter(count -> count > 0).sum();
+        }
+
+        return " rows=0";
+    }
+}
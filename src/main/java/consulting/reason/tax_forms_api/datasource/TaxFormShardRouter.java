@@ -0,0 +1,136 @@
+package consulting.reason.tax_forms_api.datasource;
+
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the shard of a tax form. The shard number is encoded in the high bits of every id: the tax_forms
+ * sequence of shard n is bounded to [n * 2^26, (n + 1) * 2^26), so the shard of an id is read from the id itself and
+ * always names the database its row was inserted into. Years map to shards through the configured year lists and
+ * only decide where new forms go; moving a year to another shard therefore also means moving its forms. Years not
+ * in any list live on the default shard, number 0.
+ */
+@Component
+public class TaxFormShardRouter {
+    public static final int ID_BITS = 26;
+    public static final int MAX_SHARD_NUMBER = (1 << (Integer.SIZE - 1 - ID_BITS)) - 1;
+
+    private final ReplicaLagGuard replicaLagGuard;
+    private final Map<Integer, String> shardsByYear = new HashMap<>();
+    private final Map<Integer, String> shardsByNumber = new HashMap<>();
+    private final List<String> shards = new ArrayList<>(List.of(DataSourceRoutingContext.DEFAULT_SHARD));
+
+    public TaxFormShardRouter(TaxFormsApiProperties taxFormsApiProperties, ReplicaLagGuard replicaLagGuard) {
+        this.replicaLagGuard = replicaLagGuard;
+
+        for (TaxFormsApiProperties.Shard shard : taxFormsApiProperties.getShards()) {
+            shards.add(shard.getName());
+
+            for (Integer year : shard.getYears()) {
+                String existing = shardsByYear.putIfAbsent(year, shard.getName());
+
+                if (existing != null) {
+                    throw new IllegalStateException("Year %d is mapped to shards %s and %s".formatted(
+                            year,
+                            existing,
+                            shard.getName()
+                    ));
+                }
+            }
+
+            String existing = shardsByNumber.putIfAbsent(shard.getNumber(), shard.getName());
+
+            if (existing != null) {
+                throw new IllegalStateException("Shards %s and %s share number %d".formatted(
+                        existing,
+                        shard.getName(),
+                        shard.getNumber()
+                ));
+            }
+        }
+    }
+
+    public List<String> getShards() {
+        return Collections.unmodifiableList(shards);
+    }
+
+    public String shardForYear(Integer year) {
+        return shardsByYear.getOrDefault(year, DataSourceRoutingContext.DEFAULT_SHARD);
+    }
+
+    public String shardForId(Integer id) {
+        return shardsByNumber.getOrDefault(id >> ID_BITS, DataSourceRoutingContext.DEFAULT_SHARD);
+    }
+
+    public static int firstId(int number) {
+        return number == 0 ? 1 : number << ID_BITS;
+    }
+
+    public static int lastId(int number) {
+        return (number << ID_BITS) | ((1 << ID_BITS) - 1);
+    }
+
+    public <T> T readYear(Integer year, Supplier<T> supplier) {
+        return DataSourceRoutingContext.onShard(shardForYear(year), () -> replicaLagGuard.read(supplier));
+    }
+
+    /**
+     * Reads the year from the primary of its shard, for reads that must see which transactions are still writing.
+     */
+    public <T> T readYearFromPrimary(Integer year, Supplier<T> supplier) {
+        return DataSourceRoutingContext.onShard(shardForYear(year), () -> DataSourceRoutingContext.onPrimary(supplier));
+    }
+
+    public <T> T readForm(Integer id, Supplier<T> supplier) {
+        return DataSourceRoutingContext.onShard(shardForId(id), () -> replicaLagGuard.read(supplier));
+    }
+
+    public <T> List<T> readForms(Collection<Integer> ids, Function<List<Integer>, List<T>> loader) {
+        Map<String, List<Integer>> idsByShard = ids.stream()
+                .collect(Collectors.groupingBy(this::shardForId, LinkedHashMap::new, Collectors.toList()));
+        List<T> results = new ArrayList<>();
+
+        idsByShard.forEach((shard, shardIds) -> results.addAll(DataSourceRoutingContext.onShard(
+                shard,
+                () -> replicaLagGuard.read(() -> loader.apply(shardIds))
+        )));
+
+        return results;
+    }
+
+    public <T> T writeYear(Integer year, Supplier<T> supplier) {
+        return DataSourceRoutingContext.onShard(shardForYear(year), supplier);
+    }
+
+    public <T> List<T> writeForms(Collection<Integer> ids, Function<List<Integer>, List<T>> writer) {
+        Map<String, List<Integer>> idsByShard = ids.stream()
+                .collect(Collectors.groupingBy(this::shardForId, LinkedHashMap::new, Collectors.toList()));
+        List<T> results = new ArrayList<>();
+
+        idsByShard.forEach((shard, shardIds) -> results.addAll(DataSourceRoutingContext.onShard(
+                shard,
+                () -> writer.apply(shardIds)
+        )));
+
+        return results;
+    }
+
+    public <T> T writeForm(Integer id, Supplier<T> supplier) {
+        return DataSourceRoutingContext.onShard(shardForId(id), supplier);
+    }
+
+    public void recordWrite() {
+        replicaLagGuard.recordWrite();
+    }
+}
@@ -0,0 +1,94 @@
+package consulting.reason.tax_forms_api.deadline;
+
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.controller.Headers;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Starts the {@link RequestDeadline} of each request. The budget is the X-Request-Timeout header in milliseconds,
+ * capped at the configured maximum, when the client sends one, otherwise the budget of the first configured
+ * endpoint the request matches or the default.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class DeadlineFilter extends OncePerRequestFilter {
+    private record EndpointBudget(String method, PathPattern pattern, Duration budget) {
+    }
+
+    private final TaxFormsApiProperties.Deadlines deadlines;
+    private final List<EndpointBudget> endpointBudgets;
+
+    public DeadlineFilter(TaxFormsApiProperties taxFormsApiProperties) {
+        this.deadlines = taxFormsApiProperties.getDeadlines();
+        this.endpointBudgets = deadlines.getEndpoints().stream()
+                .map(endpoint -> new EndpointBudget(
+                        endpoint.getMethod(),
+                        PathPatternParser.defaultInstance.parse(endpoint.getPattern()),
+                        endpoint.getBudget()
+                ))
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !deadlines.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestDeadline.start(budget(request));
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.stop();
+        }
+    }
+
+    private Duration budget(HttpServletRequest request) {
+        Duration requested = requestedBudget(request.getHeader(Headers.REQUEST_TIMEOUT));
+
+        if (requested != null) {
+            return requested.compareTo(deadlines.getMaxBudget()) > 0 ? deadlines.getMaxBudget() : requested;
+        }
+
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+
+        return endpointBudgets.stream()
+                .filter(endpoint -> endpoint.method() == null
+                        || endpoint.method().equalsIgnoreCase(request.getMethod()))
+                .filter(endpoint -> endpoint.pattern().matches(path))
+                .map(EndpointBudget::budget)
+                .findFirst()
+                .orElse(deadlines.getDefaultBudget());
+    }
+
+    private static Duration requestedBudget(String header) {
+        if (header == null) {
+            return null;
+        }
+
+        try {
+            long millis = Long.parseLong(header.trim());
+
+            return millis > 0 ? Duration.ofMillis(millis) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
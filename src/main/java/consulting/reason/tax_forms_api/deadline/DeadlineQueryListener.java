@@ -0,0 +1,102 @@
+package consulting.reason.tax_forms_api.deadline;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Bounds each statement of a request with a deadline by what is left of its budget. The JDBC query timeout makes
+ * the driver cancel the statement; on PostgreSQL, the first statement of a transaction also sets a transaction
+ * local statement_timeout and lock_timeout when the time left is below the statement_timeout connections already
+ * start with, so the server gives up on its own, including on lock waits. The listener never fails a statement:
+ * work started after the deadline is refused by {@link RequestDeadline#checkCurrent()} before it gets here, and a
+ * statement of a transaction that outlives the deadline runs with the shortest timeouts.
+ */
+public class DeadlineQueryListener implements QueryExecutionListener {
+    private static final String SET_TIMEOUTS =
+            "SELECT set_config('statement_timeout', ?, true), set_config('lock_timeout', ?, true)";
+
+    private final Logger logger = LoggerFactory.getLogger(DeadlineQueryListener.class);
+    private final boolean serverTimeouts;
+    private final Duration serverStatementTimeout;
+
+    /**
+     * @param serverStatementTimeout the statement_timeout connections start with, or null when they have none
+     */
+    public DeadlineQueryListener(boolean serverTimeouts, Duration serverStatementTimeout) {
+        this.serverTimeouts = serverTimeouts;
+        this.serverStatementTimeout = serverStatementTimeout;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestDeadline requestDeadline = RequestDeadline.current();
+
+        if (requestDeadline == null) {
+            return;
+        }
+
+        Duration remaining = requestDeadline.remaining();
+        Statement statement = execInfo.getStatement();
+
+        try {
+            statement.setQueryTimeout((int) Math.max(1, (remaining.toMillis() + 999) / 1000));
+
+            if (serverTimeouts
+                    && (serverStatementTimeout == null || remaining.compareTo(serverStatementTimeout) < 0)) {
+                applyServerTimeouts(statement.getConnection(), remaining);
+            }
+        } catch (SQLException e) {
+            logger.warn("Could not apply the request deadline to a statement", e);
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    private void applyServerTimeouts(Connection connection, Duration remaining) throws SQLException {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)
+                || connection.getAutoCommit()
+                || !"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            return;
+        }
+
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResourceIfPossible(DeadlineQueryListener.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(DeadlineQueryListener.this, Boolean.TRUE);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(DeadlineQueryListener.this);
+            }
+        });
+
+        String timeout = Math.max(1, remaining.toMillis()) + "ms";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(SET_TIMEOUTS)) {
+            preparedStatement.setString(1, timeout);
+            preparedStatement.setString(2, timeout);
+            preparedStatement.execute();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package consulting.reason.tax_forms_api.deadline;
+
+import consulting.reason.tax_forms_api.exception.TaxFormDeadlineExceededException;
+
+import java.time.Duration;
+
+/**
+ * The time budget of the current request, active only on the thread of a request the {@link DeadlineFilter}
+ * started it for. Every statement the request runs is bounded by what is left of it.
+ */
+public class RequestDeadline {
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final Duration budget;
+    private final long deadlineNanos;
+
+    private RequestDeadline(Duration budget) {
+        this.budget = budget;
+        this.deadlineNanos = System.nanoTime() + budget.toNanos();
+    }
+
+    public static void start(Duration budget) {
+        CURRENT.set(new RequestDeadline(budget));
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    public Duration getBudget() {
+        return budget;
+    }
+
+    /**
+     * Returns the time left, zero once the deadline has passed.
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Fails when the deadline of the current request has passed, so work that is about to reach the database is
+     * not started once the client has given up.
+     */
+    public static void checkCurrent() {
+        RequestDeadline requestDeadline = CURRENT.get();
+
+        if (requestDeadline != null && requestDeadline.isExpired()) {
+            throw new TaxFormDeadlineExceededException(requestDeadline.budget);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package consulting.reason.tax_forms_api.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class SlowStatementDto {
+    private String sql;
+    private long count;
+    private long totalMillis;
+    private long maxMillis;
+}
@@ -0,0 +1,16 @@
+package consulting.reason.tax_forms_api.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class TaxFormBatchDto {
+    private List<TaxFormDto> forms;
+    private List<Integer> missingIds;
+}
@@ -0,0 +1,17 @@
+package consulting.reason.tax_forms_api.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class TaxFormChangesDto {
+    private List<TaxFormDto> forms;
+    private String syncToken;
+    private boolean hasMore;
+}
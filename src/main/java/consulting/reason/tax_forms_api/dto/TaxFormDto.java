@@ -20,5 +20,9 @@ public class TaxFormDto {
     private TaxFormDetailsDto details;
     private ZonedDateTime createdAt;
     private ZonedDateTime updatedAt;
+    private ZonedDateTime submittedAt;
+    private String claimedBy;
+    private ZonedDateTime claimExpiresAt;
+    private ZonedDateTime flaggedAt;
     private List<TaxFormHistoryDto> history;
 }
@@ -0,0 +1,21 @@
+package consulting.reason.tax_forms_api.dto;
+
+import consulting.reason.tax_forms_api.enums.TaxFormStatus;
+import lombok.*;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class TaxFormHistogramDto {
+    private Integer year;
+    private int min;
+    private int max;
+    private long bucketWidth;
+    private Map<TaxFormStatus, long[]> counts;
+    private Map<TaxFormStatus, Long> missing;
+}
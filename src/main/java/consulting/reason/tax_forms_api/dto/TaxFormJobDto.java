@@ -0,0 +1,31 @@
+package consulting.reason.tax_forms_api.dto;
+
+import consulting.reason.tax_forms_api.enums.TaxFormJobStatus;
+import consulting.reason.tax_forms_api.enums.TaxFormJobType;
+import lombok.*;
+
+import java.time.ZonedDateTime;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class TaxFormJobDto {
+    private Long id;
+    private TaxFormJobType type;
+    private Integer formYear;
+    private TaxFormJobStatus status;
+    private ZonedDateTime cutoff;
+    private Integer chunkSize;
+    private Integer nextId;
+    private long chunks;
+    private long chunksDone;
+    private long formsUpdated;
+    private String error;
+    private String owner;
+    private ZonedDateTime createdAt;
+    private ZonedDateTime updatedAt;
+    private ZonedDateTime finishedAt;
+}
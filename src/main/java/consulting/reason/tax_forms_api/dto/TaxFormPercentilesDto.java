@@ -0,0 +1,19 @@
+package consulting.reason.tax_forms_api.dto;
+
+import consulting.reason.tax_forms_api.enums.TaxFormStatus;
+import lombok.*;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class TaxFormPercentilesDto {
+    private Integer year;
+    private TaxFormStatus status;
+    private int count;
+    private Map<String, Double> percentiles;
+}
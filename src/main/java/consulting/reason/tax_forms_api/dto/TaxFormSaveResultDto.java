@@ -0,0 +1,17 @@
+package consulting.reason.tax_forms_api.dto;
+
+import consulting.reason.tax_forms_api.enums.TaxFormSaveOutcome;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class TaxFormSaveResultDto {
+    private Integer id;
+    private Integer formYear;
+    private TaxFormSaveOutcome outcome;
+    private String message;
+}
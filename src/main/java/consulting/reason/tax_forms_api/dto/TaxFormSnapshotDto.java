@@ -0,0 +1,19 @@
+package consulting.reason.tax_forms_api.dto;
+
+import lombok.*;
+
+import java.time.ZonedDateTime;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class TaxFormSnapshotDto {
+    private Integer year;
+    private int forms;
+    private long bytes;
+    private double bytesPerForm;
+    private ZonedDateTime builtAt;
+}
@@ -0,0 +1,20 @@
+package consulting.reason.tax_forms_api.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode
+public class TaxFormBatchDetailsRequest {
+    @NotNull(message = "Id is required")
+    private Integer id;
+
+    @Valid
+    @NotNull(message = "Details are required")
+    private TaxFormDetailsRequest details;
+}
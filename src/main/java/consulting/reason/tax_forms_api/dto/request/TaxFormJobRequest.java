@@ -0,0 +1,27 @@
+package consulting.reason.tax_forms_api.dto.request;
+
+import consulting.reason.tax_forms_api.enums.TaxFormJobType;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.ZonedDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode
+public class TaxFormJobRequest {
+    @NotNull(message = "Type is required")
+    private TaxFormJobType type;
+
+    @NotNull(message = "Year is required")
+    private Integer year;
+
+    /**
+     * Forms submitted (or, for FLAG_NOT_STARTED, created) before the cutoff are processed. Defaults to the
+     * configured stale age before now.
+     */
+    private ZonedDateTime cutoff;
+}
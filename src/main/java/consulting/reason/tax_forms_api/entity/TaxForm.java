@@ -5,6 +5,7 @@ import consulting.reason.tax_forms_api.enums.TaxFormStatus;
 import io.hypersistence.utils.hibernate.type.json.JsonType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.Type;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -50,6 +51,22 @@ public class TaxForm {
     @UpdateTimestamp
     private ZonedDateTime updatedAt;
 
+    private ZonedDateTime submittedAt;
+
+    private String claimedBy;
+
+    private ZonedDateTime claimExpiresAt;
+
+    /**
+     * Set by the FLAG_NOT_STARTED year-end job on forms nobody started before its cutoff.
+     */
+    private ZonedDateTime flaggedAt;
+
+    /**
+     * Assigned by the tax_forms_change_seq trigger on every insert and update.
+     */
+    private Long changeSeq;
+
     public void addHistory(TaxFormHistory history) {
         if (this.history == null) {
             this.history = new ArrayList<>();
@@ -57,4 +74,16 @@ public class TaxForm {
         this.history.add(history);
         history.setTaxForm(this);
     }
+
+    /**
+     * Links a new history entry to this form without loading the history collection. The entry is only added to
+     * the collection when it is already loaded; it has to be persisted on its own.
+     */
+    public void appendHistory(TaxFormHistory history) {
+        history.setTaxForm(this);
+
+        if (this.history != null && Hibernate.isInitialized(this.history)) {
+            this.history.add(history);
+        }
+    }
 }
@@ -13,6 +13,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinColumns;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -32,10 +33,19 @@ public class TaxFormHistory {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
+    /**
+     * Joined on the year of the form as well, so loading the history of a form only reads the partition of its year.
+     */
     @ManyToOne
-    @JoinColumn(name = "tax_form_id", nullable = false)
+    @JoinColumns({
+            @JoinColumn(name = "tax_form_id", referencedColumnName = "id", nullable = false),
+            @JoinColumn(name = "form_year", referencedColumnName = "form_year", nullable = false)
+    })
     private TaxForm taxForm;
 
+    @Column(name = "form_year", insertable = false, updatable = false)
+    private Integer formYear;
+
     @Column(name = "type", nullable = false)
      @Enumerated(value = EnumType.STRING)
     private TaxFormHistoryStatus type;
@@ -0,0 +1,76 @@
+package consulting.reason.tax_forms_api.entity;
+
+import consulting.reason.tax_forms_api.enums.TaxFormJobStatus;
+import consulting.reason.tax_forms_api.enums.TaxFormJobType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.ZonedDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "tax_form_jobs")
+@Entity
+public class TaxFormJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(value = EnumType.STRING)
+    @Column(nullable = false)
+    private TaxFormJobType type;
+
+    @Column(nullable = false)
+    private Integer formYear;
+
+    @Enumerated(value = EnumType.STRING)
+    @Column(nullable = false)
+    private TaxFormJobStatus status;
+
+    @Column(nullable = false)
+    private ZonedDateTime cutoff;
+
+    @Column(nullable = false)
+    private Integer chunkSize;
+
+    /**
+     * The keyset cursor: the last form id covered by a planned chunk.
+     */
+    @Column(nullable = false)
+    private Integer nextId;
+
+    @Column(length = 1000)
+    private String error;
+
+    /**
+     * The node running the job, which holds it until the lease expires unless it renews it.
+     */
+    private String owner;
+
+    private ZonedDateTime leaseExpiresAt;
+
+    @CreationTimestamp
+    private ZonedDateTime createdAt;
+
+    @UpdateTimestamp
+    private ZonedDateTime updatedAt;
+
+    private ZonedDateTime finishedAt;
+}
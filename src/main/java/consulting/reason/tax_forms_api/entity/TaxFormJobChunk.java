@@ -0,0 +1,51 @@
+package consulting.reason.tax_forms_api.entity;
+
+import consulting.reason.tax_forms_api.enums.TaxFormJobChunkStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.ZonedDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "tax_form_job_chunks")
+@Entity
+public class TaxFormJobChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long jobId;
+
+    @Column(nullable = false)
+    private Integer firstId;
+
+    @Column(nullable = false)
+    private Integer lastId;
+
+    @Enumerated(value = EnumType.STRING)
+    @Column(nullable = false)
+    private TaxFormJobChunkStatus status;
+
+    private Integer formsUpdated;
+
+    @UpdateTimestamp
+    private ZonedDateTime updatedAt;
+}
@@ -0,0 +1,6 @@
+package consulting.reason.tax_forms_api.enums;
+
+public enum TaxFormJobChunkStatus {
+    PENDING,
+    DONE,
+}
@@ -0,0 +1,8 @@
+package consulting.reason.tax_forms_api.enums;
+
+public enum TaxFormJobStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED,
+}
@@ -0,0 +1,6 @@
+package consulting.reason.tax_forms_api.enums;
+
+public enum TaxFormJobType {
+    RETURN_STALE_SUBMITTED,
+    FLAG_NOT_STARTED,
+}
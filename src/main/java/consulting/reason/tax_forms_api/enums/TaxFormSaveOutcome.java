@@ -0,0 +1,9 @@
+package consulting.reason.tax_forms_api.enums;
+
+public enum TaxFormSaveOutcome {
+    SAVED,
+    INVALID,
+    NOT_FOUND,
+    REJECTED,
+    FAILED;
+}
@@ -0,0 +1,41 @@
+package consulting.reason.tax_forms_api.enums;
+
+import java.util.List;
+
+/**
+ * The status workflow of a form: each transition moves a form to its target status from one of its source
+ * statuses and, except for saving, records a history entry. {@code TaxFormWorkflow} compiles this table for both
+ * the Java checks and the SQL guards.
+ */
+public enum TaxFormTransition {
+    SAVE(TaxFormStatus.IN_PROGRESS, null,
+            TaxFormStatus.NOT_STARTED, TaxFormStatus.IN_PROGRESS, TaxFormStatus.RETURNED),
+    SUBMIT(TaxFormStatus.SUBMITTED, TaxFormHistoryStatus.SUBMITTED,
+            TaxFormStatus.IN_PROGRESS),
+    RETURN(TaxFormStatus.RETURNED, TaxFormHistoryStatus.RETURNED,
+            TaxFormStatus.SUBMITTED),
+    ACCEPT(TaxFormStatus.ACCEPTED, TaxFormHistoryStatus.ACCEPTED,
+            TaxFormStatus.SUBMITTED);
+
+    private final TaxFormStatus target;
+    private final TaxFormHistoryStatus historyStatus;
+    private final List<TaxFormStatus> sources;
+
+    TaxFormTransition(TaxFormStatus target, TaxFormHistoryStatus historyStatus, TaxFormStatus... sources) {
+        this.target = target;
+        this.historyStatus = historyStatus;
+        this.sources = List.of(sources);
+    }
+
+    public TaxFormStatus getTarget() {
+        return target;
+    }
+
+    public TaxFormHistoryStatus getHistoryStatus() {
+        return historyStatus;
+    }
+
+    public List<TaxFormStatus> getSources() {
+        return sources;
+    }
+}
@@ -0,0 +1,23 @@
+package consulting.reason.tax_forms_api.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class TaxFormAnalyticsParameterException extends TaxFormRejectionException {
+    private final String parameter;
+    private final Number value;
+    private final Number min;
+    private final Number max;
+
+    public TaxFormAnalyticsParameterException(String parameter, Number value, Number min, Number max) {
+        super(HttpStatus.BAD_REQUEST);
+        this.parameter = parameter;
+        this.value = value;
+        this.min = min;
+        this.max = max;
+    }
+
+    @Override
+    protected String formatReason() {
+        return "Parameter %s must be between %s and %s, was %s".formatted(parameter, min, max, value);
+    }
+}
@@ -0,0 +1,19 @@
+package consulting.reason.tax_forms_api.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+
+public class TaxFormBatchIdsException extends TaxFormRejectionException {
+    private final List<Integer> ids;
+
+    public TaxFormBatchIdsException(List<Integer> ids) {
+        super(HttpStatus.BAD_REQUEST);
+        this.ids = ids;
+    }
+
+    @Override
+    protected String formatReason() {
+        return "Cannot process a batch of forms with an empty id: %s".formatted(ids);
+    }
+}
@@ -0,0 +1,17 @@
+package consulting.reason.tax_forms_api.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class TaxFormBatchItemException extends TaxFormRejectionException {
+    private final int index;
+
+    public TaxFormBatchItemException(int index) {
+        super(HttpStatus.BAD_REQUEST);
+        this.index = index;
+    }
+
+    @Override
+    protected String formatReason() {
+        return "Item %d of the batch is null".formatted(index);
+    }
+}
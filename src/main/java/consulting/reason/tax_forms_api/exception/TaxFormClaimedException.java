@@ -0,0 +1,24 @@
+package consulting.reason.tax_forms_api.exception;
+
+import consulting.reason.tax_forms_api.entity.TaxForm;
+import org.springframework.http.HttpStatus;
+
+import java.time.ZonedDateTime;
+
+public class TaxFormClaimedException extends TaxFormRejectionException {
+    private final Integer id;
+    private final String claimedBy;
+    private final ZonedDateTime claimExpiresAt;
+
+    public TaxFormClaimedException(TaxForm taxForm) {
+        super(HttpStatus.CONFLICT);
+        this.id = taxForm.getId();
+        this.claimedBy = taxForm.getClaimedBy();
+        this.claimExpiresAt = taxForm.getClaimExpiresAt();
+    }
+
+    @Override
+    protected String formatReason() {
+        return "Tax form %d is claimed by %s until %s".formatted(id, claimedBy, claimExpiresAt);
+    }
+}
@@ -0,0 +1,21 @@
+package consulting.reason.tax_forms_api.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+public class TaxFormDeadlineExceededException extends TaxFormRejectionException {
+    private final Duration budget;
+
+    public TaxFormDeadlineExceededException(Duration budget) {
+        super(HttpStatus.GATEWAY_TIMEOUT);
+        this.budget = budget;
+    }
+
+    @Override
+    protected String formatReason() {
+        return budget != null
+                ? "The request did not finish within its time budget of %d ms".formatted(budget.toMillis())
+                : "The request did not finish within its time budget";
+    }
+}
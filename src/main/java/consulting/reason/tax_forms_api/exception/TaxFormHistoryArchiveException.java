@@ -0,0 +1,19 @@
+package consulting.reason.tax_forms_api.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class TaxFormHistoryArchiveException extends TaxFormRejectionException {
+    private final int year;
+    private final int oldestOpenYear;
+
+    public TaxFormHistoryArchiveException(Integer year, Integer oldestOpenYear) {
+        super(HttpStatus.UNPROCESSABLE_ENTITY);
+        this.year = year;
+        this.oldestOpenYear = oldestOpenYear;
+    }
+
+    @Override
+    protected String formatReason() {
+        return "Cannot archive history year %d, years from %d onward are still open".formatted(year, oldestOpenYear);
+    }
+}
@@ -0,0 +1,17 @@
+package consulting.reason.tax_forms_api.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class TaxFormIdempotencyConflictException extends TaxFormRejectionException {
+    private final String key;
+
+    public TaxFormIdempotencyConflictException(String key) {
+        super(HttpStatus.CONFLICT);
+        this.key = key;
+    }
+
+    @Override
+    protected String formatReason() {
+        return "A request with Idempotency-Key %s is still in progress".formatted(key);
+    }
+}
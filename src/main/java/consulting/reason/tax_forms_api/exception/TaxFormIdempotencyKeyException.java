@@ -0,0 +1,17 @@
+package consulting.reason.tax_forms_api.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class TaxFormIdempotencyKeyException extends TaxFormRejectionException {
+    private final int maxLength;
+
+    public TaxFormIdempotencyKeyException(int maxLength) {
+        super(HttpStatus.BAD_REQUEST);
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    protected String formatReason() {
+        return "Idempotency-Key must be between 1 and %d characters".formatted(maxLength);
+    }
+}
@@ -0,0 +1,17 @@
+package consulting.reason.tax_forms_api.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class TaxFormIdempotencyMismatchException extends TaxFormRejectionException {
+    private final String key;
+
+    public TaxFormIdempotencyMismatchException(String key) {
+        super(HttpStatus.UNPROCESSABLE_ENTITY);
+        this.key = key;
+    }
+
+    @Override
+    protected String formatReason() {
+        return "Idempotency-Key %s was already used for a different request".formatted(key);
+    }
+}
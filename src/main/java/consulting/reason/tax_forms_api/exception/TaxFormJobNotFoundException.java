@@ -0,0 +1,19 @@
+package consulting.reason.tax_forms_api.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class TaxFormJobNotFoundException extends TaxFormRejectionException {
+    private final Integer year;
+    private final Long id;
+
+    public TaxFormJobNotFoundException(Integer year, Long id) {
+        super(HttpStatus.NOT_FOUND);
+        this.year = year;
+        this.id = id;
+    }
+
+    @Override
+    protected String formatReason() {
+        return "Job %d of year %d not found".formatted(id, year);
+    }
+}
@@ -0,0 +1,23 @@
+package consulting.reason.tax_forms_api.exception;
+
+import consulting.reason.tax_forms_api.entity.TaxFormJob;
+import consulting.reason.tax_forms_api.enums.TaxFormJobStatus;
+import org.springframework.http.HttpStatus;
+
+public class TaxFormJobStateException extends TaxFormRejectionException {
+    private final Long id;
+    private final TaxFormJobStatus status;
+    private final String action;
+
+    public TaxFormJobStateException(TaxFormJob job, String action) {
+        super(HttpStatus.CONFLICT);
+        this.id = job.getId();
+        this.status = job.getStatus();
+        this.action = action;
+    }
+
+    @Override
+    protected String formatReason() {
+        return "Cannot %s job %d in status %s".formatted(action, id, status.name());
+    }
+}
@@ -1,13 +1,17 @@
 package consulting.reason.tax_forms_api.exception;
 
 import org.springframework.http.HttpStatus;
-import org.springframework.web.server.ResponseStatusException;
 
-public class TaxFormNotFoundException extends ResponseStatusException {
+public class TaxFormNotFoundException extends TaxFormRejectionException {
+    private final Integer id;
+
     public TaxFormNotFoundException(Integer id) {
-        super(
-                HttpStatus.NOT_FOUND,
-                "Tax form %d not found".formatted(id)
-        );
+        super(HttpStatus.NOT_FOUND);
+        this.id = id;
+    }
+
+    @Override
+    protected String formatReason() {
+        return "Tax form %d not found".formatted(id);
     }
 }
@@ -0,0 +1,32 @@
+package consulting.reason.tax_forms_api.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+public class TaxFormOverloadedException extends TaxFormRejectionException {
+    private final String pool;
+    private final int limit;
+    private final Duration retryAfter;
+
+    public TaxFormOverloadedException(String pool, int limit, Duration retryAfter) {
+        super(HttpStatus.SERVICE_UNAVAILABLE);
+        this.pool = pool;
+        this.limit = limit;
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    protected String formatReason() {
+        return "Too many concurrent %s, the current limit is %d".formatted(pool, limit);
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+
+        return headers;
+    }
+}
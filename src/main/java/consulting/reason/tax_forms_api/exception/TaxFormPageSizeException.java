@@ -0,0 +1,19 @@
+package consulting.reason.tax_forms_api.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class TaxFormPageSizeException extends TaxFormRejectionException {
+    private final int size;
+    private final int maxSize;
+
+    public TaxFormPageSizeException(Integer size, Integer maxSize) {
+        super(HttpStatus.BAD_REQUEST);
+        this.size = size;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    protected String formatReason() {
+        return "Cannot return %d forms in one page, the maximum is %d".formatted(size, maxSize);
+    }
+}
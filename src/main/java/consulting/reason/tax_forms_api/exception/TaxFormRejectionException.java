@@ -0,0 +1,49 @@
+package consulting.reason.tax_forms_api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * An expected rejection of a client request. Rejections are frequent under load and are answered without a stack
+ * trace, so none is captured, and the reason is only formatted once it is read.
+ */
+public abstract class TaxFormRejectionException extends ResponseStatusException {
+    private String reason;
+
+    protected TaxFormRejectionException(HttpStatus status) {
+        super(status);
+    }
+
+    protected abstract String formatReason();
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+    @Override
+    public String getReason() {
+        if (reason == null) {
+            reason = formatReason();
+        }
+
+        return reason;
+    }
+
+    @Override
+    public String getMessage() {
+        return getStatusCode() + " \"" + getReason() + "\"";
+    }
+
+    @Override
+    public ProblemDetail getBody() {
+        ProblemDetail problemDetail = super.getBody();
+
+        if (problemDetail.getDetail() == null) {
+            problemDetail.setDetail(getReason());
+        }
+
+        return problemDetail;
+    }
+}
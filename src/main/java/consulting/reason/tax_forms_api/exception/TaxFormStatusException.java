@@ -3,17 +3,32 @@ package consulting.reason.tax_forms_api.exception;
 import consulting.reason.tax_forms_api.entity.TaxForm;
 import consulting.reason.tax_forms_api.enums.TaxFormStatus;
 import org.springframework.http.HttpStatus;
-import org.springframework.web.server.ResponseStatusException;
 
-public class TaxFormStatusException extends ResponseStatusException {
+public class TaxFormStatusException extends TaxFormRejectionException {
+    private final Integer id;
+    private final TaxFormStatus taxFormStatus;
+    private final TaxFormStatus currentStatus;
+
     public TaxFormStatusException(TaxForm taxForm, TaxFormStatus taxFormStatus) {
-        super(
-                HttpStatus.UNPROCESSABLE_ENTITY,
-                "Cannot update form id %d to status %s from status %s".formatted(
-                        taxForm.getId(),
-                        taxFormStatus.name(),
-                        taxForm.getStatus().name()
-                )
+        super(HttpStatus.UNPROCESSABLE_ENTITY);
+        this.id = taxForm.getId();
+        this.taxFormStatus = taxFormStatus;
+        this.currentStatus = taxForm.getStatus();
+    }
+
+    public TaxFormStatusException(Integer id, TaxFormStatus currentStatus, TaxFormStatus taxFormStatus) {
+        super(HttpStatus.UNPROCESSABLE_ENTITY);
+        this.id = id;
+        this.taxFormStatus = taxFormStatus;
+        this.currentStatus = currentStatus;
+    }
+
+    @Override
+    protected String formatReason() {
+        return "Cannot update form id %d to status %s from status %s".formatted(
+                id,
+                taxFormStatus.name(),
+                currentStatus.name()
         );
     }
 }
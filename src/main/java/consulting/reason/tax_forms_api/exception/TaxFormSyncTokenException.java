@@ -0,0 +1,19 @@
+package consulting.reason.tax_forms_api.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class TaxFormSyncTokenException extends TaxFormRejectionException {
+    private final String syncToken;
+    private final int year;
+
+    public TaxFormSyncTokenException(String syncToken, Integer year) {
+        super(HttpStatus.BAD_REQUEST);
+        this.syncToken = syncToken;
+        this.year = year;
+    }
+
+    @Override
+    protected String formatReason() {
+        return "Sync token %s is not a token of year %d".formatted(syncToken, year);
+    }
+}
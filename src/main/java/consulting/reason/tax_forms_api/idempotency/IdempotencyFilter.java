@@ -0,0 +1,234 @@
+package consulting.reason.tax_forms_api.idempotency;
+
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.controller.Endpoints;
+import consulting.reason.tax_forms_api.controller.Headers;
+import consulting.reason.tax_forms_api.exception.TaxFormIdempotencyKeyException;
+import consulting.reason.tax_forms_api.exception.TaxFormRejectionException;
+import consulting.reason.tax_forms_api.service.IdempotencyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Makes mutations of forms sent with an Idempotency-Key header safe to retry. The first request with a key runs
+ * and its status and body are stored; a retry with the same key and request gets them back without reaching the
+ * controller, while the first request is still running it gets a 409. Server errors are not stored, so the key
+ * can be retried.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class IdempotencyFilter extends OncePerRequestFilter {
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final Logger logger = LoggerFactory.getLogger(IdempotencyFilter.class);
+    private final IdempotencyService idempotencyService;
+    private final TaxFormsApiProperties taxFormsApiProperties;
+    private final HandlerExceptionResolver handlerExceptionResolver;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService,
+                             TaxFormsApiProperties taxFormsApiProperties,
+                             @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver) {
+        this.idempotencyService = idempotencyService;
+        this.taxFormsApiProperties = taxFormsApiProperties;
+        this.handlerExceptionResolver = handlerExceptionResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(Headers.IDEMPOTENCY_KEY) == null
+                || !MUTATING_METHODS.contains(request.getMethod())
+                || !request.getRequestURI().startsWith(Endpoints.FORMS);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(Headers.IDEMPOTENCY_KEY);
+        CachedBodyRequest cachedBodyRequest = new CachedBodyRequest(request);
+        String fingerprint = fingerprint(cachedBodyRequest);
+        Optional<IdempotentResponse> stored;
+
+        try {
+            int maxKeyLength = taxFormsApiProperties.getIdempotency().getMaxKeyLength();
+            if (key.isBlank() || key.length() > maxKeyLength) {
+                throw new TaxFormIdempotencyKeyException(maxKeyLength);
+            }
+
+            stored = idempotencyService.begin(key, fingerprint);
+        } catch (TaxFormRejectionException e) {
+            handlerExceptionResolver.resolveException(request, response, null, e);
+            return;
+        }
+
+        if (stored.isPresent()) {
+            replay(response, stored.get());
+            return;
+        }
+
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean handled = false;
+
+        try {
+            filterChain.doFilter(cachedBodyRequest, responseWrapper);
+            handled = responseWrapper.getStatus() < 500;
+        } finally {
+            if (handled) {
+                complete(key, fingerprint, responseWrapper);
+            } else {
+                release(key);
+            }
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Stores the response of a request that has already committed. When that fails the key stays in flight until
+     * its lease lapses instead of being released, so a retry cannot run the mutation again right away.
+     */
+    private void complete(String key, String fingerprint, ContentCachingResponseWrapper responseWrapper) {
+        try {
+            idempotencyService.complete(
+                    key,
+                    fingerprint,
+                    responseWrapper.getStatus(),
+                    responseWrapper.getContentType(),
+                    responseWrapper.getContentAsByteArray()
+            );
+        } catch (RuntimeException e) {
+            logger.warn("Could not store the response of Idempotency-Key {}, retries are rejected until its lease"
+                    + " lapses", key, e);
+        }
+    }
+
+    private void release(String key) {
+        try {
+            idempotencyService.release(key);
+        } catch (RuntimeException e) {
+            logger.warn("Could not release Idempotency-Key {}, retries are rejected until it expires", key, e);
+        }
+    }
+
+    private static void replay(HttpServletResponse response, IdempotentResponse idempotentResponse) throws IOException {
+        response.setStatus(idempotentResponse.status());
+        response.setHeader(Headers.IDEMPOTENT_REPLAYED, "true");
+
+        if (idempotentResponse.contentType() != null) {
+            response.setContentType(idempotentResponse.contentType());
+        }
+        if (idempotentResponse.body() != null) {
+            response.setContentLength(idempotentResponse.body().length);
+            response.getOutputStream().write(idempotentResponse.body());
+        }
+    }
+
+    /**
+     * Hashes everything that selects what a mutation does, so a key reused for another request is detected.
+     */
+    private static String fingerprint(CachedBodyRequest request) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+
+            for (String part : new String[]{
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    request.getQueryString(),
+                    request.getHeader(Headers.AUTOSAVE),
+                    request.getHeader(Headers.REVIEWER)
+            }) {
+                messageDigest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                messageDigest.update((byte) 0);
+            }
+            messageDigest.update(request.body);
+
+            return HexFormat.of().formatHex(messageDigest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream inputStream = new ByteArrayInputStream(body);
+
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return inputStream.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * The body is already in memory, so the listener is told right away that all of it is available.
+                 */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return inputStream.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return inputStream.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null
+                    ? Charset.forName(getCharacterEncoding())
+                    : StandardCharsets.UTF_8;
+
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package consulting.reason.tax_forms_api.idempotency;
+
+import java.time.ZonedDateTime;
+
+/**
+ * The response stored for an idempotency key, or an in-flight marker with status 0 while the first request runs.
+ */
+public record IdempotentResponse(String fingerprint, int status, String contentType, byte[] body, ZonedDateTime expiresAt) {
+    public static IdempotentResponse inFlight(String fingerprint, ZonedDateTime expiresAt) {
+        return new IdempotentResponse(fingerprint, 0, null, null, expiresAt);
+    }
+
+    public boolean isCompleted() {
+        return status > 0;
+    }
+
+    public boolean isExpired(ZonedDateTime now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,47 @@
+package consulting.reason.tax_forms_api.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Parameter;
+
+/**
+ * Emits a {@link TaxFormOperationEvent} around each service operation, only when the event is enabled in a running
+ * recording. Advised outside the transaction advice, so the duration of a write includes its flush and commit.
+ * Arguments named {@code id} and {@code year} fill in the form id and year; the status the form had before the
+ * operation is taken from the first form the operation loads from a repository.
+ */
+public class OperationEventInterceptor implements MethodInterceptor {
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        TaxFormOperationEvent event = new TaxFormOperationEvent();
+
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+
+        event.operation = invocation.getMethod().getName();
+        Parameter[] parameters = invocation.getMethod().getParameters();
+        Object[] arguments = invocation.getArguments();
+        for (int i = 0; i < parameters.length; i++) {
+            if (arguments[i] instanceof Integer value && parameters[i].getName().equals("id")) {
+                event.form(value);
+            } else if (arguments[i] instanceof Integer value && parameters[i].getName().equals("year")) {
+                event.year(value);
+            }
+        }
+
+        TaxFormOperationEvent previous = TaxFormOperationEvent.enter(event);
+        event.begin();
+
+        try {
+            Object result = invocation.proceed();
+            event.record(result);
+
+            return result;
+        } finally {
+            TaxFormOperationEvent.exit(previous);
+            event.commit();
+        }
+    }
+}
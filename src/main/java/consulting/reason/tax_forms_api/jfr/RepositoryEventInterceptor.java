@@ -0,0 +1,53 @@
+package consulting.reason.tax_forms_api.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Emits a {@link TaxFormRepositoryEvent} around each call of a repository proxy, only when the event is enabled in
+ * a running recording, and hands each result to the {@link TaxFormOperationEvent} of the thread.
+ */
+public class RepositoryEventInterceptor implements MethodInterceptor {
+    private final String repository;
+
+    public RepositoryEventInterceptor(Class<?> repositoryInterface) {
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        TaxFormRepositoryEvent event = new TaxFormRepositoryEvent();
+
+        if (!event.isEnabled()) {
+            Object result = invocation.proceed();
+            TaxFormOperationEvent.found(result);
+
+            return result;
+        }
+
+        event.repository = repository;
+        event.method = invocation.getMethod().getName();
+        event.results = -1;
+        event.begin();
+
+        try {
+            Object result = invocation.proceed();
+            TaxFormOperationEvent.found(result);
+
+            if (result instanceof Collection<?> collection) {
+                event.results = collection.size();
+            } else if (result instanceof Optional<?> optional) {
+                event.results = optional.isPresent() ? 1 : 0;
+            } else if (result instanceof Number number) {
+                event.results = number.intValue();
+            }
+
+            return result;
+        } finally {
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package consulting.reason.tax_forms_api.jfr;
+
+import consulting.reason.tax_forms_api.dto.TaxFormDto;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("consulting.reason.tax_forms.Mapping")
+@Label("Tax Form Mapping")
+@Category("Tax Forms")
+@Description("A ModelMapper conversion of a tax form to its DTO")
+@StackTrace(false)
+public class TaxFormMappingEvent extends jdk.jfr.Event {
+    @Label("Type Map")
+    String typeMap;
+    @Label("Form Id")
+    int formId;
+    @Label("History Size")
+    int historySize;
+
+    public static TaxFormMappingEvent start(String typeMap, Integer formId) {
+        TaxFormMappingEvent event = new TaxFormMappingEvent();
+        event.typeMap = typeMap;
+        event.formId = formId != null ? formId : 0;
+        event.begin();
+
+        return event;
+    }
+
+    public TaxFormDto mapped(TaxFormDto taxFormDto) {
+        historySize = taxFormDto.getHistory() != null ? taxFormDto.getHistory().size() : 0;
+
+        return taxFormDto;
+    }
+}
@@ -0,0 +1,137 @@
+package consulting.reason.tax_forms_api.jfr;
+
+import consulting.reason.tax_forms_api.dto.TaxFormBatchDto;
+import consulting.reason.tax_forms_api.dto.TaxFormChangesDto;
+import consulting.reason.tax_forms_api.dto.TaxFormDto;
+import consulting.reason.tax_forms_api.entity.TaxForm;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * A call of a {@code TaxFormService} operation, emitted by {@link OperationEventInterceptor}. Form id and year are
+ * 0 when the operation does not address a single form or year, the statuses are null when no form was found.
+ */
+@Name("consulting.reason.tax_forms.Operation")
+@Label("Tax Form Operation")
+@Category("Tax Forms")
+@Description("A service operation on tax forms")
+@StackTrace(false)
+public class TaxFormOperationEvent extends jdk.jfr.Event {
+    private static final ThreadLocal<TaxFormOperationEvent> CURRENT = new ThreadLocal<>();
+
+    @Label("Operation")
+    String operation;
+    @Label("Form Id")
+    int formId;
+    @Label("Year")
+    int year;
+    @Label("From Status")
+    String fromStatus;
+    @Label("To Status")
+    String toStatus;
+    @Label("History Size")
+    int historySize;
+    @Label("Forms")
+    int forms;
+
+    public static TaxFormOperationEvent start(String operation) {
+        TaxFormOperationEvent event = new TaxFormOperationEvent();
+        event.operation = operation;
+        event.begin();
+
+        return event;
+    }
+
+    public TaxFormOperationEvent form(Integer id) {
+        formId = id != null ? id : 0;
+
+        return this;
+    }
+
+    public TaxFormOperationEvent year(Integer year) {
+        this.year = year != null ? year : 0;
+
+        return this;
+    }
+
+    /**
+     * Records the first form the operation of the current thread loads from a repository, before it is changed.
+     */
+    public static void found(Object result) {
+        TaxFormOperationEvent event = CURRENT.get();
+
+        if (event != null
+                && event.fromStatus == null
+                && result instanceof Optional<?> optional
+                && optional.orElse(null) instanceof TaxForm taxForm) {
+            event.from(taxForm);
+        }
+    }
+
+    static TaxFormOperationEvent enter(TaxFormOperationEvent event) {
+        TaxFormOperationEvent previous = CURRENT.get();
+        CURRENT.set(event);
+
+        return previous;
+    }
+
+    static void exit(TaxFormOperationEvent previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Records the form the operation found, before it is changed.
+     */
+    public void from(TaxForm taxForm) {
+        form(taxForm.getId());
+        year(taxForm.getFormYear());
+        fromStatus = taxForm.getStatus().name();
+    }
+
+    /**
+     * Records the forms of an operation result: a form, an optional form, a collection or a batch of forms.
+     */
+    public void record(Object result) {
+        if (result instanceof Optional<?> optional) {
+            optional.ifPresent(this::record);
+        } else if (result instanceof TaxFormDto taxFormDto) {
+            result(taxFormDto);
+        } else if (result instanceof Collection<?> collection) {
+            results(collection);
+        } else if (result instanceof TaxFormBatchDto taxFormBatchDto) {
+            results(taxFormBatchDto.getForms());
+        } else if (result instanceof TaxFormChangesDto taxFormChangesDto) {
+            results(taxFormChangesDto.getForms());
+        }
+    }
+
+    public TaxFormDto result(TaxFormDto taxFormDto) {
+        if (formId == 0) {
+            form(taxFormDto.getId());
+        }
+        if (year == 0) {
+            year(taxFormDto.getFormYear());
+        }
+        toStatus = taxFormDto.getStatus().name();
+        historySize = taxFormDto.getHistory() != null ? taxFormDto.getHistory().size() : 0;
+        forms = 1;
+
+        return taxFormDto;
+    }
+
+    public <T extends Collection<?>> T results(T results) {
+        forms = results.size();
+
+        return results;
+    }
+}
@@ -0,0 +1,24 @@
+package consulting.reason.tax_forms_api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A call of a Spring Data repository method. Results is -1 for results that are not counted, such as streams.
+ */
+@Name("consulting.reason.tax_forms.Repository")
+@Label("Tax Form Repository Call")
+@Category("Tax Forms")
+@Description("A call of a Spring Data repository method")
+@StackTrace(false)
+public class TaxFormRepositoryEvent extends jdk.jfr.Event {
+    @Label("Repository")
+    String repository;
+    @Label("Method")
+    String method;
+    @Label("Results")
+    int results;
+}
@@ -0,0 +1,37 @@
+package consulting.reason.tax_forms_api.jobs;
+
+import consulting.reason.tax_forms_api.entity.TaxFormJob;
+import consulting.reason.tax_forms_api.enums.TaxFormJobType;
+import consulting.reason.tax_forms_api.enums.TaxFormStatus;
+import consulting.reason.tax_forms_api.repository.TaxFormRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Flags the forms still NOT_STARTED that were created before the job's cutoff. Forms already flagged are left
+ * alone, so the first flagging time is kept.
+ */
+@Component
+@RequiredArgsConstructor
+public class FlagNotStartedProcessor implements TaxFormJobChunkProcessor {
+    private final TaxFormRepository taxFormRepository;
+
+    @Override
+    public TaxFormJobType getType() {
+        return TaxFormJobType.FLAG_NOT_STARTED;
+    }
+
+    @Override
+    public int process(TaxFormJob job, Integer firstId, Integer lastId) {
+        return taxFormRepository.flagCreatedBefore(
+                job.getFormYear(),
+                firstId,
+                lastId,
+                TaxFormStatus.NOT_STARTED,
+                job.getCutoff(),
+                ZonedDateTime.now()
+        );
+    }
+}
@@ -0,0 +1,53 @@
+package consulting.reason.tax_forms_api.jobs;
+
+import consulting.reason.tax_forms_api.entity.TaxFormJob;
+import consulting.reason.tax_forms_api.enums.TaxFormJobType;
+import consulting.reason.tax_forms_api.enums.TaxFormStatus;
+import consulting.reason.tax_forms_api.enums.TaxFormTransition;
+import consulting.reason.tax_forms_api.repository.TaxFormRepository;
+import consulting.reason.tax_forms_api.util.TaxFormWorkflow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Returns the forms submitted before the job's cutoff. The forms are locked first, so the status update and the
+ * RETURNED history rows cover exactly the forms a concurrent review did not accept or return in the meantime.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReturnStaleSubmittedProcessor implements TaxFormJobChunkProcessor {
+    private static final TaxFormTransition TRANSITION = TaxFormTransition.RETURN;
+    private static final List<String> SOURCES = TaxFormWorkflow.sources(TRANSITION).stream()
+            .map(TaxFormStatus::name)
+            .toList();
+
+    private final TaxFormRepository taxFormRepository;
+
+    @Override
+    public TaxFormJobType getType() {
+        return TaxFormJobType.RETURN_STALE_SUBMITTED;
+    }
+
+    @Override
+    public int process(TaxFormJob job, Integer firstId, Integer lastId) {
+        List<Integer> ids = taxFormRepository.lockSubmittedBefore(
+                job.getFormYear(),
+                firstId,
+                lastId,
+                SOURCES,
+                job.getCutoff()
+        );
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        ZonedDateTime now = ZonedDateTime.now();
+        taxFormRepository.insertHistory(ids, TRANSITION.getHistoryStatus().name(), now);
+
+        return taxFormRepository.updateStatus(ids, TRANSITION.getTarget(), now);
+    }
+}
@@ -0,0 +1,18 @@
+package consulting.reason.tax_forms_api.jobs;
+
+import consulting.reason.tax_forms_api.entity.TaxFormJob;
+import consulting.reason.tax_forms_api.enums.TaxFormJobType;
+
+/**
+ * Applies one type of year-end job to an id range of the job's year with set-based statements. Runs inside the
+ * chunk's transaction and must be safe to re-run on a range it already processed, since a chunk interrupted
+ * before its checkpoint committed is processed again on resume.
+ */
+public interface TaxFormJobChunkProcessor {
+    TaxFormJobType getType();
+
+    /**
+     * @return the number of forms the chunk changed
+     */
+    int process(TaxFormJob job, Integer firstId, Integer lastId);
+}
@@ -0,0 +1,4 @@
+package consulting.reason.tax_forms_api.jobs;
+
+public record TaxFormJobProgress(Long chunks, Long chunksDone, Long formsUpdated) {
+}
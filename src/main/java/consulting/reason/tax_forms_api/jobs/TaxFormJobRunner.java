@@ -0,0 +1,419 @@
+package consulting.reason.tax_forms_api.jobs;
+
+import consulting.reason.tax_forms_api.analytics.TaxFormYearSnapshotCache;
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.datasource.DataSourceRoutingContext;
+import consulting.reason.tax_forms_api.datasource.TaxFormShardRouter;
+import consulting.reason.tax_forms_api.entity.TaxFormJob;
+import consulting.reason.tax_forms_api.entity.TaxFormJobChunk;
+import consulting.reason.tax_forms_api.enums.TaxFormJobChunkStatus;
+import consulting.reason.tax_forms_api.enums.TaxFormJobStatus;
+import consulting.reason.tax_forms_api.enums.TaxFormJobType;
+import consulting.reason.tax_forms_api.repository.TaxFormJobChunkRepository;
+import consulting.reason.tax_forms_api.repository.TaxFormJobRepository;
+import consulting.reason.tax_forms_api.repository.TaxFormRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZonedDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs year-end jobs on the shard of their year. A coordinator thread per job first re-queues the chunks an
+ * earlier run left PENDING, then plans the rest of the year in id order from the job's keyset cursor, committing
+ * each planned chunk together with the advanced cursor. Chunks run on a worker pool shared by all jobs, each in
+ * one transaction that applies it and marks it DONE, so a crash only loses the chunks in flight and a resume runs
+ * them again. The pool size bounds the connections jobs hold and every worker pauses after a chunk, so
+ * interactive requests keep most of the database.
+ * <p>
+ * A node only runs a job it owns: it claims the job before starting, renews its lease with every chunk and stops
+ * as soon as the job is cancelled or taken over, which every write of the job checks in its own transaction. A
+ * chunk locks the row of its job before it is applied, so a cancel or a takeover waits for the chunks in flight.
+ * Jobs left RUNNING by a node that died are resumed by the next node that finds their lease expired.
+ */
+@Component
+public class TaxFormJobRunner implements DisposableBean {
+    static final int MAX_ERROR_LENGTH = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(TaxFormJobRunner.class);
+    private final TaxFormRepository taxFormRepository;
+    private final TaxFormJobRepository taxFormJobRepository;
+    private final TaxFormJobChunkRepository taxFormJobChunkRepository;
+    private final TaxFormShardRouter taxFormShardRouter;
+    private final TaxFormYearSnapshotCache taxFormYearSnapshotCache;
+    private final TransactionTemplate transactionTemplate;
+    private final TaxFormsApiProperties.Jobs jobs;
+    private final Map<TaxFormJobType, TaxFormJobChunkProcessor> processors = new EnumMap<>(TaxFormJobType.class);
+    private final Map<String, RunningJob> running = new ConcurrentHashMap<>();
+    private final String owner = UUID.randomUUID().toString();
+    private final ExecutorService coordinators = Executors.newCachedThreadPool(threads("tax-form-job-"));
+    private final ExecutorService workers;
+
+    public TaxFormJobRunner(TaxFormRepository taxFormRepository,
+                            TaxFormJobRepository taxFormJobRepository,
+                            TaxFormJobChunkRepository taxFormJobChunkRepository,
+                            TaxFormShardRouter taxFormShardRouter,
+                            TaxFormYearSnapshotCache taxFormYearSnapshotCache,
+                            PlatformTransactionManager transactionManager,
+                            TaxFormsApiProperties taxFormsApiProperties,
+                            List<TaxFormJobChunkProcessor> processors) {
+        this.taxFormRepository = taxFormRepository;
+        this.taxFormJobRepository = taxFormJobRepository;
+        this.taxFormJobChunkRepository = taxFormJobChunkRepository;
+        this.taxFormShardRouter = taxFormShardRouter;
+        this.taxFormYearSnapshotCache = taxFormYearSnapshotCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jobs = taxFormsApiProperties.getJobs();
+        this.workers = Executors.newFixedThreadPool(jobs.getParallelism(), threads("tax-form-job-worker-"));
+
+        for (TaxFormJobChunkProcessor processor : processors) {
+            this.processors.put(processor.getType(), processor);
+        }
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Claims a job already marked RUNNING for this node and starts running it from its checkpoint.
+     *
+     * @return false when the job is already running on this node or another node holds its lease
+     */
+    public boolean start(TaxFormJob job) {
+        String key = key(job);
+        TaxFormJobChunkProcessor processor = Objects.requireNonNull(
+                processors.get(job.getType()),
+                () -> "No processor for job type " + job.getType()
+        );
+
+        if (running.containsKey(key)) {
+            return false;
+        }
+
+        TaxFormJob claimed = onShard(job.getFormYear(), () -> {
+            ZonedDateTime now = ZonedDateTime.now();
+
+            return taxFormJobRepository.claim(job.getId(), owner, now, now.plus(jobs.getLease())) > 0
+                    ? taxFormJobRepository.findById(job.getId()).orElse(null)
+                    : null;
+        });
+
+        if (claimed == null) {
+            return false;
+        }
+
+        RunningJob runningJob = new RunningJob(key, claimed, processor, new Semaphore(jobs.getParallelism()));
+
+        if (running.putIfAbsent(key, runningJob) != null) {
+            return false;
+        }
+
+        try {
+            coordinators.execute(() -> run(runningJob));
+        } catch (RejectedExecutionException e) {
+            running.remove(key, runningJob);
+            throw e;
+        }
+
+        logger.info("Started job {} {} of {} from id {}",
+                claimed.getId(), claimed.getType(), claimed.getFormYear(), claimed.getNextId());
+        return true;
+    }
+
+    /**
+     * Stops planning and starting chunks of a job running on this node right away, instead of at its next chunk.
+     */
+    public void cancel(TaxFormJob job) {
+        RunningJob runningJob = running.get(key(job));
+
+        if (runningJob != null) {
+            runningJob.stopped = true;
+        }
+    }
+
+    /**
+     * Resumes the RUNNING jobs of every shard whose owner stopped renewing its lease, typically because its node
+     * died.
+     */
+    @Scheduled(fixedDelayString = "#{@taxFormsApiProperties.jobs.resumeInterval.toMillis()}")
+    public void resumeAbandoned() {
+        for (String shard : taxFormShardRouter.getShards()) {
+            try {
+                List<TaxFormJob> abandoned = DataSourceRoutingContext.onShard(shard, () -> transactionTemplate
+                        .execute(status -> taxFormJobRepository.findAbandoned(ZonedDateTime.now())));
+
+                for (TaxFormJob job : abandoned) {
+                    if (start(job)) {
+                        logger.warn("Resumed job {} of {} abandoned by {}", job.getId(), job.getFormYear(),
+                                job.getOwner());
+                    }
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Could not resume the abandoned jobs of shard {}", shard, e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        coordinators.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void run(RunningJob job) {
+        try {
+            runChunks(job);
+            finish(job);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Job {} of {} interrupted, it stays RUNNING until another node resumes it", job.id(),
+                    job.year());
+        } catch (RuntimeException e) {
+            logger.error("Failed to finish job {} of {}", job.id(), job.year(), e);
+        } finally {
+            running.remove(job.key, job);
+        }
+    }
+
+    private void runChunks(RunningJob job) throws InterruptedException {
+        try {
+            List<TaxFormJobChunk> pending = onShard(job.year(), () -> taxFormJobChunkRepository
+                    .findAllByJobIdAndStatusOrderById(job.id(), TaxFormJobChunkStatus.PENDING));
+
+            for (TaxFormJobChunk chunk : pending) {
+                if (!job.isActive()) {
+                    break;
+                }
+                submit(job, chunk);
+            }
+
+            while (job.isActive()) {
+                TaxFormJobChunk chunk = plan(job);
+
+                if (chunk == null) {
+                    break;
+                }
+                submit(job, chunk);
+            }
+        } catch (RuntimeException e) {
+            job.fail(e);
+        }
+
+        job.permits.acquire(jobs.getParallelism());
+    }
+
+    /**
+     * Plans the next chunk from the keyset cursor and moves the cursor past it, renewing the lease.
+     *
+     * @return null when the cursor has passed the last form of the year or the job is no longer owned
+     */
+    private TaxFormJobChunk plan(RunningJob job) {
+        return inTransaction(job.year(), status -> {
+            List<Integer> ids = taxFormRepository.findIdsAfter(
+                    job.year(),
+                    job.nextId,
+                    Limit.of(job.job.getChunkSize())
+            );
+
+            if (ids.isEmpty()) {
+                return null;
+            }
+
+            TaxFormJobChunk chunk = taxFormJobChunkRepository.save(TaxFormJobChunk.builder()
+                    .jobId(job.id())
+                    .firstId(ids.get(0))
+                    .lastId(ids.get(ids.size() - 1))
+                    .status(TaxFormJobChunkStatus.PENDING)
+                    .build());
+            ZonedDateTime now = ZonedDateTime.now();
+
+            if (taxFormJobRepository.advance(job.id(), owner, chunk.getLastId(), now, now.plus(jobs.getLease())) == 0) {
+                status.setRollbackOnly();
+                job.stopped = true;
+                return null;
+            }
+            job.nextId = chunk.getLastId();
+
+            return chunk;
+        });
+    }
+
+    private void submit(RunningJob job, TaxFormJobChunk chunk) throws InterruptedException {
+        job.permits.acquire();
+
+        try {
+            workers.execute(() -> {
+                try {
+                    process(job, chunk);
+                } finally {
+                    job.permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            job.permits.release();
+            throw e;
+        }
+    }
+
+    private void process(RunningJob job, TaxFormJobChunk chunk) {
+        if (!job.isActive() || !renew(job)) {
+            return;
+        }
+
+        try {
+            inTransaction(job.year(), status -> {
+                if (taxFormJobRepository.findRunningForUpdate(job.id(), owner).isEmpty()) {
+                    job.stopped = true;
+                    return 0;
+                }
+
+                int updated = job.processor.process(job.job, chunk.getFirstId(), chunk.getLastId());
+
+                if (taxFormJobChunkRepository.markDone(chunk.getId(), updated, ZonedDateTime.now()) == 0) {
+                    status.setRollbackOnly();
+                    job.stopped = true;
+                    return 0;
+                }
+                if (updated > 0) {
+                    taxFormYearSnapshotCache.invalidate(job.year());
+                }
+
+                return updated;
+            });
+
+            Thread.sleep(jobs.getPauseBetweenChunks().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.warn("Chunk {} ({}-{}) of job {} failed", chunk.getId(), chunk.getFirstId(), chunk.getLastId(),
+                    job.id(), e);
+            job.fail(e);
+        }
+    }
+
+    /**
+     * Extends the lease of a job before each chunk, stopping it once it was cancelled or taken over.
+     */
+    private boolean renew(RunningJob job) {
+        ZonedDateTime now = ZonedDateTime.now();
+        int renewed = onShard(job.year(), () -> taxFormJobRepository.renew(
+                job.id(),
+                owner,
+                now,
+                now.plus(jobs.getLease())
+        ));
+
+        if (renewed == 0) {
+            job.stopped = true;
+        }
+
+        return job.isActive();
+    }
+
+    private void finish(RunningJob job) {
+        Throwable failure = job.failure.get();
+        TaxFormJobStatus status = failure != null ? TaxFormJobStatus.FAILED : TaxFormJobStatus.COMPLETED;
+        int finished = onShard(job.year(), () -> taxFormJobRepository.finish(
+                job.id(),
+                owner,
+                status,
+                error(failure),
+                ZonedDateTime.now()
+        ));
+
+        if (finished == 0) {
+            logger.info("Job {} {} of {} stopped, it was cancelled or taken over", job.id(), job.job.getType(),
+                    job.year());
+            return;
+        }
+        logger.info("Job {} {} of {} {}", job.id(), job.job.getType(), job.year(), status);
+    }
+
+    private <T> T onShard(Integer year, Supplier<T> supplier) {
+        return inTransaction(year, status -> supplier.get());
+    }
+
+    private <T> T inTransaction(Integer year, TransactionCallback<T> callback) {
+        return taxFormShardRouter.writeYear(year, () -> transactionTemplate.execute(callback));
+    }
+
+    private String key(TaxFormJob job) {
+        return taxFormShardRouter.shardForYear(job.getFormYear()) + ":" + job.getId();
+    }
+
+    static String error(Throwable failure) {
+        if (failure == null) {
+            return null;
+        }
+
+        String error = failure.getMessage() != null ? failure.getMessage() : failure.getClass().getName();
+
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    private static ThreadFactory threads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        };
+    }
+
+    private static class RunningJob {
+        private final String key;
+        private final TaxFormJob job;
+        private final TaxFormJobChunkProcessor processor;
+        private final Semaphore permits;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private volatile boolean stopped;
+        private Integer nextId;
+
+        private RunningJob(String key, TaxFormJob job, TaxFormJobChunkProcessor processor, Semaphore permits) {
+            this.key = key;
+            this.job = job;
+            this.processor = processor;
+            this.permits = permits;
+            this.nextId = job.getNextId();
+        }
+
+        private Long id() {
+            return job.getId();
+        }
+
+        private Integer year() {
+            return job.getFormYear();
+        }
+
+        private boolean isActive() {
+            return !stopped && failure.get() == null;
+        }
+
+        private void fail(Throwable e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package consulting.reason.tax_forms_api.repository;
+
+import consulting.reason.tax_forms_api.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+    /**
+     * Inserts an in-flight key, failing with a unique violation when another request already holds it.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_keys (idempotency_key, fingerprint, created_at, expires_at)
+            VALUES (:key, :fingerprint, :createdAt, :expiresAt)
+            """, nativeQuery = true)
+    void insertInFlight(@Param("key") String key,
+                        @Param("fingerprint") String fingerprint,
+                        @Param("createdAt") ZonedDateTime createdAt,
+                        @Param("expiresAt") ZonedDateTime expiresAt);
+
+    /**
+     * Stores the response of an in-flight key, unless its lease lapsed and another request took it over.
+     */
+    @Modifying
+    @Query("""
+            UPDATE IdempotencyKey k
+            SET k.status = :status, k.contentType = :contentType, k.body = :body, k.expiresAt = :expiresAt
+            WHERE k.key = :key
+            AND k.fingerprint = :fingerprint
+            AND k.status IS NULL
+            """)
+    int complete(@Param("key") String key,
+                 @Param("fingerprint") String fingerprint,
+                 @Param("status") int status,
+                 @Param("contentType") String contentType,
+                 @Param("body") byte[] body,
+                 @Param("expiresAt") ZonedDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.key = :key AND k.expiresAt < :now")
+    int deleteExpired(@Param("key") String key, @Param("now") ZonedDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteAllExpired(@Param("now") ZonedDateTime now);
+}
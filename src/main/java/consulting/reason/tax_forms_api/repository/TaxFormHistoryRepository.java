@@ -0,0 +1,27 @@
+package consulting.reason.tax_forms_api.repository;
+
+import consulting.reason.tax_forms_api.entity.TaxFormHistory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaxFormHistoryRepository extends JpaRepository<TaxFormHistory, Integer> {
+    /**
+     * Returns the latest history entries of a form, newest first, from the (tax_form_id, created_at) index of the
+     * partition of the form's year.
+     */
+    @Query("""
+            SELECT h FROM TaxFormHistory h
+            WHERE h.formYear = :formYear
+              AND h.taxForm.id = :taxFormId
+            ORDER BY h.createdAt DESC, h.id DESC
+            """)
+    List<TaxFormHistory> findRecent(@Param("taxFormId") Integer taxFormId,
+                                    @Param("formYear") Integer formYear,
+                                    Limit limit);
+}
@@ -0,0 +1,46 @@
+package consulting.reason.tax_forms_api.repository;
+
+import consulting.reason.tax_forms_api.entity.TaxFormJobChunk;
+import consulting.reason.tax_forms_api.enums.TaxFormJobChunkStatus;
+import consulting.reason.tax_forms_api.jobs.TaxFormJobProgress;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+@Repository
+public interface TaxFormJobChunkRepository extends JpaRepository<TaxFormJobChunk, Long> {
+    List<TaxFormJobChunk> findAllByJobIdAndStatusOrderById(Long jobId, TaxFormJobChunkStatus status);
+
+    /**
+     * Marks a PENDING chunk DONE. The caller holds the lock of its RUNNING job, see
+     * {@link TaxFormJobRepository#findRunningForUpdate}.
+     */
+    @Modifying
+    @Query("""
+            UPDATE TaxFormJobChunk c
+            SET c.status = consulting.reason.tax_forms_api.enums.TaxFormJobChunkStatus.DONE,
+                c.formsUpdated = :formsUpdated,
+                c.updatedAt = :now
+            WHERE c.id = :id
+            AND c.status = consulting.reason.tax_forms_api.enums.TaxFormJobChunkStatus.PENDING
+            """)
+    int markDone(@Param("id") Long id,
+                 @Param("formsUpdated") int formsUpdated,
+                 @Param("now") ZonedDateTime now);
+
+    @Query("""
+            SELECT new consulting.reason.tax_forms_api.jobs.TaxFormJobProgress(
+                count(c),
+                coalesce(sum(CASE WHEN c.status = consulting.reason.tax_forms_api.enums.TaxFormJobChunkStatus.DONE
+                                  THEN 1L ELSE 0L END), 0L),
+                coalesce(sum(c.formsUpdated), 0L))
+            FROM TaxFormJobChunk c
+            WHERE c.jobId = :jobId
+            """)
+    TaxFormJobProgress findProgress(@Param("jobId") Long jobId);
+}
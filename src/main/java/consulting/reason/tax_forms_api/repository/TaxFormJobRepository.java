@@ -0,0 +1,140 @@
+package consulting.reason.tax_forms_api.repository;
+
+import consulting.reason.tax_forms_api.entity.TaxFormJob;
+import consulting.reason.tax_forms_api.enums.TaxFormJobStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TaxFormJobRepository extends JpaRepository<TaxFormJob, Long> {
+    List<TaxFormJob> findAllByFormYearOrderById(Integer formYear);
+
+    Optional<TaxFormJob> findByIdAndFormYear(Long id, Integer formYear);
+
+    @Query("""
+            SELECT j FROM TaxFormJob j
+            WHERE j.status = consulting.reason.tax_forms_api.enums.TaxFormJobStatus.RUNNING
+            AND (j.leaseExpiresAt IS NULL OR j.leaseExpiresAt < :now)
+            ORDER BY j.id
+            """)
+    List<TaxFormJob> findAbandoned(@Param("now") ZonedDateTime now);
+
+    /**
+     * Locks a RUNNING job of the owner until the end of the transaction, so it cannot be cancelled or taken over
+     * while a chunk of it is applied.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            SELECT j FROM TaxFormJob j
+            WHERE j.id = :id
+            AND j.owner = :owner
+            AND j.status = consulting.reason.tax_forms_api.enums.TaxFormJobStatus.RUNNING
+            """)
+    Optional<TaxFormJob> findRunningForUpdate(@Param("id") Long id, @Param("owner") String owner);
+
+    /**
+     * Makes the node the owner of a RUNNING job that nobody else holds a lease on.
+     */
+    @Modifying
+    @Query("""
+            UPDATE TaxFormJob j
+            SET j.owner = :owner, j.leaseExpiresAt = :leaseExpiresAt, j.updatedAt = :now
+            WHERE j.id = :id
+            AND j.status = consulting.reason.tax_forms_api.enums.TaxFormJobStatus.RUNNING
+            AND (j.owner IS NULL OR j.owner = :owner OR j.leaseExpiresAt IS NULL OR j.leaseExpiresAt < :now)
+            """)
+    int claim(@Param("id") Long id,
+              @Param("owner") String owner,
+              @Param("now") ZonedDateTime now,
+              @Param("leaseExpiresAt") ZonedDateTime leaseExpiresAt);
+
+    /**
+     * Extends the lease of the owner, failing once the job was cancelled or taken over.
+     */
+    @Modifying
+    @Query("""
+            UPDATE TaxFormJob j
+            SET j.leaseExpiresAt = :leaseExpiresAt, j.updatedAt = :now
+            WHERE j.id = :id
+            AND j.owner = :owner
+            AND j.status = consulting.reason.tax_forms_api.enums.TaxFormJobStatus.RUNNING
+            """)
+    int renew(@Param("id") Long id,
+              @Param("owner") String owner,
+              @Param("now") ZonedDateTime now,
+              @Param("leaseExpiresAt") ZonedDateTime leaseExpiresAt);
+
+    @Modifying
+    @Query("""
+            UPDATE TaxFormJob j
+            SET j.nextId = :nextId, j.leaseExpiresAt = :leaseExpiresAt, j.updatedAt = :now
+            WHERE j.id = :id
+            AND j.owner = :owner
+            AND j.status = consulting.reason.tax_forms_api.enums.TaxFormJobStatus.RUNNING
+            """)
+    int advance(@Param("id") Long id,
+                @Param("owner") String owner,
+                @Param("nextId") Integer nextId,
+                @Param("now") ZonedDateTime now,
+                @Param("leaseExpiresAt") ZonedDateTime leaseExpiresAt);
+
+    /**
+     * Records the outcome of a run, unless the job was cancelled or taken over meanwhile.
+     */
+    @Modifying
+    @Query("""
+            UPDATE TaxFormJob j
+            SET j.status = :status, j.error = :error, j.leaseExpiresAt = NULL, j.updatedAt = :now, j.finishedAt = :now
+            WHERE j.id = :id
+            AND j.owner = :owner
+            AND j.status = consulting.reason.tax_forms_api.enums.TaxFormJobStatus.RUNNING
+            """)
+    int finish(@Param("id") Long id,
+               @Param("owner") String owner,
+               @Param("status") TaxFormJobStatus status,
+               @Param("error") String error,
+               @Param("now") ZonedDateTime now);
+
+    /**
+     * Marks a FAILED or CANCELLED job, or a RUNNING one whose lease lapsed, RUNNING again.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE TaxFormJob j
+            SET j.status = consulting.reason.tax_forms_api.enums.TaxFormJobStatus.RUNNING,
+                j.error = NULL,
+                j.finishedAt = NULL,
+                j.updatedAt = :now
+            WHERE j.id = :id
+            AND (j.status IN (consulting.reason.tax_forms_api.enums.TaxFormJobStatus.FAILED,
+                              consulting.reason.tax_forms_api.enums.TaxFormJobStatus.CANCELLED)
+                 OR j.status = consulting.reason.tax_forms_api.enums.TaxFormJobStatus.RUNNING
+                    AND (j.leaseExpiresAt IS NULL OR j.leaseExpiresAt < :now))
+            """)
+    int reopen(@Param("id") Long id, @Param("now") ZonedDateTime now);
+
+    /**
+     * Cancels a RUNNING or FAILED job wherever it runs; its owner stops at its next chunk.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE TaxFormJob j
+            SET j.status = consulting.reason.tax_forms_api.enums.TaxFormJobStatus.CANCELLED,
+                j.leaseExpiresAt = NULL,
+                j.updatedAt = :now,
+                j.finishedAt = :now
+            WHERE j.id = :id
+            AND j.status IN (consulting.reason.tax_forms_api.enums.TaxFormJobStatus.RUNNING,
+                             consulting.reason.tax_forms_api.enums.TaxFormJobStatus.FAILED)
+            """)
+    int cancel(@Param("id") Long id, @Param("now") ZonedDateTime now);
+}
@@ -1,12 +1,158 @@
 package consulting.reason.tax_forms_api.repository;
 
+import consulting.reason.tax_forms_api.analytics.TaxFormSnapshotRow;
 import consulting.reason.tax_forms_api.entity.TaxForm;
+import consulting.reason.tax_forms_api.enums.TaxFormStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TaxFormRepository extends JpaRepository<TaxForm, Integer> {
+    @EntityGraph(attributePaths = "history")
     List<TaxForm> findAllByFormYear(Integer formYear);
+
+    @Transactional(readOnly = true)
+    @EntityGraph(attributePaths = "history")
+    List<TaxForm> findAllWithHistoryByIdIn(Collection<Integer> ids);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("""
+            SELECT new consulting.reason.tax_forms_api.analytics.TaxFormSnapshotRow(t.id, t.status, t.details)
+            FROM TaxForm t
+            WHERE t.formYear = :year
+            """)
+    Stream<TaxFormSnapshotRow> streamSnapshotRows(@Param("year") Integer year);
+
+    @Query("SELECT max(t.changeSeq) FROM TaxForm t WHERE t.formYear = :year")
+    Optional<Long> findMaxChangeSeq(@Param("year") Integer year);
+
+    @Query("SELECT t.status FROM TaxForm t WHERE t.id = :id")
+    Optional<TaxFormStatus> findStatusById(@Param("id") Integer id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM TaxForm t WHERE t.id = :id")
+    Optional<TaxForm> findForUpdateById(@Param("id") Integer id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<TaxForm> findAllByIdInOrderById(Collection<Integer> ids);
+
+    /**
+     * The change sequence below which no transaction can still commit a change, see CHANGES_05. Only meaningful on
+     * the primary, where the writers run.
+     */
+    @Query(value = "SELECT tax_forms_change_watermark()", nativeQuery = true)
+    long findChangeWatermark();
+
+    @Query("""
+            SELECT t FROM TaxForm t
+            WHERE t.formYear = :year
+              AND t.changeSeq > :since
+              AND t.changeSeq < :watermark
+            ORDER BY t.changeSeq
+            """)
+    List<TaxForm> findChanges(@Param("year") Integer year,
+                              @Param("since") Long since,
+                              @Param("watermark") Long watermark,
+                              Limit limit);
+
+    /**
+     * Locks the oldest unclaimed or lease-expired forms of the year in the given status, skipping rows another
+     * transaction has locked, so concurrent claimers never wait on or receive the same form.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            SELECT t FROM TaxForm t
+            WHERE t.formYear = :year
+              AND t.status = :status
+              AND (t.claimExpiresAt IS NULL OR t.claimExpiresAt < :now)
+            ORDER BY t.submittedAt, t.id
+            """)
+    List<TaxForm> findClaimable(@Param("year") Integer year,
+                                @Param("status") TaxFormStatus status,
+                                @Param("now") ZonedDateTime now,
+                                Limit limit);
+
+    /**
+     * Returns the next ids of the year after the keyset cursor, in id order, from the (form_year, id) index.
+     */
+    @Query("""
+            SELECT t.id FROM TaxForm t
+            WHERE t.formYear = :year
+              AND t.id > :afterId
+            ORDER BY t.id
+            """)
+    List<Integer> findIdsAfter(@Param("year") Integer year, @Param("afterId") Integer afterId, Limit limit);
+
+    /**
+     * Locks the forms of an id range of the year in one of the statuses that were submitted before the cutoff,
+     * and returns their ids.
+     */
+    @Query(value = """
+            SELECT id FROM tax_forms
+            WHERE form_year = :year
+              AND id BETWEEN :firstId AND :lastId
+              AND status IN (:statuses)
+              AND submitted_at < :cutoff
+            ORDER BY id
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<Integer> lockSubmittedBefore(@Param("year") Integer year,
+                                      @Param("firstId") Integer firstId,
+                                      @Param("lastId") Integer lastId,
+                                      @Param("statuses") Collection<String> statuses,
+                                      @Param("cutoff") ZonedDateTime cutoff);
+
+    @Modifying
+    @Query("""
+            UPDATE TaxForm t
+            SET t.status = :status, t.claimedBy = NULL, t.claimExpiresAt = NULL, t.updatedAt = :now
+            WHERE t.id IN :ids
+            """)
+    int updateStatus(@Param("ids") Collection<Integer> ids,
+                     @Param("status") TaxFormStatus status,
+                     @Param("now") ZonedDateTime now);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO tax_form_histories (tax_form_id, form_year, type, created_at)
+            SELECT id, form_year, CAST(:type AS VARCHAR), CAST(:now AS TIMESTAMP WITH TIME ZONE) FROM tax_forms
+            WHERE id IN (:ids)
+            """, nativeQuery = true)
+    int insertHistory(@Param("ids") Collection<Integer> ids,
+                      @Param("type") String type,
+                      @Param("now") ZonedDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE TaxForm t
+            SET t.flaggedAt = :now, t.updatedAt = :now
+            WHERE t.formYear = :year
+              AND t.id BETWEEN :firstId AND :lastId
+              AND t.status = :status
+              AND t.createdAt < :cutoff
+              AND t.flaggedAt IS NULL
+            """)
+    int flagCreatedBefore(@Param("year") Integer year,
+                          @Param("firstId") Integer firstId,
+                          @Param("lastId") Integer lastId,
+                          @Param("status") TaxFormStatus status,
+                          @Param("cutoff") ZonedDateTime cutoff,
+                          @Param("now") ZonedDateTime now);
 }
@@ -0,0 +1,126 @@
+package consulting.reason.tax_forms_api.service;
+
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.dto.TaxFormBatchDto;
+import consulting.reason.tax_forms_api.dto.TaxFormChangesDto;
+import consulting.reason.tax_forms_api.dto.TaxFormDto;
+import consulting.reason.tax_forms_api.dto.TaxFormSaveResultDto;
+import consulting.reason.tax_forms_api.dto.request.TaxFormDetailsRequest;
+import consulting.reason.tax_forms_api.util.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Admits calls of {@link CoalescingTaxFormService} through separate adaptive limits for reads, bulk reads and
+ * writes, so a slow database sheds load with 503s instead of parking request threads on the connection pool.
+ * Autosaves write to the in-memory buffer, but read the status of the form first and so count as reads.
+ */
+@Primary
+@Service
+public class AdmissionControlledTaxFormService implements TaxFormService {
+    private final CoalescingTaxFormService taxFormService;
+    private final boolean enabled;
+    private final AdaptiveConcurrencyLimiter reads;
+    private final AdaptiveConcurrencyLimiter bulkReads;
+    private final AdaptiveConcurrencyLimiter writes;
+
+    public AdmissionControlledTaxFormService(CoalescingTaxFormService taxFormService,
+                                             TaxFormsApiProperties taxFormsApiProperties,
+                                             MeterRegistry meterRegistry) {
+        TaxFormsApiProperties.AdmissionControl admissionControl = taxFormsApiProperties.getAdmissionControl();
+
+        this.taxFormService = taxFormService;
+        this.enabled = admissionControl.isEnabled();
+        this.reads = limiter("reads", admissionControl.getReads(), admissionControl, meterRegistry);
+        this.bulkReads = limiter("bulk_reads", admissionControl.getBulkReads(), admissionControl, meterRegistry);
+        this.writes = limiter("writes", admissionControl.getWrites(), admissionControl, meterRegistry);
+    }
+
+    @Override
+    public List<TaxFormDto> findAllByYear(Integer year) {
+        return admit(bulkReads, () -> taxFormService.findAllByYear(year));
+    }
+
+    @Override
+    public Optional<TaxFormDto> findById(Integer id) {
+        return admit(reads, () -> taxFormService.findById(id));
+    }
+
+    @Override
+    public TaxFormBatchDto findAllByIds(List<Integer> ids) {
+        return admit(bulkReads, () -> taxFormService.findAllByIds(ids));
+    }
+
+    @Override
+    public TaxFormChangesDto findChanges(Integer year, String syncToken, int limit) {
+        return admit(bulkReads, () -> taxFormService.findChanges(year, syncToken, limit));
+    }
+
+    @Override
+    public Optional<TaxFormDto> save(Integer id, TaxFormDetailsRequest taxFormDetailsRequest) {
+        return admit(writes, () -> taxFormService.save(id, taxFormDetailsRequest));
+    }
+
+    @Override
+    public List<TaxFormSaveResultDto> saveAll(Map<Integer, TaxFormDetailsRequest> detailsById) {
+        return admit(writes, () -> taxFormService.saveAll(detailsById));
+    }
+
+    @Override
+    public void autosave(Integer id, TaxFormDetailsRequest taxFormDetailsRequest) {
+        admit(reads, () -> {
+            taxFormService.autosave(id, taxFormDetailsRequest);
+            return null;
+        });
+    }
+
+    @Override
+    public Optional<TaxFormDto> submit(Integer id) {
+        return admit(writes, () -> taxFormService.submit(id));
+    }
+
+    @Override
+    public List<TaxFormDto> claim(Integer year, String reviewer, int limit) {
+        return admit(writes, () -> taxFormService.claim(year, reviewer, limit));
+    }
+
+    @Override
+    public Optional<TaxFormDto> returnForm(Integer id, String reviewer) {
+        return admit(writes, () -> taxFormService.returnForm(id, reviewer));
+    }
+
+    @Override
+    public Optional<TaxFormDto> accept(Integer id, String reviewer) {
+        return admit(writes, () -> taxFormService.accept(id, reviewer));
+    }
+
+    private <T> T admit(AdaptiveConcurrencyLimiter limiter, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        return limiter.execute(call);
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(String pool,
+                                                      TaxFormsApiProperties.ConcurrencyLimit concurrencyLimit,
+                                                      TaxFormsApiProperties.AdmissionControl admissionControl,
+                                                      MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter(
+                pool,
+                concurrencyLimit.getInitialLimit(),
+                concurrencyLimit.getMinLimit(),
+                concurrencyLimit.getMaxLimit(),
+                concurrencyLimit.getBackoffRatio(),
+                concurrencyLimit.getLatencyThreshold(),
+                admissionControl.getRetryAfter(),
+                meterRegistry
+        );
+    }
+}
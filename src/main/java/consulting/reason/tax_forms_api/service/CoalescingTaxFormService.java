@@ -0,0 +1,128 @@
+package consulting.reason.tax_forms_api.service;
+
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.datasource.ReplicaLagGuard;
+import consulting.reason.tax_forms_api.dto.TaxFormBatchDto;
+import consulting.reason.tax_forms_api.dto.TaxFormChangesDto;
+import consulting.reason.tax_forms_api.dto.TaxFormDto;
+import consulting.reason.tax_forms_api.dto.TaxFormSaveResultDto;
+import consulting.reason.tax_forms_api.dto.request.TaxFormDetailsRequest;
+import consulting.reason.tax_forms_api.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Shares one in-flight {@link TaxFormServiceImpl} load between concurrent reads of the same form id or year.
+ * Writes pass straight through and drop the in-flight reads of the form and its year, so a caller never joins
+ * a read that started before its own write. A request pinned to the primary by the {@link ReplicaLagGuard} reads
+ * on its own, since an in-flight read of another client may come from a replica that lacks its write.
+ */
+@Service
+public class CoalescingTaxFormService implements TaxFormService {
+    private final TaxFormServiceImpl taxFormService;
+    private final ReplicaLagGuard replicaLagGuard;
+    private final boolean enabled;
+    private final SingleFlight<Integer, List<TaxFormDto>> yearFlights;
+    private final SingleFlight<Integer, Optional<TaxFormDto>> formFlights;
+
+    public CoalescingTaxFormService(TaxFormServiceImpl taxFormService,
+                                    ReplicaLagGuard replicaLagGuard,
+                                    TaxFormsApiProperties taxFormsApiProperties,
+                                    MeterRegistry meterRegistry) {
+        TaxFormsApiProperties.ReadCoalescing readCoalescing = taxFormsApiProperties.getReadCoalescing();
+
+        this.taxFormService = taxFormService;
+        this.replicaLagGuard = replicaLagGuard;
+        this.enabled = readCoalescing.isEnabled();
+        this.yearFlights = new SingleFlight<>("findAllByYear", readCoalescing.getTimeout(), meterRegistry);
+        this.formFlights = new SingleFlight<>("findById", readCoalescing.getTimeout(), meterRegistry);
+    }
+
+    @Override
+    public List<TaxFormDto> findAllByYear(Integer year) {
+        if (!enabled || replicaLagGuard.isPinned()) {
+            return taxFormService.findAllByYear(year);
+        }
+
+        return yearFlights.execute(year, () -> taxFormService.findAllByYear(year));
+    }
+
+    @Override
+    public Optional<TaxFormDto> findById(Integer id) {
+        if (!enabled || replicaLagGuard.isPinned()) {
+            return taxFormService.findById(id);
+        }
+
+        return formFlights.execute(id, () -> taxFormService.findById(id));
+    }
+
+    @Override
+    public TaxFormBatchDto findAllByIds(List<Integer> ids) {
+        return taxFormService.findAllByIds(ids);
+    }
+
+    @Override
+    public TaxFormChangesDto findChanges(Integer year, String syncToken, int limit) {
+        return taxFormService.findChanges(year, syncToken, limit);
+    }
+
+    @Override
+    public Optional<TaxFormDto> save(Integer id, TaxFormDetailsRequest taxFormDetailsRequest) {
+        return forget(id, taxFormService.save(id, taxFormDetailsRequest));
+    }
+
+    @Override
+    public List<TaxFormSaveResultDto> saveAll(Map<Integer, TaxFormDetailsRequest> detailsById) {
+        List<TaxFormSaveResultDto> results = taxFormService.saveAll(detailsById);
+
+        results.forEach(result -> {
+            formFlights.forget(result.getId());
+            if (result.getFormYear() != null) {
+                yearFlights.forget(result.getFormYear());
+            }
+        });
+
+        return results;
+    }
+
+    @Override
+    public void autosave(Integer id, TaxFormDetailsRequest taxFormDetailsRequest) {
+        taxFormService.autosave(id, taxFormDetailsRequest);
+    }
+
+    @Override
+    public Optional<TaxFormDto> submit(Integer id) {
+        return forget(id, taxFormService.submit(id));
+    }
+
+    @Override
+    public List<TaxFormDto> claim(Integer year, String reviewer, int limit) {
+        List<TaxFormDto> taxFormDtos = taxFormService.claim(year, reviewer, limit);
+
+        taxFormDtos.forEach(taxFormDto -> formFlights.forget(taxFormDto.getId()));
+        yearFlights.forget(year);
+
+        return taxFormDtos;
+    }
+
+    @Override
+    public Optional<TaxFormDto> returnForm(Integer id, String reviewer) {
+        return forget(id, taxFormService.returnForm(id, reviewer));
+    }
+
+    @Override
+    public Optional<TaxFormDto> accept(Integer id, String reviewer) {
+        return forget(id, taxFormService.accept(id, reviewer));
+    }
+
+    private Optional<TaxFormDto> forget(Integer id, Optional<TaxFormDto> taxFormDto) {
+        formFlights.forget(id);
+        taxFormDto.ifPresent(dto -> yearFlights.forget(dto.getFormYear()));
+
+        return taxFormDto;
+    }
+}
@@ -0,0 +1,27 @@
+package consulting.reason.tax_forms_api.service;
+
+import consulting.reason.tax_forms_api.idempotency.IdempotentResponse;
+
+import java.util.Optional;
+
+public interface IdempotencyService {
+    /**
+     * Claims the key for a request with the given fingerprint, or returns the stored response of the earlier
+     * request that used it. Fails with a conflict while that request is in flight and with a mismatch when its
+     * fingerprint differs.
+     */
+    Optional<IdempotentResponse> begin(String key, String fingerprint);
+
+    /**
+     * Stores the response of a claimed key for the TTL. Does nothing when the claim lapsed and another request
+     * took the key over.
+     */
+    void complete(String key, String fingerprint, int status, String contentType, byte[] body);
+
+    /**
+     * Gives up a claimed key without storing a response, so a retry runs the request again.
+     */
+    void release(String key);
+
+    int purgeExpired();
+}
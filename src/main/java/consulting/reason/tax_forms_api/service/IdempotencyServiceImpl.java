@@ -0,0 +1,162 @@
+package consulting.reason.tax_forms_api.service;
+
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.entity.IdempotencyKey;
+import consulting.reason.tax_forms_api.exception.TaxFormIdempotencyConflictException;
+import consulting.reason.tax_forms_api.exception.TaxFormIdempotencyMismatchException;
+import consulting.reason.tax_forms_api.idempotency.IdempotentResponse;
+import consulting.reason.tax_forms_api.repository.IdempotencyKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps the responses of idempotent requests in a bounded in-process LRU in front of the idempotency_keys table.
+ * Replays of a key this node has seen are answered from memory; the table makes keys claimed or completed on
+ * other nodes visible, and its primary key lets only one request claim a key. A claim is a lease no shorter than
+ * the longest request deadline, so a key whose node died is taken over by a retry once it lapses, while a
+ * completed response is kept for the full TTL.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+    private final Logger logger = LoggerFactory.getLogger(IdempotencyServiceImpl.class);
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaxFormsApiProperties.Idempotency idempotency;
+    private final TaxFormsApiProperties.Deadlines deadlines;
+    private final Map<String, IdempotentResponse> responses;
+
+    public IdempotencyServiceImpl(IdempotencyKeyRepository idempotencyKeyRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  TaxFormsApiProperties taxFormsApiProperties) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.idempotency = taxFormsApiProperties.getIdempotency();
+        this.deadlines = taxFormsApiProperties.getDeadlines();
+
+        int maxCachedKeys = idempotency.getMaxCachedKeys();
+        this.responses = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotentResponse> eldest) {
+                return size() > maxCachedKeys;
+            }
+        });
+    }
+
+    @Override
+    public Optional<IdempotentResponse> begin(String key, String fingerprint) {
+        ZonedDateTime now = ZonedDateTime.now();
+        IdempotentResponse cached = responses.get(key);
+
+        if (cached != null && !cached.isExpired(now)) {
+            return replay(key, fingerprint, cached);
+        }
+
+        ZonedDateTime expiresAt = now.plus(inFlightLease());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                idempotencyKeyRepository.deleteExpired(key, now);
+                idempotencyKeyRepository.insertInFlight(key, fingerprint, now, expiresAt);
+            });
+        } catch (DataIntegrityViolationException e) {
+            IdempotentResponse stored = transactionTemplate.execute(status -> idempotencyKeyRepository.findById(key)
+                    .map(IdempotencyServiceImpl::toResponse)
+                    .orElse(null));
+
+            if (stored == null) {
+                throw new TaxFormIdempotencyConflictException(key);
+            }
+            if (stored.isCompleted()) {
+                responses.put(key, stored);
+            }
+
+            return replay(key, fingerprint, stored);
+        }
+
+        responses.put(key, IdempotentResponse.inFlight(fingerprint, expiresAt));
+
+        return Optional.empty();
+    }
+
+    @Override
+    public void complete(String key, String fingerprint, int status, String contentType, byte[] body) {
+        ZonedDateTime expiresAt = ZonedDateTime.now().plus(idempotency.getTtl());
+        Integer updated = transactionTemplate.execute(transactionStatus -> idempotencyKeyRepository.complete(
+                key,
+                fingerprint,
+                status,
+                contentType,
+                body,
+                expiresAt
+        ));
+
+        if (updated == null || updated == 0) {
+            responses.remove(key);
+            logger.warn("Idempotency-Key {} was taken over after its lease lapsed, its response is not stored", key);
+            return;
+        }
+
+        responses.put(key, new IdempotentResponse(fingerprint, status, contentType, body, expiresAt));
+    }
+
+    @Override
+    public void release(String key) {
+        responses.remove(key);
+        transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.deleteById(key));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "#{@taxFormsApiProperties.idempotency.purgeInterval.toMillis()}")
+    public int purgeExpired() {
+        ZonedDateTime now = ZonedDateTime.now();
+
+        synchronized (responses) {
+            responses.values().removeIf(response -> response.isExpired(now));
+        }
+
+        Integer purged = transactionTemplate.execute(status -> idempotencyKeyRepository.deleteAllExpired(now));
+        logger.debug("Purged {} expired idempotency keys", purged);
+
+        return purged != null ? purged : 0;
+    }
+
+    private Duration inFlightLease() {
+        Duration lease = idempotency.getInFlightLease();
+
+        return deadlines.isEnabled() && deadlines.getMaxBudget().compareTo(lease) > 0
+                ? deadlines.getMaxBudget()
+                : lease;
+    }
+
+    private static Optional<IdempotentResponse> replay(String key, String fingerprint, IdempotentResponse response) {
+        if (!response.fingerprint().equals(fingerprint)) {
+            throw new TaxFormIdempotencyMismatchException(key);
+        }
+        if (!response.isCompleted()) {
+            throw new TaxFormIdempotencyConflictException(key);
+        }
+
+        return Optional.of(response);
+    }
+
+    private static IdempotentResponse toResponse(IdempotencyKey idempotencyKey) {
+        return new IdempotentResponse(
+                idempotencyKey.getFingerprint(),
+                idempotencyKey.getStatus() != null ? idempotencyKey.getStatus() : 0,
+                idempotencyKey.getContentType(),
+                idempotencyKey.getBody(),
+                idempotencyKey.getExpiresAt()
+        );
+    }
+}
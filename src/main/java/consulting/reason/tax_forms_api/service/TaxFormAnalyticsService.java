@@ -0,0 +1,18 @@
+package consulting.reason.tax_forms_api.service;
+
+import consulting.reason.tax_forms_api.dto.TaxFormHistogramDto;
+import consulting.reason.tax_forms_api.dto.TaxFormPercentilesDto;
+import consulting.reason.tax_forms_api.dto.TaxFormSnapshotDto;
+import consulting.reason.tax_forms_api.enums.TaxFormStatus;
+
+import java.util.List;
+
+public interface TaxFormAnalyticsService {
+    TaxFormSnapshotDto snapshot(Integer year);
+
+    TaxFormSnapshotDto refresh(Integer year);
+
+    TaxFormHistogramDto assessedValueHistogram(Integer year, int buckets);
+
+    TaxFormPercentilesDto ratioPercentiles(Integer year, TaxFormStatus status, List<Double> percentiles);
+}
@@ -0,0 +1,172 @@
+package consulting.reason.tax_forms_api.service;
+
+import consulting.reason.tax_forms_api.analytics.TaxFormSnapshotRow;
+import consulting.reason.tax_forms_api.analytics.TaxFormYearSnapshot;
+import consulting.reason.tax_forms_api.analytics.TaxFormYearSnapshotCache;
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.datasource.TaxFormShardRouter;
+import consulting.reason.tax_forms_api.dto.TaxFormHistogramDto;
+import consulting.reason.tax_forms_api.dto.TaxFormPercentilesDto;
+import consulting.reason.tax_forms_api.dto.TaxFormSnapshotDto;
+import consulting.reason.tax_forms_api.enums.TaxFormStatus;
+import consulting.reason.tax_forms_api.repository.TaxFormRepository;
+import consulting.reason.tax_forms_api.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Service
+public class TaxFormAnalyticsServiceImpl implements TaxFormAnalyticsService {
+    private final Logger logger = LoggerFactory.getLogger(TaxFormAnalyticsServiceImpl.class);
+    private final TaxFormRepository taxFormRepository;
+    private final TaxFormShardRouter taxFormShardRouter;
+    private final TaxFormYearSnapshotCache taxFormYearSnapshotCache;
+    private final TransactionTemplate transactionTemplate;
+    private final SingleFlight<Integer, TaxFormYearSnapshot> builds;
+    private final Duration snapshotMaxAge;
+
+    public TaxFormAnalyticsServiceImpl(TaxFormRepository taxFormRepository,
+                                       TaxFormShardRouter taxFormShardRouter,
+                                       TaxFormYearSnapshotCache taxFormYearSnapshotCache,
+                                       PlatformTransactionManager transactionManager,
+                                       TaxFormsApiProperties taxFormsApiProperties,
+                                       MeterRegistry meterRegistry) {
+        this.taxFormRepository = taxFormRepository;
+        this.taxFormShardRouter = taxFormShardRouter;
+        this.taxFormYearSnapshotCache = taxFormYearSnapshotCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.builds = new SingleFlight<>(
+                "snapshot",
+                taxFormsApiProperties.getAnalytics().getBuildTimeout(),
+                meterRegistry
+        );
+        this.snapshotMaxAge = taxFormsApiProperties.getAnalytics().getSnapshotMaxAge();
+    }
+
+    @Override
+    public TaxFormSnapshotDto snapshot(Integer year) {
+        return toDto(snapshotOf(year));
+    }
+
+    @Override
+    public TaxFormSnapshotDto refresh(Integer year) {
+        return toDto(taxFormYearSnapshotCache.refresh(
+                year,
+                () -> builds.execute(year, () -> build(year), () -> null)
+        ));
+    }
+
+    @Override
+    public TaxFormHistogramDto assessedValueHistogram(Integer year, int buckets) {
+        TaxFormYearSnapshot.Histogram histogram = snapshotOf(year).assessedValueHistogram(buckets);
+        Map<TaxFormStatus, long[]> counts = new EnumMap<>(TaxFormStatus.class);
+        Map<TaxFormStatus, Long> missing = new EnumMap<>(TaxFormStatus.class);
+
+        for (TaxFormStatus taxFormStatus : TaxFormStatus.values()) {
+            counts.put(taxFormStatus, histogram.counts()[taxFormStatus.ordinal()]);
+            missing.put(taxFormStatus, histogram.missing()[taxFormStatus.ordinal()]);
+        }
+
+        return TaxFormHistogramDto.builder()
+                .year(year)
+                .min(histogram.min())
+                .max(histogram.max())
+                .bucketWidth(histogram.bucketWidth())
+                .counts(counts)
+                .missing(missing)
+                .build();
+    }
+
+    @Override
+    public TaxFormPercentilesDto ratioPercentiles(Integer year, TaxFormStatus status, List<Double> percentiles) {
+        TaxFormYearSnapshot snapshot = snapshotOf(year);
+        Map<String, Double> ratios = new LinkedHashMap<>();
+
+        for (Double percentile : percentiles) {
+            double ratio = snapshot.ratioPercentile(status, percentile);
+
+            ratios.put(
+                    "p" + BigDecimal.valueOf(percentile).stripTrailingZeros().toPlainString(),
+                    Double.isNaN(ratio) ? null : ratio
+            );
+        }
+
+        return TaxFormPercentilesDto.builder()
+                .year(year)
+                .status(status)
+                .count(snapshot.ratioCount(status))
+                .percentiles(ratios)
+                .build();
+    }
+
+    /**
+     * Callers that arrive while the year is being built and wait past the build timeout get the previous snapshot
+     * of the year rather than starting builds of their own, or keep waiting when there is none.
+     */
+    private TaxFormYearSnapshot snapshotOf(Integer year) {
+        return taxFormYearSnapshotCache.get(
+                year,
+                snapshot -> isCurrent(year, snapshot),
+                () -> builds.execute(year, () -> build(year), () -> taxFormYearSnapshotCache.latest(year))
+        );
+    }
+
+    /**
+     * A snapshot is current while no form of its year has changed since its build started, whichever node wrote
+     * it. The max age bounds what the change sequence misses: a change that commits after a later one was counted.
+     */
+    private boolean isCurrent(Integer year, TaxFormYearSnapshot snapshot) {
+        if (snapshot.getBuiltAt().plus(snapshotMaxAge).isBefore(ZonedDateTime.now())) {
+            return false;
+        }
+
+        return snapshot.getChangeSeq() >= taxFormShardRouter.readYear(year, () -> transactionTemplate.execute(
+                status -> maxChangeSeq(year)
+        ));
+    }
+
+    private TaxFormYearSnapshot build(Integer year) {
+        long start = System.nanoTime();
+        TaxFormYearSnapshot snapshot = taxFormShardRouter.readYear(year, () -> transactionTemplate.execute(status -> {
+            TaxFormYearSnapshot.Builder builder = TaxFormYearSnapshot.builder(year).changeSeq(maxChangeSeq(year));
+
+            try (Stream<TaxFormSnapshotRow> rows = taxFormRepository.streamSnapshotRows(year)) {
+                rows.forEach(builder::add);
+            }
+
+            return builder.build();
+        }));
+
+        logger.info("Built snapshot of year {} with {} forms, {} bytes, in {} ms",
+                year, snapshot.size(), snapshot.bytes(), (System.nanoTime() - start) / 1_000_000);
+
+        return snapshot;
+    }
+
+    private long maxChangeSeq(Integer year) {
+        return taxFormRepository.findMaxChangeSeq(year).orElse(0L);
+    }
+
+    private static TaxFormSnapshotDto toDto(TaxFormYearSnapshot snapshot) {
+        return TaxFormSnapshotDto.builder()
+                .year(snapshot.getYear())
+                .forms(snapshot.size())
+                .bytes(snapshot.bytes())
+                .bytesPerForm(snapshot.size() == 0 ? 0 : (double) snapshot.bytes() / snapshot.size())
+                .builtAt(snapshot.getBuiltAt())
+                .build();
+    }
+}
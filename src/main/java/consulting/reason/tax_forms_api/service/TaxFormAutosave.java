@@ -0,0 +1,15 @@
+package consulting.reason.tax_forms_api.service;
+
+import consulting.reason.tax_forms_api.dto.request.TaxFormDetailsRequest;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Autosaved details of a form and when they were accepted. A form updated after that time has been superseded by a
+ * later write, so the details are not applied to it.
+ */
+public record TaxFormAutosave(TaxFormDetailsRequest details, ZonedDateTime acceptedAt) {
+    public boolean isSupersededBy(ZonedDateTime updatedAt) {
+        return updatedAt != null && updatedAt.isAfter(acceptedAt);
+    }
+}
@@ -0,0 +1,103 @@
+package consulting.reason.tax_forms_api.service;
+
+import consulting.reason.tax_forms_api.dto.request.TaxFormDetailsRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.stereotype.Component;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the latest autosaved details per form until they are flushed.
+ * <ul>
+ *     <li>Last write wins: a newer autosave for a form replaces the pending one, only the latest is written.</li>
+ *     <li>Pending details live in memory only. They are flushed every window and on graceful shutdown, so up to
+ *     one window of autosaves on a node is lost if its process dies. Clients keep their edits until a synchronous
+ *     save or submit succeeds.</li>
+ *     <li>A synchronous save discards the pending autosave of its form and a submit applies it first inside its
+ *     own transaction. A return or accept, which only apply to submitted forms, discards it.</li>
+ *     <li>Each autosave carries the time it was accepted, and is only applied to a locked row that has not been
+ *     updated since. A write that commits after the autosave was drained, or on another node, therefore wins over
+ *     it. Writes of other nodes are ordered by their clocks.</li>
+ *     <li>A flushed autosave is rejected when the form is gone or its status no longer allows a save.</li>
+ * </ul>
+ */
+@Component
+public class TaxFormAutosaveBuffer {
+    private final Map<Integer, TaxFormAutosave> pending = new ConcurrentHashMap<>();
+    private final Counter accepted;
+    private final Counter coalesced;
+
+    public TaxFormAutosaveBuffer(MeterRegistry meterRegistry) {
+        this.accepted = meterRegistry.counter("tax_forms.autosave.updates", "outcome", "accepted");
+        this.coalesced = meterRegistry.counter("tax_forms.autosave.updates", "outcome", "coalesced");
+        meterRegistry.gaugeMapSize("tax_forms.autosave.pending", Tags.empty(), pending);
+    }
+
+    public void put(Integer id, TaxFormDetailsRequest taxFormDetailsRequest) {
+        accepted.increment();
+
+        if (pending.put(id, new TaxFormAutosave(taxFormDetailsRequest, ZonedDateTime.now())) != null) {
+            coalesced.increment();
+        }
+    }
+
+    public Optional<TaxFormAutosave> take(Integer id) {
+        return Optional.ofNullable(pending.remove(id));
+    }
+
+    /**
+     * Takes the pending autosave of the form only when a write that updated it at the given time supersedes it.
+     */
+    public Optional<TaxFormAutosave> takeSuperseded(Integer id, ZonedDateTime updatedAt) {
+        AtomicReference<TaxFormAutosave> taken = new AtomicReference<>();
+
+        pending.computeIfPresent(id, (key, taxFormAutosave) -> {
+            if (!taxFormAutosave.isSupersededBy(updatedAt)) {
+                return taxFormAutosave;
+            }
+
+            taken.set(taxFormAutosave);
+            return null;
+        });
+
+        return Optional.ofNullable(taken.get());
+    }
+
+    public Map<Integer, TaxFormAutosave> drain() {
+        Map<Integer, TaxFormAutosave> drained = new HashMap<>();
+
+        for (Integer id : pending.keySet()) {
+            TaxFormAutosave taxFormAutosave = pending.remove(id);
+
+            if (taxFormAutosave != null) {
+                drained.put(id, taxFormAutosave);
+            }
+        }
+
+        return drained;
+    }
+
+    public void requeue(Map<Integer, TaxFormAutosave> autosaves) {
+        autosaves.forEach(pending::putIfAbsent);
+    }
+
+    /**
+     * Moves the pending autosaves of forms a flush just wrote up to the end of that flush. They were accepted after
+     * the flushed details were drained, so they are newer than the flush's own write and must not be taken as
+     * superseded by it.
+     */
+    public void rebase(Collection<Integer> ids, ZonedDateTime flushedAt) {
+        ids.forEach(id -> pending.computeIfPresent(id, (key, taxFormAutosave) ->
+                taxFormAutosave.acceptedAt().isBefore(flushedAt)
+                        ? new TaxFormAutosave(taxFormAutosave.details(), flushedAt)
+                        : taxFormAutosave));
+    }
+}
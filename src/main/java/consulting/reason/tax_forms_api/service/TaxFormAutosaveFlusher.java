@@ -0,0 +1,73 @@
+package consulting.reason.tax_forms_api.service;
+
+import consulting.reason.tax_forms_api.datasource.DataSourceRoutingContext;
+import consulting.reason.tax_forms_api.datasource.TaxFormShardRouter;
+import consulting.reason.tax_forms_api.dto.TaxFormSaveResultDto;
+import consulting.reason.tax_forms_api.enums.TaxFormSaveOutcome;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Component
+public class TaxFormAutosaveFlusher implements DisposableBean {
+    private final Logger logger = LoggerFactory.getLogger(TaxFormAutosaveFlusher.class);
+    private final TaxFormAutosaveBuffer taxFormAutosaveBuffer;
+    private final TaxFormServiceImpl taxFormService;
+    private final TaxFormShardRouter taxFormShardRouter;
+    private final Counter flushed;
+    private final Counter rejected;
+
+    public TaxFormAutosaveFlusher(TaxFormAutosaveBuffer taxFormAutosaveBuffer,
+                                  TaxFormServiceImpl taxFormService,
+                                  TaxFormShardRouter taxFormShardRouter,
+                                  MeterRegistry meterRegistry) {
+        this.taxFormAutosaveBuffer = taxFormAutosaveBuffer;
+        this.taxFormService = taxFormService;
+        this.taxFormShardRouter = taxFormShardRouter;
+        this.flushed = meterRegistry.counter("tax_forms.autosave.updates", "outcome", "flushed");
+        this.rejected = meterRegistry.counter("tax_forms.autosave.updates", "outcome", "rejected");
+    }
+
+    @Scheduled(fixedDelayString = "#{@taxFormsApiProperties.autosave.window.toMillis()}")
+    public void flush() {
+        Map<String, Map<Integer, TaxFormAutosave>> autosavesByShard = taxFormAutosaveBuffer.drain().entrySet()
+                .stream()
+                .collect(Collectors.groupingBy(
+                        entry -> taxFormShardRouter.shardForId(entry.getKey()),
+                        Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)
+                ));
+
+        autosavesByShard.forEach((shard, autosaves) -> {
+            try {
+                List<Integer> savedIds = DataSourceRoutingContext.onShard(
+                                shard,
+                                () -> taxFormService.saveAutosaves(autosaves)
+                        ).stream()
+                        .filter(result -> result.getOutcome() == TaxFormSaveOutcome.SAVED)
+                        .map(TaxFormSaveResultDto::getId)
+                        .toList();
+                taxFormAutosaveBuffer.rebase(savedIds, ZonedDateTime.now());
+
+                flushed.increment(savedIds.size());
+                rejected.increment(autosaves.size() - savedIds.size());
+            } catch (RuntimeException e) {
+                logger.error("Autosave flush of {} forms on shard {} failed, requeueing", autosaves.size(), shard, e);
+                taxFormAutosaveBuffer.requeue(autosaves);
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+}
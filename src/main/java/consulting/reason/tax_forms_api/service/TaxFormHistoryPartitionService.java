@@ -0,0 +1,10 @@
+package consulting.reason.tax_forms_api.service;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface TaxFormHistoryPartitionService {
+    List<String> createFuturePartitions();
+
+    Optional<String> archive(Integer year);
+}
@@ -0,0 +1,70 @@
+package consulting.reason.tax_forms_api.service;
+
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.exception.TaxFormHistoryArchiveException;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+@Service
+@RequiredArgsConstructor
+public class TaxFormHistoryPartitionServiceImpl implements TaxFormHistoryPartitionService {
+    private final Logger logger = LoggerFactory.getLogger(TaxFormHistoryPartitionServiceImpl.class);
+    private final JdbcTemplate jdbcTemplate;
+    private final TaxFormsApiProperties taxFormsApiProperties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${tax-forms-api.history-partitions.cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        if (!taxFormsApiProperties.getHistoryPartitions().isEnabled()) {
+            return;
+        }
+
+        logger.info("Ensured tax_form_histories partitions {}", createFuturePartitions());
+    }
+
+    @Override
+    @Transactional
+    public List<String> createFuturePartitions() {
+        int currentYear = Year.now(ZoneOffset.UTC).getValue();
+        int yearsAhead = taxFormsApiProperties.getHistoryPartitions().getYearsAhead();
+
+        return IntStream.rangeClosed(currentYear, currentYear + yearsAhead)
+                .mapToObj(year -> jdbcTemplate.queryForObject(
+                        "SELECT create_tax_form_history_partition(?)",
+                        String.class,
+                        year
+                ))
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public Optional<String> archive(Integer year) {
+        TaxFormsApiProperties.HistoryPartitions historyPartitions = taxFormsApiProperties.getHistoryPartitions();
+        int oldestOpenYear = Year.now(ZoneOffset.UTC).getValue() - historyPartitions.getRetainedYears() + 1;
+
+        if (year >= oldestOpenYear) {
+            throw new TaxFormHistoryArchiveException(year, oldestOpenYear);
+        }
+
+        return Optional.ofNullable(jdbcTemplate.queryForObject(
+                "SELECT archive_tax_form_history_partition(?, ?)",
+                String.class,
+                year,
+                historyPartitions.getArchiveSchema()
+        ));
+    }
+}
@@ -0,0 +1,19 @@
+package consulting.reason.tax_forms_api.service;
+
+import consulting.reason.tax_forms_api.dto.TaxFormJobDto;
+import consulting.reason.tax_forms_api.dto.request.TaxFormJobRequest;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface TaxFormJobService {
+    TaxFormJobDto start(TaxFormJobRequest taxFormJobRequest);
+
+    List<TaxFormJobDto> findAllByYear(Integer year);
+
+    Optional<TaxFormJobDto> findById(Integer year, Long id);
+
+    TaxFormJobDto resume(Integer year, Long id);
+
+    TaxFormJobDto cancel(Integer year, Long id);
+}
@@ -0,0 +1,158 @@
+package consulting.reason.tax_forms_api.service;
+
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.datasource.TaxFormShardRouter;
+import consulting.reason.tax_forms_api.dto.TaxFormJobDto;
+import consulting.reason.tax_forms_api.dto.request.TaxFormJobRequest;
+import consulting.reason.tax_forms_api.entity.TaxFormJob;
+import consulting.reason.tax_forms_api.enums.TaxFormJobStatus;
+import consulting.reason.tax_forms_api.exception.TaxFormJobNotFoundException;
+import consulting.reason.tax_forms_api.exception.TaxFormJobStateException;
+import consulting.reason.tax_forms_api.jobs.TaxFormJobProgress;
+import consulting.reason.tax_forms_api.jobs.TaxFormJobRunner;
+import consulting.reason.tax_forms_api.repository.TaxFormJobChunkRepository;
+import consulting.reason.tax_forms_api.repository.TaxFormJobRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the jobs of a year on the shard of the year, next to the forms they process, so each chunk commits its
+ * checkpoint in the same transaction as its updates.
+ */
+@Service
+public class TaxFormJobServiceImpl implements TaxFormJobService {
+    private final TaxFormJobRepository taxFormJobRepository;
+    private final TaxFormJobChunkRepository taxFormJobChunkRepository;
+    private final TaxFormJobRunner taxFormJobRunner;
+    private final TaxFormShardRouter taxFormShardRouter;
+    private final TaxFormsApiProperties taxFormsApiProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    public TaxFormJobServiceImpl(TaxFormJobRepository taxFormJobRepository,
+                                 TaxFormJobChunkRepository taxFormJobChunkRepository,
+                                 TaxFormJobRunner taxFormJobRunner,
+                                 TaxFormShardRouter taxFormShardRouter,
+                                 TaxFormsApiProperties taxFormsApiProperties,
+                                 PlatformTransactionManager transactionManager) {
+        this.taxFormJobRepository = taxFormJobRepository;
+        this.taxFormJobChunkRepository = taxFormJobChunkRepository;
+        this.taxFormJobRunner = taxFormJobRunner;
+        this.taxFormShardRouter = taxFormShardRouter;
+        this.taxFormsApiProperties = taxFormsApiProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public TaxFormJobDto start(TaxFormJobRequest taxFormJobRequest) {
+        TaxFormsApiProperties.Jobs jobs = taxFormsApiProperties.getJobs();
+        Integer year = taxFormJobRequest.getYear();
+        TaxFormJob job = onShard(year, () -> taxFormJobRepository.save(TaxFormJob.builder()
+                .type(taxFormJobRequest.getType())
+                .formYear(year)
+                .status(TaxFormJobStatus.RUNNING)
+                .cutoff(taxFormJobRequest.getCutoff() != null
+                        ? taxFormJobRequest.getCutoff()
+                        : ZonedDateTime.now().minus(jobs.getStaleAfter()))
+                .chunkSize(jobs.getChunkSize())
+                .nextId(0)
+                .build()));
+
+        taxFormJobRunner.start(job);
+
+        return taxFormJobDto(job, new TaxFormJobProgress(0L, 0L, 0L));
+    }
+
+    @Override
+    public List<TaxFormJobDto> findAllByYear(Integer year) {
+        return onShard(year, () -> taxFormJobRepository.findAllByFormYearOrderById(year)
+                .stream()
+                .map(this::taxFormJobDto)
+                .toList());
+    }
+
+    @Override
+    public Optional<TaxFormJobDto> findById(Integer year, Long id) {
+        return onShard(year, () -> taxFormJobRepository.findByIdAndFormYear(id, year)
+                .map(this::taxFormJobDto));
+    }
+
+    /**
+     * Runs a job again from its checkpoint on this node: the chunks left PENDING first, then the forms after its
+     * cursor. A job still RUNNING in the database is only resumed once the lease of its owner has lapsed.
+     */
+    @Override
+    public TaxFormJobDto resume(Integer year, Long id) {
+        TaxFormJob job = onShard(year, () -> {
+            TaxFormJob taxFormJob = find(year, id);
+
+            if (taxFormJobRepository.reopen(id, ZonedDateTime.now()) == 0) {
+                throw new TaxFormJobStateException(taxFormJob, "resume");
+            }
+
+            return find(year, id);
+        });
+
+        if (!taxFormJobRunner.start(job)) {
+            throw new TaxFormJobStateException(job, "resume");
+        }
+
+        return onShard(year, () -> taxFormJobDto(find(year, id)));
+    }
+
+    /**
+     * Marks a job CANCELLED wherever it runs. Its owner stops planning and applying chunks as soon as it sees the
+     * status, and a chunk it applies meanwhile is rolled back.
+     */
+    @Override
+    public TaxFormJobDto cancel(Integer year, Long id) {
+        return onShard(year, () -> {
+            TaxFormJob job = find(year, id);
+
+            if (taxFormJobRepository.cancel(id, ZonedDateTime.now()) == 0) {
+                throw new TaxFormJobStateException(job, "cancel");
+            }
+            taxFormJobRunner.cancel(job);
+
+            return taxFormJobDto(find(year, id));
+        });
+    }
+
+    private TaxFormJob find(Integer year, Long id) {
+        return taxFormJobRepository.findByIdAndFormYear(id, year)
+                .orElseThrow(() -> new TaxFormJobNotFoundException(year, id));
+    }
+
+    private <T> T onShard(Integer year, Supplier<T> supplier) {
+        return taxFormShardRouter.writeYear(year, () -> transactionTemplate.execute(status -> supplier.get()));
+    }
+
+    private TaxFormJobDto taxFormJobDto(TaxFormJob job) {
+        return taxFormJobDto(job, taxFormJobChunkRepository.findProgress(job.getId()));
+    }
+
+    private static TaxFormJobDto taxFormJobDto(TaxFormJob job, TaxFormJobProgress progress) {
+        return TaxFormJobDto.builder()
+                .id(job.getId())
+                .type(job.getType())
+                .formYear(job.getFormYear())
+                .status(job.getStatus())
+                .cutoff(job.getCutoff())
+                .chunkSize(job.getChunkSize())
+                .nextId(job.getNextId())
+                .chunks(progress.chunks())
+                .chunksDone(progress.chunksDone())
+                .formsUpdated(progress.formsUpdated())
+                .error(job.getError())
+                .owner(job.getOwner())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
@@ -1,9 +1,13 @@
 package consulting.reason.tax_forms_api.service;
 
+import consulting.reason.tax_forms_api.dto.TaxFormBatchDto;
+import consulting.reason.tax_forms_api.dto.TaxFormChangesDto;
 import consulting.reason.tax_forms_api.dto.TaxFormDto;
+import consulting.reason.tax_forms_api.dto.TaxFormSaveResultDto;
 import consulting.reason.tax_forms_api.dto.request.TaxFormDetailsRequest;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface TaxFormService {
@@ -11,11 +15,35 @@ public interface TaxFormService {
 
     Optional<TaxFormDto> findById(Integer id);
 
+    TaxFormBatchDto findAllByIds(List<Integer> ids);
+
+    TaxFormChangesDto findChanges(Integer year, String syncToken, int limit);
+
     Optional<TaxFormDto> save(Integer id, TaxFormDetailsRequest taxFormDetailsRequest);
 
+    /**
+     * Saves the details of every form in one transaction per shard.
+     *
+     * @return one result per id, in the iteration order of the map
+     */
+    List<TaxFormSaveResultDto> saveAll(Map<Integer, TaxFormDetailsRequest> detailsById);
+
+    /**
+     * Buffers the details for a later flush, after checking that the form exists and its status allows a save.
+     */
+    void autosave(Integer id, TaxFormDetailsRequest taxFormDetailsRequest);
+
     Optional<TaxFormDto> submit(Integer id);
 
-    Optional<TaxFormDto> returnForm(Integer id);
+    List<TaxFormDto> claim(Integer year, String reviewer, int limit);
+
+    /**
+     * Returns a submitted form for the reviewer, rejecting it while another reviewer holds an unexpired claim.
+     */
+    Optional<TaxFormDto> returnForm(Integer id, String reviewer);
 
-    Optional<TaxFormDto> accept(Integer id);
+    /**
+     * Accepts a submitted form for the reviewer, rejecting it while another reviewer holds an unexpired claim.
+     */
+    Optional<TaxFormDto> accept(Integer id, String reviewer);
 }
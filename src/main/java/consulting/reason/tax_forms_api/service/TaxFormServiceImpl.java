@@ -1,113 +1,431 @@
 package consulting.reason.tax_forms_api.service;
 
+import consulting.reason.tax_forms_api.analytics.TaxFormYearSnapshotCache;
+import consulting.reason.tax_forms_api.config.ModelMapperConfig;
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.datasource.DataSourceRoutingContext;
+import consulting.reason.tax_forms_api.datasource.TaxFormShardRouter;
+import consulting.reason.tax_forms_api.dto.TaxFormBatchDto;
+import consulting.reason.tax_forms_api.dto.TaxFormChangesDto;
 import consulting.reason.tax_forms_api.dto.TaxFormDetailsDto;
 import consulting.reason.tax_forms_api.dto.TaxFormDto;
+import consulting.reason.tax_forms_api.dto.TaxFormHistoryDto;
+import consulting.reason.tax_forms_api.dto.TaxFormSaveResultDto;
 import consulting.reason.tax_forms_api.dto.request.TaxFormDetailsRequest;
+import consulting.reason.tax_forms_api.entity.TaxForm;
 import consulting.reason.tax_forms_api.entity.TaxFormHistory;
-import consulting.reason.tax_forms_api.enums.TaxFormHistoryStatus;
+import consulting.reason.tax_forms_api.enums.TaxFormSaveOutcome;
+import consulting.reason.tax_forms_api.enums.TaxFormStatus;
+import consulting.reason.tax_forms_api.enums.TaxFormTransition;
+import consulting.reason.tax_forms_api.exception.TaxFormBatchIdsException;
+import consulting.reason.tax_forms_api.exception.TaxFormClaimedException;
+import consulting.reason.tax_forms_api.exception.TaxFormNotFoundException;
+import consulting.reason.tax_forms_api.exception.TaxFormStatusException;
+import consulting.reason.tax_forms_api.repository.TaxFormHistoryRepository;
 import consulting.reason.tax_forms_api.repository.TaxFormRepository;
 import consulting.reason.tax_forms_api.util.TaxFormStatusUtils;
+import consulting.reason.tax_forms_api.util.TaxFormSyncTokens;
+import consulting.reason.tax_forms_api.util.TaxFormWorkflow;
 import lombok.RequiredArgsConstructor;
 
 import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TaxFormServiceImpl implements TaxFormService {
+    private static final String SUPERSEDED = "Superseded by a later write of the form";
+
+    private final Logger logger = LoggerFactory.getLogger(TaxFormServiceImpl.class);
     private final TaxFormRepository taxFormRepository;
+    private final TaxFormHistoryRepository taxFormHistoryRepository;
     private final ModelMapper modelMapper;
+    private final TaxFormShardRouter taxFormShardRouter;
+    private final TaxFormAutosaveBuffer taxFormAutosaveBuffer;
+    private final TaxFormsApiProperties taxFormsApiProperties;
+    private final TaxFormYearSnapshotCache taxFormYearSnapshotCache;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     @Transactional(readOnly = true)
     public List<TaxFormDto> findAllByYear(Integer year) {
-        return taxFormRepository.findAllByFormYear(year).stream()
+        return taxFormShardRouter.readYear(year, () -> taxFormRepository.findAllByFormYear(year).stream()
                 .map(taxForm -> modelMapper.map(taxForm, TaxFormDto.class))
-                .toList();
+                .toList());
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<TaxFormDto> findById(Integer id) {
-        return taxFormRepository.findById(id)
-                .map(taxForm -> modelMapper.map(taxForm, TaxFormDto.class));
+        return taxFormShardRouter.readForm(id, () -> taxFormRepository.findById(id)
+                .map(taxForm -> modelMapper.map(taxForm, TaxFormDto.class)));
+    }
+
+    /**
+     * Reads the forms of each shard in a read-only transaction of its own, since a transaction keeps the connection
+     * of the shard it first read from.
+     */
+    @Override
+    public TaxFormBatchDto findAllByIds(List<Integer> ids) {
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new TaxFormBatchIdsException(ids);
+        }
+
+        List<Integer> distinctIds = List.copyOf(new LinkedHashSet<>(ids));
+        TransactionTemplate readOnlyTransactionTemplate = new TransactionTemplate(
+                transactionTemplate.getTransactionManager());
+        readOnlyTransactionTemplate.setReadOnly(true);
+        Map<Integer, TaxFormDto> taxFormDtos = taxFormShardRouter.readForms(
+                        distinctIds,
+                        shardIds -> readOnlyTransactionTemplate.execute(status ->
+                                taxFormRepository.findAllWithHistoryByIdIn(shardIds))
+                ).stream()
+                .map(taxForm -> modelMapper.map(taxForm, TaxFormDto.class))
+                .collect(Collectors.toMap(TaxFormDto::getId, Function.identity()));
+
+        return TaxFormBatchDto.builder()
+                .forms(distinctIds.stream()
+                        .map(taxFormDtos::get)
+                        .filter(Objects::nonNull)
+                        .toList())
+                .missingIds(distinctIds.stream()
+                        .filter(id -> !taxFormDtos.containsKey(id))
+                        .toList())
+                .build();
+    }
+
+    /**
+     * Pages on the primary and stops below the change watermark, so a token never moves past a change sequence
+     * whose transaction has yet to commit.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TaxFormChangesDto findChanges(Integer year, String syncToken, int limit) {
+        long since = TaxFormSyncTokens.decode(year, syncToken);
+
+        return taxFormShardRouter.readYearFromPrimary(year, () -> {
+            long watermark = taxFormRepository.findChangeWatermark();
+            List<TaxForm> taxForms = taxFormRepository.findChanges(year, since, watermark, Limit.of(limit + 1));
+            boolean hasMore = taxForms.size() > limit;
+            List<TaxForm> page = hasMore ? taxForms.subList(0, limit) : taxForms;
+
+            return TaxFormChangesDto.builder()
+                    .forms(mapWithHistory(page))
+                    .syncToken(TaxFormSyncTokens.encode(
+                            year,
+                            page.isEmpty() ? since : page.get(page.size() - 1).getChangeSeq()
+                    ))
+                    .hasMore(hasMore)
+                    .build();
+        });
     }
 
     @Override
     @Transactional
     public Optional<TaxFormDto> save(Integer id, TaxFormDetailsRequest taxFormDetailsRequest) {
-        return taxFormRepository.findById(id)
+        return taxFormShardRouter.writeForm(id, () -> taxFormRepository.findForUpdateById(id)
                 .map(taxForm -> {
-                    TaxFormStatusUtils.save(taxForm);
-                    taxForm.setDetails(modelMapper.map(taxFormDetailsRequest, TaxFormDetailsDto.class));
+                    taxFormAutosaveBuffer.take(id);
+                    saveDetails(taxForm, taxFormDetailsRequest);
 
                     taxFormRepository.save(taxForm);
+                    recordWrite(taxForm);
+
+                    return mapWithRecentHistory(taxForm);
+                }));
+    }
+
+    @Override
+    public List<TaxFormSaveResultDto> saveAll(Map<Integer, TaxFormDetailsRequest> detailsById) {
+        Map<Integer, TaxFormSaveResultDto> results = taxFormShardRouter.writeForms(
+                        detailsById.keySet(),
+                        ids -> saveShard(ids, detailsById)
+                ).stream()
+                .collect(Collectors.toMap(TaxFormSaveResultDto::getId, Function.identity()));
 
-                    return modelMapper.map(taxForm, TaxFormDto.class);
-                });
+        return detailsById.keySet().stream()
+                .map(id -> results.getOrDefault(id, TaxFormSaveResultDto.builder()
+                        .id(id)
+                        .outcome(TaxFormSaveOutcome.NOT_FOUND)
+                        .build()))
+                .toList();
+    }
+
+    /**
+     * Saves the forms of one shard in one transaction. Inside it, once the updates are flushed, the pending
+     * autosaves they supersede are taken; autosaves accepted after the updates stay pending, and the taken ones are
+     * put back when the transaction fails. A shard that fails is reported as FAILED for each of its forms, so the
+     * results show which shards committed.
+     */
+    private List<TaxFormSaveResultDto> saveShard(List<Integer> ids, Map<Integer, TaxFormDetailsRequest> detailsById) {
+        Map<Integer, TaxFormAutosave> taken = new HashMap<>();
+
+        try {
+            return transactionTemplate.execute(status -> {
+                List<TaxFormSaveResultDto> results = saveDetails(ids, taxForm -> detailsById.get(taxForm.getId()));
+                taxFormRepository.flush();
+
+                results.stream()
+                        .filter(result -> result.getOutcome() == TaxFormSaveOutcome.SAVED)
+                        .flatMap(result -> taxFormRepository.findById(result.getId()).stream())
+                        .forEach(taxForm -> taxFormAutosaveBuffer
+                                .takeSuperseded(taxForm.getId(), taxForm.getUpdatedAt())
+                                .ifPresent(taxFormAutosave -> taken.put(taxForm.getId(), taxFormAutosave)));
+
+                return results;
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Failed to save {} forms of shard {}", ids.size(), DataSourceRoutingContext.currentShard(), e);
+            taxFormAutosaveBuffer.requeue(taken);
+
+            return ids.stream()
+                    .map(id -> TaxFormSaveResultDto.builder()
+                            .id(id)
+                            .outcome(TaxFormSaveOutcome.FAILED)
+                            .message("Not saved, the transaction of its shard failed")
+                            .build())
+                    .toList();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void autosave(Integer id, TaxFormDetailsRequest taxFormDetailsRequest) {
+        TaxFormStatus status = taxFormShardRouter.readForm(id, () -> taxFormRepository.findStatusById(id))
+                .orElseThrow(() -> new TaxFormNotFoundException(id));
+
+        if (!TaxFormWorkflow.permits(TaxFormTransition.SAVE, status)) {
+            throw new TaxFormStatusException(id, status, TaxFormTransition.SAVE.getTarget());
+        }
+
+        taxFormAutosaveBuffer.put(id, taxFormDetailsRequest);
     }
 
     @Override
     @Transactional
     public Optional<TaxFormDto> submit(Integer id) {
-        return taxFormRepository.findById(id)
+        return taxFormShardRouter.writeForm(id, () -> taxFormRepository.findForUpdateById(id)
                 .map(taxForm -> {
+                    applyAutosave(taxForm);
                     TaxFormStatusUtils.submit(taxForm);
+                    taxForm.setSubmittedAt(ZonedDateTime.now());
 
-                    TaxFormHistory taxFormHistory = TaxFormHistory.builder()
-                            .taxForm(taxForm)
-                            .type(TaxFormHistoryStatus.SUBMITTED)
-                            .build();
-
-                    taxForm.addHistory(taxFormHistory);
+                    appendHistory(taxForm, TaxFormTransition.SUBMIT);
 
                     taxFormRepository.save(taxForm);
+                    recordWrite(taxForm);
+
+                    return mapWithRecentHistory(taxForm);
+                }));
+    }
+
+    @Override
+    @Transactional
+    public List<TaxFormDto> claim(Integer year, String reviewer, int limit) {
+        return taxFormShardRouter.writeYear(year, () -> {
+            ZonedDateTime now = ZonedDateTime.now();
+            ZonedDateTime claimExpiresAt = now.plus(taxFormsApiProperties.getReviewQueue().getLease());
+            List<TaxForm> taxForms = taxFormRepository.findClaimable(
+                    year,
+                    TaxFormStatus.SUBMITTED,
+                    now,
+                    Limit.of(limit)
+            );
+
+            for (TaxForm taxForm : taxForms) {
+                taxForm.setClaimedBy(reviewer);
+                taxForm.setClaimExpiresAt(claimExpiresAt);
+                taxFormShardRouter.recordWrite();
+            }
 
-                    return modelMapper.map(taxForm, TaxFormDto.class);
-                });
+            return mapWithHistory(taxForms);
+        });
     }
 
     @Override
     @Transactional
-    public Optional<TaxFormDto> returnForm(Integer id) {
-        return taxFormRepository.findById(id)
+    public Optional<TaxFormDto> returnForm(Integer id, String reviewer) {
+        return taxFormShardRouter.writeForm(id, () -> taxFormRepository.findForUpdateById(id)
                 .map(taxForm -> {
+                    checkClaim(taxForm, reviewer);
+                    taxFormAutosaveBuffer.take(id);
                     TaxFormStatusUtils.returnForm(taxForm);
+                    releaseClaim(taxForm);
 
-                    TaxFormHistory taxFormHistory = TaxFormHistory.builder()
-                            .taxForm(taxForm)
-                            .type(TaxFormHistoryStatus.RETURNED)
-                            .build();
-
-                    taxForm.addHistory(taxFormHistory);
+                    appendHistory(taxForm, TaxFormTransition.RETURN);
 
                     taxFormRepository.save(taxForm);
+                    recordWrite(taxForm);
 
-                    return modelMapper.map(taxForm, TaxFormDto.class);
-                });
+                    return mapWithRecentHistory(taxForm);
+                }));
     }
 
     @Override
     @Transactional
-    public Optional<TaxFormDto> accept(Integer id) {
-        return taxFormRepository.findById(id)
+    public Optional<TaxFormDto> accept(Integer id, String reviewer) {
+        return taxFormShardRouter.writeForm(id, () -> taxFormRepository.findForUpdateById(id)
                 .map(taxForm -> {
+                    checkClaim(taxForm, reviewer);
+                    taxFormAutosaveBuffer.take(id);
                     TaxFormStatusUtils.accept(taxForm);
+                    releaseClaim(taxForm);
 
-                    TaxFormHistory taxFormHistory = TaxFormHistory.builder()
-                            .taxForm(taxForm)
-                            .type(TaxFormHistoryStatus.ACCEPTED)
-                            .build();
-
-                    taxForm.addHistory(taxFormHistory);
+                    appendHistory(taxForm, TaxFormTransition.ACCEPT);
 
                     taxFormRepository.save(taxForm);
+                    recordWrite(taxForm);
+
+                    return mapWithRecentHistory(taxForm);
+                }));
+    }
+
+    /**
+     * Applies drained autosaves. An autosave whose form was updated after it was accepted is rejected as superseded,
+     * checked under the row lock so a write committing meanwhile is seen.
+     */
+    @Transactional
+    public List<TaxFormSaveResultDto> saveAutosaves(Map<Integer, TaxFormAutosave> autosaves) {
+        return saveDetails(autosaves.keySet(), taxForm -> {
+            TaxFormAutosave taxFormAutosave = autosaves.get(taxForm.getId());
+
+            return taxFormAutosave.isSupersededBy(taxForm.getUpdatedAt()) ? null : taxFormAutosave.details();
+        });
+    }
+
+    /**
+     * Locks the forms in id order with one query and updates the details of those whose status permits it. A form
+     * without details to apply is rejected as superseded. The updates are flushed together on commit, as JDBC
+     * batches.
+     */
+    private List<TaxFormSaveResultDto> saveDetails(Collection<Integer> ids,
+                                                   Function<TaxForm, TaxFormDetailsRequest> details) {
+        List<TaxFormSaveResultDto> results = new ArrayList<>();
+
+        for (TaxForm taxForm : taxFormRepository.findAllByIdInOrderById(ids)) {
+            TaxFormSaveResultDto.TaxFormSaveResultDtoBuilder result = TaxFormSaveResultDto.builder()
+                    .id(taxForm.getId())
+                    .formYear(taxForm.getFormYear());
+            TaxFormDetailsRequest taxFormDetailsRequest = details.apply(taxForm);
+
+            if (taxFormDetailsRequest == null) {
+                results.add(result.outcome(TaxFormSaveOutcome.REJECTED).message(SUPERSEDED).build());
+                continue;
+            }
+
+            try {
+                saveDetails(taxForm, taxFormDetailsRequest);
+                recordWrite(taxForm);
+                results.add(result.outcome(TaxFormSaveOutcome.SAVED).build());
+            } catch (TaxFormStatusException e) {
+                logger.debug("Skipped saving details of form {}: {}", taxForm.getId(), e.getReason());
+                results.add(result.outcome(TaxFormSaveOutcome.REJECTED).message(e.getReason()).build());
+            }
+        }
+
+        return results;
+    }
+
+    private List<TaxFormDto> mapWithHistory(List<TaxForm> taxForms) {
+        if (taxForms.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, TaxForm> withHistory = taxFormRepository.findAllWithHistoryByIdIn(taxForms.stream()
+                        .map(TaxForm::getId)
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(TaxForm::getId, Function.identity()));
+
+        return taxForms.stream()
+                .map(taxForm -> modelMapper.map(withHistory.get(taxForm.getId()), TaxFormDto.class))
+                .toList();
+    }
+
+    /**
+     * Inserts the history entry of the transition without loading the form's history collection.
+     */
+    private void appendHistory(TaxForm taxForm, TaxFormTransition taxFormTransition) {
+        TaxFormHistory taxFormHistory = TaxFormHistory.builder()
+                .type(taxFormTransition.getHistoryStatus())
+                .build();
+
+        taxForm.appendHistory(taxFormHistory);
+        taxFormHistoryRepository.save(taxFormHistory);
+    }
+
+    /**
+     * Maps a written form with only its latest history entries, oldest first, so the response does not grow with
+     * the form's history.
+     */
+    private TaxFormDto mapWithRecentHistory(TaxForm taxForm) {
+        TaxFormDto taxFormDto = modelMapper.map(taxForm, TaxFormDto.class, ModelMapperConfig.WITHOUT_HISTORY);
+        List<TaxFormHistory> recentHistory = new ArrayList<>(taxFormHistoryRepository.findRecent(
+                taxForm.getId(),
+                taxForm.getFormYear(),
+                Limit.of(taxFormsApiProperties.getHistory().getResponseLimit())
+        ));
+
+        Collections.reverse(recentHistory);
+        taxFormDto.setHistory(recentHistory.stream()
+                .map(taxFormHistory -> modelMapper.map(taxFormHistory, TaxFormHistoryDto.class))
+                .toList());
+
+        return taxFormDto;
+    }
+
+    private void recordWrite(TaxForm taxForm) {
+        taxFormShardRouter.recordWrite();
+        taxFormYearSnapshotCache.invalidate(taxForm.getFormYear());
+    }
+
+    /**
+     * Rejects a review decision on a form while another reviewer holds an unexpired claim on it.
+     */
+    private void checkClaim(TaxForm taxForm, String reviewer) {
+        if (taxForm.getClaimedBy() != null
+                && !taxForm.getClaimedBy().equals(reviewer)
+                && taxForm.getClaimExpiresAt() != null
+                && taxForm.getClaimExpiresAt().isAfter(ZonedDateTime.now())) {
+            throw new TaxFormClaimedException(taxForm);
+        }
+    }
+
+    private void releaseClaim(TaxForm taxForm) {
+        taxForm.setClaimedBy(null);
+        taxForm.setClaimExpiresAt(null);
+    }
+
+    /**
+     * Applies the pending autosave of a form that is still editable, and drops it otherwise.
+     */
+    private void applyAutosave(TaxForm taxForm) {
+        taxFormAutosaveBuffer.take(taxForm.getId())
+                .filter(taxFormAutosave -> !taxFormAutosave.isSupersededBy(taxForm.getUpdatedAt()))
+                .filter(taxFormAutosave -> TaxFormWorkflow.permits(TaxFormTransition.SAVE, taxForm.getStatus()))
+                .ifPresent(taxFormAutosave -> saveDetails(taxForm, taxFormAutosave.details()));
+    }
 
-                    return modelMapper.map(taxForm, TaxFormDto.class);
-                });
+    private void saveDetails(TaxForm taxForm, TaxFormDetailsRequest taxFormDetailsRequest) {
+        TaxFormStatusUtils.save(taxForm);
+        taxForm.setDetails(modelMapper.map(taxFormDetailsRequest, TaxFormDetailsDto.class));
     }
 }
@@ -0,0 +1,169 @@
+package consulting.reason.tax_forms_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.dto.TaxFormDetailsDto;
+import consulting.reason.tax_forms_api.dto.TaxFormDto;
+import consulting.reason.tax_forms_api.dto.request.TaxFormDetailsRequest;
+import consulting.reason.tax_forms_api.entity.TaxForm;
+import consulting.reason.tax_forms_api.entity.TaxFormHistory;
+import consulting.reason.tax_forms_api.enums.TaxFormHistoryStatus;
+import consulting.reason.tax_forms_api.enums.TaxFormStatus;
+import consulting.reason.tax_forms_api.repository.TaxFormRepository;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exercises the mapping, validation, serialization and query paths with synthetic, non-persisted forms before the
+ * application reports ready. Application runners complete before the readiness state changes to
+ * ACCEPTING_TRAFFIC, so the readiness probe stays down until the warm-up finishes or hits its time cap.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaxFormWarmupRunner implements ApplicationRunner {
+    private static final int WARMUP_YEAR = 0;
+
+    private final Logger logger = LoggerFactory.getLogger(TaxFormWarmupRunner.class);
+    private final TaxFormsApiProperties taxFormsApiProperties;
+    private final ModelMapper modelMapper;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TaxFormRepository taxFormRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        TaxFormsApiProperties.Warmup warmup = taxFormsApiProperties.getWarmup();
+
+        if (!warmup.isEnabled()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + warmup.getTimeout().toNanos();
+        List<TaxForm> taxForms = syntheticForms();
+        List<TaxFormDetailsRequest> requests = syntheticRequests();
+
+        int iterations = 0;
+        while (iterations < warmup.getIterations() && System.nanoTime() < deadline) {
+            exercise(taxForms, requests.get(iterations % requests.size()));
+            iterations++;
+        }
+
+        int queryIterations = warmQueries(warmup.getQueryIterations(), deadline);
+
+        logger.info("Warm-up ran {} iterations and {} query iterations in {} ms",
+                iterations, queryIterations, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Runs the warm-up queries until the deadline, each transaction timing out at the deadline as well. A failing
+     * query ends the query warm-up instead of failing startup, since the database may simply not be ready yet.
+     */
+    private int warmQueries(int maxIterations, long deadline) {
+        int queryIterations = 0;
+
+        try {
+            while (queryIterations < maxIterations && System.nanoTime() < deadline) {
+                TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+                transactionTemplate.setReadOnly(true);
+                transactionTemplate.setTimeout(
+                        (int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(deadline - System.nanoTime())));
+
+                transactionTemplate.executeWithoutResult(status -> {
+                    taxFormRepository.findAllByFormYear(WARMUP_YEAR);
+                    taxFormRepository.findById(-1);
+                });
+                queryIterations++;
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Warm-up queries failed after {} iterations, continuing startup", queryIterations, e);
+        }
+
+        return queryIterations;
+    }
+
+    private void exercise(List<TaxForm> taxForms, TaxFormDetailsRequest taxFormDetailsRequest) {
+        try {
+            validator.validate(taxFormDetailsRequest);
+            byte[] request = objectMapper.writeValueAsBytes(taxFormDetailsRequest);
+            TaxFormDetailsRequest parsed = objectMapper.readValue(request, TaxFormDetailsRequest.class);
+            modelMapper.map(parsed, TaxFormDetailsDto.class);
+
+            List<TaxFormDto> taxFormDtos = taxForms.stream()
+                    .map(taxForm -> modelMapper.map(taxForm, TaxFormDto.class))
+                    .toList();
+            objectMapper.writeValueAsBytes(taxFormDtos.get(0));
+            objectMapper.writeValueAsBytes(taxFormDtos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<TaxForm> syntheticForms() {
+        List<TaxForm> taxForms = new ArrayList<>();
+        ZonedDateTime now = ZonedDateTime.now();
+
+        for (TaxFormStatus taxFormStatus : TaxFormStatus.values()) {
+            TaxForm taxForm = TaxForm.builder()
+                    .id(-taxForms.size() - 1)
+                    .formName("Warm-up " + taxFormStatus)
+                    .formYear(WARMUP_YEAR)
+                    .status(taxFormStatus)
+                    .details(taxFormStatus == TaxFormStatus.NOT_STARTED ? null : TaxFormDetailsDto.builder()
+                            .assessedValue(100)
+                            .appraisedValue(200L)
+                            .ratio(0.5)
+                            .comments("Warm-up")
+                            .build())
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build();
+
+            for (TaxFormHistoryStatus taxFormHistoryStatus : TaxFormHistoryStatus.values()) {
+                taxForm.addHistory(TaxFormHistory.builder()
+                        .type(taxFormHistoryStatus)
+                        .createdAt(now)
+                        .build());
+            }
+            taxForms.add(taxForm);
+        }
+
+        return taxForms;
+    }
+
+    private static List<TaxFormDetailsRequest> syntheticRequests() {
+        return List.of(
+                TaxFormDetailsRequest.builder()
+                        .assessedValue(100)
+                        .appraisedValue(200L)
+                        .ratio(0.5)
+                        .comments("Warm-up")
+                        .build(),
+                TaxFormDetailsRequest.builder()
+                        .assessedValue(100)
+                        .ratio(0.5)
+                        .build(),
+                TaxFormDetailsRequest.builder()
+                        .assessedValue(-1)
+                        .ratio(2.0)
+                        .comments("x".repeat(501))
+                        .build()
+        );
+    }
+}
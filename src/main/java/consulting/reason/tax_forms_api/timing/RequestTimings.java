@@ -0,0 +1,104 @@
+package consulting.reason.tax_forms_api.timing;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Per-request timing capture, active only on the thread of a timed request. Spans nest, and each category
+ * is charged its exclusive time, so a lazy history load inside a mapping counts as db rather than map.
+ */
+public class RequestTimings {
+    public static final String DB = "db";
+    public static final String MAP = "map";
+    public static final String SER = "ser";
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, long[]> totals = new LinkedHashMap<>();
+    private Span open;
+
+    private record Span(String category, long startNanos, long[] childNanos, Span parent) {
+    }
+
+    public static void start() {
+        CURRENT.set(new RequestTimings());
+    }
+
+    public static RequestTimings stop() {
+        RequestTimings requestTimings = CURRENT.get();
+        CURRENT.remove();
+
+        return requestTimings;
+    }
+
+    public static <T> T time(String category, Supplier<T> supplier) {
+        RequestTimings requestTimings = CURRENT.get();
+
+        if (requestTimings == null) {
+            return supplier.get();
+        }
+
+        requestTimings.begin(category);
+        try {
+            return supplier.get();
+        } finally {
+            requestTimings.end();
+        }
+    }
+
+    public static void begin(String category) {
+        RequestTimings requestTimings = CURRENT.get();
+
+        if (requestTimings != null) {
+            requestTimings.open = new Span(category, System.nanoTime(), new long[1], requestTimings.open);
+        }
+    }
+
+    public static void end() {
+        RequestTimings requestTimings = CURRENT.get();
+
+        if (requestTimings != null && requestTimings.open != null) {
+            Span span = requestTimings.open;
+            long elapsed = System.nanoTime() - span.startNanos();
+            long[] total = requestTimings.totals.computeIfAbsent(span.category(), category -> new long[2]);
+
+            total[0] += elapsed - span.childNanos()[0];
+            total[1]++;
+            if (span.parent() != null) {
+                span.parent().childNanos()[0] += elapsed;
+            }
+            requestTimings.open = span.parent();
+        }
+    }
+
+    public double millis(String category) {
+        long[] total = totals.get(category);
+
+        return total != null ? total[0] / 1_000_000.0 : 0;
+    }
+
+    public long count(String category) {
+        long[] total = totals.get(category);
+
+        return total != null ? total[1] : 0;
+    }
+
+    public double totalMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000.0;
+    }
+
+    public String toServerTiming() {
+        StringJoiner serverTiming = new StringJoiner(", ");
+
+        for (String category : new String[]{DB, MAP, SER}) {
+            serverTiming.add(String.format(Locale.ROOT, "%s;dur=%.1f", category, millis(category)));
+        }
+        serverTiming.add(String.format(Locale.ROOT, "total;dur=%.1f", totalMillis()));
+
+        return serverTiming.toString();
+    }
+}
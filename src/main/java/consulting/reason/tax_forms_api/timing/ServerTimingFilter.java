@@ -0,0 +1,78 @@
+package consulting.reason.tax_forms_api.timing;
+
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.controller.Headers;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Captures db, map and ser timings of requests that ask for them through the X-Server-Timing header or fall in
+ * the sampled share, and reports them in a Server-Timing header and a structured log line. Only timed responses
+ * are buffered, so the header can still be set after the body is serialized.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServerTimingFilter extends OncePerRequestFilter {
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private final Logger logger = LoggerFactory.getLogger(ServerTimingFilter.class);
+    private final TaxFormsApiProperties taxFormsApiProperties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!isTimed(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        RequestTimings.start();
+
+        try {
+            filterChain.doFilter(request, responseWrapper);
+        } finally {
+            RequestTimings requestTimings = RequestTimings.stop();
+
+            responseWrapper.setHeader(SERVER_TIMING, requestTimings.toServerTiming());
+            logger.info(String.format(
+                    Locale.ROOT,
+                    "server_timing method=%s uri=%s status=%d total_ms=%.1f db_ms=%.1f db_count=%d map_ms=%.1f ser_ms=%.1f",
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    responseWrapper.getStatus(),
+                    requestTimings.totalMillis(),
+                    requestTimings.millis(RequestTimings.DB),
+                    requestTimings.count(RequestTimings.DB),
+                    requestTimings.millis(RequestTimings.MAP),
+                    requestTimings.millis(RequestTimings.SER)
+            ));
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private boolean isTimed(HttpServletRequest request) {
+        TaxFormsApiProperties.ServerTiming serverTiming = taxFormsApiProperties.getServerTiming();
+
+        if (serverTiming.isHeaderEnabled() && Boolean.parseBoolean(request.getHeader(Headers.SERVER_TIMING))) {
+            return true;
+        }
+
+        return serverTiming.getSampleRate() > 0 && ThreadLocalRandom.current().nextDouble() < serverTiming.getSampleRate();
+    }
+}
@@ -0,0 +1,15 @@
+package consulting.reason.tax_forms_api.timing;
+
+import org.modelmapper.ModelMapper;
+
+public class TimedModelMapper extends ModelMapper {
+    @Override
+    public <D> D map(Object source, Class<D> destinationType) {
+        return RequestTimings.time(RequestTimings.MAP, () -> super.map(source, destinationType));
+    }
+
+    @Override
+    public <D> D map(Object source, Class<D> destinationType, String typeMapName) {
+        return RequestTimings.time(RequestTimings.MAP, () -> super.map(source, destinationType, typeMapName));
+    }
+}
@@ -0,0 +1,106 @@
+package consulting.reason.tax_forms_api.util;
+
+import consulting.reason.tax_forms_api.exception.TaxFormOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the calls in flight with an AIMD limit. A call that finishes within the latency threshold while at
+ * least half the limit was in use raises the limit by one; a slower call, or one that failed to get a
+ * connection or hit a timeout, multiplies it by the backoff ratio. The limit backs off at most once per limit's
+ * worth of completions, so one stall that slows every call in flight counts as a single drop. Calls over the
+ * limit are rejected at once instead of queueing for a connection.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private final String pool;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final Duration retryAfter;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejections;
+    private volatile double limit;
+    private int completionsSinceBackoff;
+
+    public AdaptiveConcurrencyLimiter(String pool,
+                                      int initialLimit,
+                                      int minLimit,
+                                      int maxLimit,
+                                      double backoffRatio,
+                                      Duration latencyThreshold,
+                                      Duration retryAfter,
+                                      MeterRegistry meterRegistry) {
+        this.pool = pool;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.retryAfter = retryAfter;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.completionsSinceBackoff = maxLimit;
+
+        Gauge.builder("tax_forms.admission.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("pool", pool)
+                .register(meterRegistry);
+        Gauge.builder("tax_forms.admission.in_flight", inFlight, AtomicInteger::get)
+                .tag("pool", pool)
+                .register(meterRegistry);
+        this.rejections = Counter.builder("tax_forms.admission.rejections")
+                .tag("pool", pool)
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= getLimit()) {
+                rejections.increment();
+                throw new TaxFormOverloadedException(pool, getLimit(), retryAfter);
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+
+        long start = System.nanoTime();
+        boolean dropped = false;
+        try {
+            return call.get();
+        } catch (TransientDataAccessException | CannotCreateTransactionException e) {
+            dropped = true;
+            throw e;
+        } finally {
+            inFlight.decrementAndGet();
+            adjust(current + 1, dropped || System.nanoTime() - start > latencyThresholdNanos);
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void adjust(int inFlightAtStart, boolean dropped) {
+        if (completionsSinceBackoff < maxLimit) {
+            completionsSinceBackoff++;
+        }
+
+        if (dropped) {
+            if (completionsSinceBackoff >= limit) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                completionsSinceBackoff = 0;
+            }
+        } else if (inFlightAtStart * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package consulting.reason.tax_forms_api.util;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lets one log line per key through each interval and counts the lines suppressed in between, so the next line
+ * let through can report them.
+ */
+public class LogRateLimiter<K> {
+    private final Map<K, Window> windows = new ConcurrentHashMap<>();
+    private final long intervalNanos;
+
+    private static final class Window {
+        private final AtomicLong nextNanos;
+        private final LongAdder suppressed = new LongAdder();
+
+        private Window(long nextNanos) {
+            this.nextNanos = new AtomicLong(nextNanos);
+        }
+    }
+
+    public LogRateLimiter(Duration interval) {
+        this.intervalNanos = interval.toNanos();
+    }
+
+    /**
+     * @return the number of lines suppressed since the last one let through, or -1 when this one is suppressed
+     */
+    public long acquire(K key) {
+        long now = System.nanoTime();
+        Window window = windows.computeIfAbsent(key, k -> new Window(now));
+        long next = window.nextNanos.get();
+
+        if (now - next >= 0 && window.nextNanos.compareAndSet(next, now + intervalNanos)) {
+            return window.suppressed.sumThenReset();
+        }
+
+        window.suppressed.increment();
+        return -1;
+    }
+}
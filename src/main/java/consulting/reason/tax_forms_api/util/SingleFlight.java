@@ -0,0 +1,97 @@
+package consulting.reason.tax_forms_api.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent loads of the same key into one. The first caller runs the load and every caller that
+ * arrives while it is in flight waits for the same result. A waiter that is not answered within the timeout
+ * runs its own load instead, unless a fallback is given.
+ */
+public class SingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+    private final Counter leaders;
+    private final Counter collapsed;
+    private final Counter timeouts;
+
+    public SingleFlight(String operation, Duration timeout, MeterRegistry meterRegistry) {
+        this.timeoutNanos = timeout.toNanos();
+        this.leaders = counter(meterRegistry, operation, "leader");
+        this.collapsed = counter(meterRegistry, operation, "collapsed");
+        this.timeouts = counter(meterRegistry, operation, "timeout");
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        return execute(key, loader, loader);
+    }
+
+    /**
+     * Like {@link #execute(Object, Supplier)}, except that a waiter not answered within the timeout takes the value
+     * of the fallback instead, and goes on waiting for the load in flight when the fallback has none.
+     */
+    public V execute(K key, Supplier<V> loader, Supplier<V> fallback) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+
+        if (existing == null) {
+            leaders.increment();
+            return load(key, future, loader);
+        }
+
+        collapsed.increment();
+
+        try {
+            try {
+                return existing.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                timeouts.increment();
+                V value = fallback.get();
+
+                return value != null ? value : existing.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    private V load(K key, CompletableFuture<V> future, Supplier<V> loader) {
+        try {
+            V value = loader.get();
+            future.complete(value);
+
+            return value;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String operation, String outcome) {
+        return Counter.builder("tax_forms.single_flight.calls")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -1,52 +1,23 @@
 package consulting.reason.tax_forms_api.util;
 
 import consulting.reason.tax_forms_api.entity.TaxForm;
-import consulting.reason.tax_forms_api.enums.TaxFormStatus;
+import consulting.reason.tax_forms_api.enums.TaxFormTransition;
 import consulting.reason.tax_forms_api.exception.TaxFormStatusException;
 
 public class TaxFormStatusUtils {
     public static void save(TaxForm taxForm) throws TaxFormStatusException {
-        if (taxForm.getStatus().equals(TaxFormStatus.SUBMITTED) ||
-                taxForm.getStatus().equals(TaxFormStatus.ACCEPTED)) {
-            throw new TaxFormStatusException(
-                    taxForm,
-                    TaxFormStatus.IN_PROGRESS
-            );
-        }
-
-        taxForm.setStatus(TaxFormStatus.IN_PROGRESS);
+        TaxFormWorkflow.apply(taxForm, TaxFormTransition.SAVE);
     }
 
     public static void submit(TaxForm taxForm) throws TaxFormStatusException {
-        if (!taxForm.getStatus().equals(TaxFormStatus.IN_PROGRESS)) {
-            throw new TaxFormStatusException(
-                    taxForm,
-                    TaxFormStatus.SUBMITTED
-            );
-        }
-
-        taxForm.setStatus(TaxFormStatus.SUBMITTED);
+        TaxFormWorkflow.apply(taxForm, TaxFormTransition.SUBMIT);
     }
 
     public static void returnForm(TaxForm taxForm) throws TaxFormStatusException {
-        if (!taxForm.getStatus().equals(TaxFormStatus.SUBMITTED)) {
-            throw new TaxFormStatusException(
-                    taxForm,
-                    TaxFormStatus.RETURNED
-            );
-        }
-
-        taxForm.setStatus(TaxFormStatus.RETURNED);
+        TaxFormWorkflow.apply(taxForm, TaxFormTransition.RETURN);
     }
 
     public static void accept(TaxForm taxForm) throws TaxFormStatusException {
-        if (!taxForm.getStatus().equals(TaxFormStatus.SUBMITTED)) {
-            throw new TaxFormStatusException(
-                    taxForm,
-                    TaxFormStatus.ACCEPTED
-            );
-        }
-
-        taxForm.setStatus(TaxFormStatus.ACCEPTED);
+        TaxFormWorkflow.apply(taxForm, TaxFormTransition.ACCEPT);
     }
 }
@@ -0,0 +1,35 @@
+package consulting.reason.tax_forms_api.util;
+
+import consulting.reason.tax_forms_api.exception.TaxFormSyncTokenException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque delta sync tokens carrying the form year and the last change sequence a client has seen.
+ */
+public class TaxFormSyncTokens {
+    public static String encode(Integer year, long changeSeq) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString("%d:%d".formatted(year, changeSeq).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static long decode(Integer year, String syncToken) throws TaxFormSyncTokenException {
+        if (syncToken == null || syncToken.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(syncToken), StandardCharsets.UTF_8).split(":");
+
+            if (parts.length == 2 && Integer.parseInt(parts[0]) == year) {
+                return Long.parseLong(parts[1]);
+            }
+        } catch (IllegalArgumentException e) {
+            // Falls through to the rejection below, NumberFormatException included
+        }
+
+        throw new TaxFormSyncTokenException(syncToken, year);
+    }
+}
@@ -0,0 +1,74 @@
+package consulting.reason.tax_forms_api.util;
+
+import consulting.reason.tax_forms_api.entity.TaxForm;
+import consulting.reason.tax_forms_api.enums.TaxFormStatus;
+import consulting.reason.tax_forms_api.enums.TaxFormTransition;
+import consulting.reason.tax_forms_api.exception.TaxFormStatusException;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link TaxFormTransition} table compiled once, when the class is loaded: a bitmask of source status ordinals
+ * per transition for the checks on the request path, and the equivalent {@code status IN (...)} guard for
+ * set-based updates.
+ */
+public final class TaxFormWorkflow {
+    private static final TaxFormTransition[] TRANSITIONS = TaxFormTransition.values();
+    private static final int[] SOURCE_MASKS = new int[TRANSITIONS.length];
+    private static final Map<TaxFormTransition, Set<TaxFormStatus>> SOURCES = new EnumMap<>(TaxFormTransition.class);
+    private static final Map<TaxFormTransition, String> SQL_GUARDS = new EnumMap<>(TaxFormTransition.class);
+
+    static {
+        for (TaxFormTransition transition : TRANSITIONS) {
+            if (transition.getSources().isEmpty()) {
+                throw new IllegalStateException("Transition %s has no source status".formatted(transition));
+            }
+
+            Set<TaxFormStatus> sources = EnumSet.copyOf(transition.getSources());
+            for (TaxFormStatus source : sources) {
+                SOURCE_MASKS[transition.ordinal()] |= 1 << source.ordinal();
+            }
+            SOURCES.put(transition, Collections.unmodifiableSet(sources));
+            SQL_GUARDS.put(transition, sources.stream()
+                    .map(source -> "'" + source.name() + "'")
+                    .collect(Collectors.joining(", ", "status IN (", ")")));
+        }
+    }
+
+    private TaxFormWorkflow() {
+    }
+
+    public static boolean permits(TaxFormTransition transition, TaxFormStatus status) {
+        return (SOURCE_MASKS[transition.ordinal()] & 1 << status.ordinal()) != 0;
+    }
+
+    /**
+     * Moves the form to the target status of the transition.
+     *
+     * @throws TaxFormStatusException when the form's status is not a source of the transition
+     */
+    public static void apply(TaxForm taxForm, TaxFormTransition transition) throws TaxFormStatusException {
+        if (!permits(transition, taxForm.getStatus())) {
+            throw new TaxFormStatusException(taxForm, transition.getTarget());
+        }
+
+        taxForm.setStatus(transition.getTarget());
+    }
+
+    public static Set<TaxFormStatus> sources(TaxFormTransition transition) {
+        return SOURCES.get(transition);
+    }
+
+    /**
+     * @return the guard of the transition against the {@code status} column, such as
+     * {@code status IN ('SUBMITTED')}
+     */
+    public static String sqlGuard(TaxFormTransition transition) {
+        return SQL_GUARDS.get(transition);
+    }
+}
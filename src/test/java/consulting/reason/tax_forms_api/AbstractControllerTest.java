@@ -2,18 +2,26 @@ package consulting.reason.tax_forms_api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import consulting.reason.tax_forms_api.config.ModelMapperConfig;
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.datasource.ReplicaLagGuard;
+import consulting.reason.tax_forms_api.service.IdempotencyService;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 
 @ActiveProfiles("test")
 @Import({
-        ModelMapperConfig.class
+        ModelMapperConfig.class,
+        ReplicaLagGuard.class,
+        TaxFormsApiProperties.class
 })
 public abstract class AbstractControllerTest {
     @Autowired
     protected ModelMapper modelMapper;
     @Autowired
     protected ObjectMapper objectMapper;
+    @MockBean
+    protected IdempotencyService idempotencyService;
 }
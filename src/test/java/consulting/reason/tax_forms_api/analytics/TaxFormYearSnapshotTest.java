@@ -0,0 +1,57 @@
+package consulting.reason.tax_forms_api.analytics;
+
+import consulting.reason.tax_forms_api.dto.TaxFormDetailsDto;
+import consulting.reason.tax_forms_api.enums.TaxFormStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TaxFormYearSnapshotTest {
+    private static TaxFormSnapshotRow row(int id, TaxFormStatus status, Integer assessedValue, Double ratio) {
+        return new TaxFormSnapshotRow(id, status, TaxFormDetailsDto.builder()
+                .assessedValue(assessedValue)
+                .ratio(ratio)
+                .build());
+    }
+
+    @Test
+    void testHistogramCountsAssessedValuesByStatus() {
+        TaxFormYearSnapshot.Builder builder = TaxFormYearSnapshot.builder(2024);
+        for (int i = 0; i < 5000; i++) {
+            builder.add(row(i, i % 2 == 0 ? TaxFormStatus.SUBMITTED : TaxFormStatus.ACCEPTED, i % 100, null));
+        }
+        builder.add(new TaxFormSnapshotRow(5000, TaxFormStatus.NOT_STARTED, null));
+        TaxFormYearSnapshot snapshot = builder.build();
+
+        TaxFormYearSnapshot.Histogram histogram = snapshot.assessedValueHistogram(10);
+
+        assertThat(snapshot.size()).isEqualTo(5001);
+        assertThat(histogram.min()).isZero();
+        assertThat(histogram.max()).isEqualTo(99);
+        assertThat(histogram.bucketWidth()).isEqualTo(10);
+        assertThat(histogram.counts()[TaxFormStatus.SUBMITTED.ordinal()]).containsOnly(250);
+        assertThat(histogram.counts()[TaxFormStatus.ACCEPTED.ordinal()]).containsOnly(250);
+        assertThat(histogram.missing()[TaxFormStatus.NOT_STARTED.ordinal()]).isEqualTo(1);
+    }
+
+    @Test
+    void testRatioPercentilesPerStatus() {
+        TaxFormYearSnapshot.Builder builder = TaxFormYearSnapshot.builder(2024);
+        AtomicInteger id = new AtomicInteger();
+        for (int i = 100; i >= 1; i--) {
+            builder.add(row(id.incrementAndGet(), TaxFormStatus.ACCEPTED, 1, i / 100.0));
+        }
+        builder.add(row(id.incrementAndGet(), TaxFormStatus.RETURNED, 1, 5.0));
+        builder.add(row(id.incrementAndGet(), TaxFormStatus.RETURNED, 1, null));
+        TaxFormYearSnapshot snapshot = builder.build();
+
+        assertThat(snapshot.ratioPercentile(TaxFormStatus.ACCEPTED, 50)).isEqualTo(0.5);
+        assertThat(snapshot.ratioPercentile(TaxFormStatus.ACCEPTED, 99)).isEqualTo(0.99);
+        assertThat(snapshot.ratioPercentile(null, 100)).isEqualTo(5.0);
+        assertThat(snapshot.ratioCount(TaxFormStatus.RETURNED)).isEqualTo(1);
+        assertThat(snapshot.ratioPercentile(TaxFormStatus.SUBMITTED, 50)).isNaN();
+        assertThat(snapshot.bytes()).isEqualTo(102L * (4 + 1 + 4 + 8 + 8) + 101L * 8 * 2);
+    }
+}
@@ -0,0 +1,21 @@
+package consulting.reason.tax_forms_api.budget;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the most SQL statements and thread allocated bytes each call measured through the injected
+ * {@link PerformanceBudgetRecorder} may use.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(PerformanceBudgetExtension.class)
+public @interface PerformanceBudget {
+    long statements() default Long.MAX_VALUE;
+
+    long allocatedBytes() default Long.MAX_VALUE;
+}
@@ -0,0 +1,28 @@
+package consulting.reason.tax_forms_api.budget;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+public class PerformanceBudgetExtension implements ParameterResolver {
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext)
+            throws ParameterResolutionException {
+        return parameterContext.getParameter().getType().equals(PerformanceBudgetRecorder.class);
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext)
+            throws ParameterResolutionException {
+        PerformanceBudget performanceBudget = extensionContext.getRequiredTestMethod()
+                .getAnnotation(PerformanceBudget.class);
+        EntityManagerFactory entityManagerFactory = SpringExtension.getApplicationContext(extensionContext)
+                .getBeanProvider(EntityManagerFactory.class)
+                .getIfAvailable();
+
+        return new PerformanceBudgetRecorder(performanceBudget, entityManagerFactory);
+    }
+}
@@ -0,0 +1,69 @@
+package consulting.reason.tax_forms_api.budget;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures one call at a time against its {@link PerformanceBudget}. The persistence context is flushed and
+ * cleared before each call so reads hit the database, and flushed after it so deferred writes are counted.
+ */
+public class PerformanceBudgetRecorder {
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final PerformanceBudget performanceBudget;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public PerformanceBudgetRecorder(PerformanceBudget performanceBudget, EntityManagerFactory entityManagerFactory) {
+        this.performanceBudget = performanceBudget;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public <T> T measure(String name, Call<T> call) throws Exception {
+        EntityManager entityManager = entityManagerFactory != null
+                ? EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)
+                : null;
+        Statistics statistics = entityManagerFactory != null
+                ? entityManagerFactory.unwrap(SessionFactory.class).getStatistics()
+                : null;
+
+        if (entityManager != null) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+        if (statistics != null) {
+            statistics.clear();
+        }
+
+        long allocatedBefore = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+        T result = call.call();
+
+        if (entityManager != null) {
+            entityManager.flush();
+        }
+
+        long allocatedBytes = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        long statements = statistics != null ? statistics.getPrepareStatementCount() : 0;
+
+        assertThat(statements)
+                .as("SQL statements of %s", name)
+                .isLessThanOrEqualTo(performanceBudget.statements());
+        assertThat(allocatedBytes)
+                .as("Allocated bytes of %s", name)
+                .isLessThanOrEqualTo(performanceBudget.allocatedBytes());
+
+        return result;
+    }
+
+    @FunctionalInterface
+    public interface Call<T> {
+        T call() throws Exception;
+    }
+}
@@ -0,0 +1,95 @@
+package consulting.reason.tax_forms_api.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import consulting.reason.tax_forms_api.exception.TaxFormNotFoundException;
+import consulting.reason.tax_forms_api.exception.TaxFormPageSizeException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ControllerExceptionHandlerTest {
+    private final Logger logger = (Logger) LoggerFactory.getLogger(ControllerExceptionHandler.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ControllerExceptionHandler controllerExceptionHandler;
+
+    @BeforeEach
+    void before() {
+        TaxFormsApiProperties taxFormsApiProperties = new TaxFormsApiProperties();
+        taxFormsApiProperties.getRejectionLogging().setInterval(Duration.ofMillis(100));
+        controllerExceptionHandler = new ControllerExceptionHandler(
+                taxFormsApiProperties,
+                new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry))
+                        .getBeanProvider(MeterRegistry.class)
+        );
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void after() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void testRejectionIsAnsweredWithItsStatusAndReason() {
+        ResponseEntity<String> response = controllerExceptionHandler.handleRejection(
+                new TaxFormNotFoundException(1), null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).isEqualTo("404 NOT_FOUND \"Tax form 1 not found\"");
+    }
+
+    @Test
+    void testRejectionsAreCountedByTypeAndStatus() {
+        controllerExceptionHandler.handleRejection(new TaxFormNotFoundException(1), null);
+        controllerExceptionHandler.handleRejection(new TaxFormNotFoundException(2), null);
+        controllerExceptionHandler.handleRejection(new TaxFormPageSizeException(2000, 1000), null);
+
+        assertThat(meterRegistry.get("tax_forms.rejections")
+                .tags("type", "TaxFormNotFoundException", "status", "404")
+                .counter()
+                .count()).isEqualTo(2);
+        assertThat(meterRegistry.get("tax_forms.rejections")
+                .tags("type", "TaxFormPageSizeException", "status", "400")
+                .counter()
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void testRejectionsOfTypeAreLoggedOncePerInterval() throws Exception {
+        controllerExceptionHandler.handleRejection(new TaxFormNotFoundException(1), null);
+        controllerExceptionHandler.handleRejection(new TaxFormNotFoundException(2), null);
+        controllerExceptionHandler.handleRejection(new TaxFormNotFoundException(3), null);
+        controllerExceptionHandler.handleRejection(new TaxFormPageSizeException(2000, 1000), null);
+
+        Thread.sleep(150);
+
+        controllerExceptionHandler.handleRejection(new TaxFormNotFoundException(4), null);
+
+        assertThat(appender.list)
+                .filteredOn(event -> event.getLevel() == Level.INFO)
+                .extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactly(
+                        "TaxFormNotFoundException occurred: 404 NOT_FOUND \"Tax form 1 not found\" (0 similar suppressed)",
+                        "TaxFormPageSizeException occurred: 400 BAD_REQUEST "
+                                + "\"Cannot return 2000 forms in one page, the maximum is 1000\" (0 similar suppressed)",
+                        "TaxFormNotFoundException occurred: 404 NOT_FOUND \"Tax form 4 not found\" (2 similar suppressed)"
+                );
+        assertThat(appender.list).allSatisfy(event -> assertThat(event.getThrowableProxy()).isNull());
+    }
+}
@@ -1,25 +1,55 @@
 package consulting.reason.tax_forms_api.controller;
 
 import consulting.reason.tax_forms_api.AbstractControllerTest;
+import consulting.reason.tax_forms_api.budget.PerformanceBudget;
+import consulting.reason.tax_forms_api.budget.PerformanceBudgetRecorder;
+import consulting.reason.tax_forms_api.dto.TaxFormBatchDto;
+import consulting.reason.tax_forms_api.dto.TaxFormChangesDto;
 import consulting.reason.tax_forms_api.dto.TaxFormDetailsDto;
 import consulting.reason.tax_forms_api.dto.TaxFormDto;
+import consulting.reason.tax_forms_api.dto.TaxFormSaveResultDto;
+import consulting.reason.tax_forms_api.dto.request.TaxFormBatchDetailsRequest;
 import consulting.reason.tax_forms_api.dto.request.TaxFormDetailsRequest;
+import consulting.reason.tax_forms_api.entity.TaxForm;
+import consulting.reason.tax_forms_api.enums.TaxFormSaveOutcome;
+import consulting.reason.tax_forms_api.exception.TaxFormBatchIdsException;
+import consulting.reason.tax_forms_api.exception.TaxFormClaimedException;
+import consulting.reason.tax_forms_api.exception.TaxFormIdempotencyConflictException;
+import consulting.reason.tax_forms_api.exception.TaxFormOverloadedException;
+import consulting.reason.tax_forms_api.idempotency.IdempotentResponse;
 import consulting.reason.tax_forms_api.service.TaxFormService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(value = TaxFormController.class)
@@ -62,6 +92,106 @@ public class TaxFormControllerTest extends AbstractControllerTest {
                 .andExpect(content().json(objectMapper.writeValueAsString(List.of(taxFormDto))));
     }
 
+    @Test
+    void testFindAllByYearReportsServerTiming() throws Exception {
+        given(taxFormService.findAllByYear(2024)).willReturn(List.of(taxFormDto));
+
+        mockMvc.perform(get(Endpoints.FORMS)
+                        .param("year", "2024")
+                        .header(Headers.SERVER_TIMING, "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", startsWith("db;dur=")))
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of(taxFormDto))));
+
+        mockMvc.perform(get(Endpoints.FORMS)
+                        .param("year", "2024"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Server-Timing"));
+    }
+
+    @Test
+    void testFindAllByYearHandlesOverload() throws Exception {
+        given(taxFormService.findAllByYear(2024))
+                .willThrow(new TaxFormOverloadedException("reads", 20, Duration.ofSeconds(1)));
+
+        mockMvc.perform(get(Endpoints.FORMS)
+                        .param("year", "2024"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void testFindAllByYearHandlesQueryTimeout() throws Exception {
+        given(taxFormService.findAllByYear(2024)).willThrow(new QueryTimeoutException("canceled"));
+
+        mockMvc.perform(get(Endpoints.FORMS)
+                        .param("year", "2024")
+                        .header(Headers.REQUEST_TIMEOUT, "500"))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(content().string(containsString("within its time budget of 500 ms")));
+    }
+
+    @Test
+    void testFindAllByIds() throws Exception {
+        TaxFormBatchDto taxFormBatchDto = TaxFormBatchDto.builder()
+                .forms(List.of(taxFormDto))
+                .missingIds(List.of(2))
+                .build();
+        given(taxFormService.findAllByIds(List.of(2, 1))).willReturn(taxFormBatchDto);
+
+        mockMvc.perform(get(Endpoints.FORMS)
+                        .param("ids", "2,1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(taxFormBatchDto)));
+    }
+
+    @Test
+    void testFindAllByIdsHandlesTooManyIds() throws Exception {
+        String ids = String.join(",", Collections.nCopies(101, "1"));
+
+        mockMvc.perform(get(Endpoints.FORMS)
+                        .param("ids", ids)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testFindAllByIdsHandlesEmptyId() throws Exception {
+        given(taxFormService.findAllByIds(Arrays.asList(1, null, 2)))
+                .willThrow(new TaxFormBatchIdsException(Arrays.asList(1, null, 2)));
+
+        mockMvc.perform(get(Endpoints.FORMS)
+                        .param("ids", "1,,2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testFindChanges() throws Exception {
+        TaxFormChangesDto taxFormChangesDto = TaxFormChangesDto.builder()
+                .forms(List.of(taxFormDto))
+                .syncToken("MjAyNDo3")
+                .hasMore(false)
+                .build();
+        given(taxFormService.findChanges(2024, "MjAyNDo1", 50)).willReturn(taxFormChangesDto);
+
+        mockMvc.perform(get(Endpoints.FORMS + "/changes")
+                        .param("year", "2024")
+                        .param("since", "MjAyNDo1")
+                        .param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(taxFormChangesDto)));
+    }
+
+    @Test
+    void testFindChangesHandlesTooLargeLimit() throws Exception {
+        mockMvc.perform(get(Endpoints.FORMS + "/changes")
+                        .param("year", "2024")
+                        .param("limit", "1001"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testFindById() throws Exception {
         given(taxFormService.findById(taxFormDto.getId())).willReturn(Optional.of(taxFormDto));
@@ -72,6 +202,50 @@ public class TaxFormControllerTest extends AbstractControllerTest {
                 .andExpect(content().json(objectMapper.writeValueAsString(taxFormDto)));
     }
 
+    @Test
+    @PerformanceBudget(statements = 0, allocatedBytes = 1_000_000)
+    void testFindAllByYearBudget(PerformanceBudgetRecorder performanceBudgetRecorder) throws Exception {
+        given(taxFormService.findAllByYear(2024)).willReturn(List.of(taxFormDto));
+        mockMvc.perform(get(Endpoints.FORMS).param("year", "2024"));
+
+        performanceBudgetRecorder.measure(
+                "GET " + Endpoints.FORMS,
+                () -> mockMvc.perform(get(Endpoints.FORMS).param("year", "2024"))
+                        .andExpect(status().isOk())
+        );
+    }
+
+    @Test
+    @PerformanceBudget(statements = 0, allocatedBytes = 1_000_000)
+    void testFindByIdBudget(PerformanceBudgetRecorder performanceBudgetRecorder) throws Exception {
+        given(taxFormService.findById(taxFormDto.getId())).willReturn(Optional.of(taxFormDto));
+        mockMvc.perform(get(Endpoints.FORMS + "/" + taxFormDto.getId()));
+
+        performanceBudgetRecorder.measure(
+                "GET " + Endpoints.FORMS + "/{id}",
+                () -> mockMvc.perform(get(Endpoints.FORMS + "/" + taxFormDto.getId()))
+                        .andExpect(status().isOk())
+        );
+    }
+
+    @Test
+    @PerformanceBudget(statements = 0, allocatedBytes = 1_000_000)
+    void testSaveBudget(PerformanceBudgetRecorder performanceBudgetRecorder) throws Exception {
+        given(taxFormService.save(taxFormDto.getId(), taxFormDetailsRequest)).willReturn(Optional.of(taxFormDto));
+        String content = objectMapper.writeValueAsString(taxFormDetailsRequest);
+        mockMvc.perform(patch(Endpoints.FORMS + "/" + taxFormDto.getId())
+                .content(content)
+                .contentType(MediaType.APPLICATION_JSON));
+
+        performanceBudgetRecorder.measure(
+                "PATCH " + Endpoints.FORMS + "/{id}",
+                () -> mockMvc.perform(patch(Endpoints.FORMS + "/" + taxFormDto.getId())
+                                .content(content)
+                                .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk())
+        );
+    }
+
     @Test
     void testFindByIdHandlesNotFound() throws Exception {
         mockMvc.perform(get(Endpoints.FORMS + "/" + taxFormDto.getId())
@@ -90,6 +264,68 @@ public class TaxFormControllerTest extends AbstractControllerTest {
                 .andExpect(content().json(objectMapper.writeValueAsString(taxFormDto)));
     }
 
+    @Test
+    void testSaveAll() throws Exception {
+        TaxFormDetailsRequest invalidDetails = TaxFormDetailsRequest.builder()
+                .assessedValue(-1)
+                .ratio(0.5)
+                .build();
+        Map<Integer, TaxFormDetailsRequest> detailsById = new LinkedHashMap<>();
+        detailsById.put(1, taxFormDetailsRequest);
+        detailsById.put(3, taxFormDetailsRequest);
+        List<TaxFormSaveResultDto> saved = List.of(
+                TaxFormSaveResultDto.builder().id(1).formYear(2024).outcome(TaxFormSaveOutcome.SAVED).build(),
+                TaxFormSaveResultDto.builder().id(3).outcome(TaxFormSaveOutcome.NOT_FOUND).build()
+        );
+        given(taxFormService.saveAll(detailsById)).willReturn(saved);
+
+        mockMvc.perform(patch(Endpoints.FORMS)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                new TaxFormBatchDetailsRequest(1, taxFormDetailsRequest),
+                                new TaxFormBatchDetailsRequest(2, invalidDetails),
+                                new TaxFormBatchDetailsRequest(3, taxFormDetailsRequest),
+                                new TaxFormBatchDetailsRequest(1, taxFormDetailsRequest)
+                        )))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of(
+                        saved.get(0),
+                        TaxFormSaveResultDto.builder()
+                                .id(2)
+                                .outcome(TaxFormSaveOutcome.INVALID)
+                                .message("Assessed value must be positive")
+                                .build(),
+                        saved.get(1),
+                        TaxFormSaveResultDto.builder()
+                                .id(1)
+                                .outcome(TaxFormSaveOutcome.INVALID)
+                                .message("Form 1 is already in the batch")
+                                .build()
+                ))));
+    }
+
+    @Test
+    void testSaveAllRejectsNullItem() throws Exception {
+        mockMvc.perform(patch(Endpoints.FORMS)
+                        .content("[{\"id\": 1, \"details\": {}}, null]")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        then(taxFormService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void testAutosave() throws Exception {
+        mockMvc.perform(patch(Endpoints.FORMS + "/" + taxFormDto.getId())
+                        .header(Headers.AUTOSAVE, "true")
+                        .content(objectMapper.writeValueAsString(taxFormDetailsRequest))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andExpect(content().string(""));
+
+        then(taxFormService).should().autosave(taxFormDto.getId(), taxFormDetailsRequest);
+    }
+
     @Test
     void testSaveHandlesNotFound() throws Exception {
         mockMvc.perform(patch(Endpoints.FORMS + "/" + taxFormDto.getId())
@@ -115,12 +351,94 @@ public class TaxFormControllerTest extends AbstractControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testSubmitStoresResponseOfIdempotencyKey() throws Exception {
+        given(taxFormService.submit(taxFormDto.getId())).willReturn(Optional.of(taxFormDto));
+        given(idempotencyService.begin(eq("submit-1"), anyString())).willReturn(Optional.empty());
+
+        mockMvc.perform(patch(Endpoints.FORMS + "/" + taxFormDto.getId() + "/submit")
+                        .header(Headers.IDEMPOTENCY_KEY, "submit-1"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(taxFormDto)));
+
+        then(idempotencyService).should().complete(eq("submit-1"), anyString(), eq(200), anyString(), any());
+    }
+
+    @Test
+    void testSubmitKeepsIdempotencyKeyWhenResponseCannotBeStored() throws Exception {
+        given(taxFormService.submit(taxFormDto.getId())).willReturn(Optional.of(taxFormDto));
+        given(idempotencyService.begin(eq("submit-1"), anyString())).willReturn(Optional.empty());
+        willThrow(new IllegalStateException("Connection reset")).given(idempotencyService)
+                .complete(eq("submit-1"), anyString(), eq(200), anyString(), any());
+
+        mockMvc.perform(patch(Endpoints.FORMS + "/" + taxFormDto.getId() + "/submit")
+                        .header(Headers.IDEMPOTENCY_KEY, "submit-1"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(taxFormDto)));
+
+        then(idempotencyService).should(never()).release(anyString());
+    }
+
+    @Test
+    void testSubmitReplaysResponseOfIdempotencyKey() throws Exception {
+        String body = objectMapper.writeValueAsString(taxFormDto);
+        given(idempotencyService.begin(eq("submit-1"), anyString())).willReturn(Optional.of(new IdempotentResponse(
+                "fingerprint",
+                200,
+                MediaType.APPLICATION_JSON_VALUE,
+                body.getBytes(StandardCharsets.UTF_8),
+                ZonedDateTime.now().plusHours(1)
+        )));
+
+        mockMvc.perform(patch(Endpoints.FORMS + "/" + taxFormDto.getId() + "/submit")
+                        .header(Headers.IDEMPOTENCY_KEY, "submit-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Headers.IDEMPOTENT_REPLAYED, "true"))
+                .andExpect(content().json(body));
+
+        then(taxFormService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void testSubmitHandlesIdempotencyKeyInFlight() throws Exception {
+        given(idempotencyService.begin(eq("submit-1"), anyString()))
+                .willThrow(new TaxFormIdempotencyConflictException("submit-1"));
+
+        mockMvc.perform(patch(Endpoints.FORMS + "/" + taxFormDto.getId() + "/submit")
+                        .header(Headers.IDEMPOTENCY_KEY, "submit-1"))
+                .andExpect(status().isConflict());
+
+        then(taxFormService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void testClaim() throws Exception {
+        given(taxFormService.claim(2024, "reviewer-1", 5)).willReturn(List.of(taxFormDto));
+
+        mockMvc.perform(post(Endpoints.FORMS + "/queue/claim")
+                        .param("year", "2024")
+                        .param("limit", "5")
+                        .header(Headers.REVIEWER, "reviewer-1"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of(taxFormDto))));
+    }
+
+    @Test
+    void testClaimHandlesTooLargeLimit() throws Exception {
+        mockMvc.perform(post(Endpoints.FORMS + "/queue/claim")
+                        .param("year", "2024")
+                        .param("limit", "21")
+                        .header(Headers.REVIEWER, "reviewer-1"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testReturnForm() throws Exception {
-        given(taxFormService.returnForm(taxFormDto.getId())).willReturn(Optional.of(taxFormDto));
+        given(taxFormService.returnForm(taxFormDto.getId(), "reviewer-1")).willReturn(Optional.of(taxFormDto));
 
         mockMvc.perform(patch(Endpoints.FORMS + "/" + taxFormDto.getId() + "/return")
-                        .contentType(MediaType.APPLICATION_JSON))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(Headers.REVIEWER, "reviewer-1"))
                 .andExpect(status().isOk())
                 .andExpect(content().json(objectMapper.writeValueAsString(taxFormDto)));
     }
@@ -134,14 +452,31 @@ public class TaxFormControllerTest extends AbstractControllerTest {
 
     @Test
     void testAccept() throws Exception {
-        given(taxFormService.accept(taxFormDto.getId())).willReturn(Optional.of(taxFormDto));
+        given(taxFormService.accept(taxFormDto.getId(), "reviewer-1")).willReturn(Optional.of(taxFormDto));
 
         mockMvc.perform(patch(Endpoints.FORMS + "/" + taxFormDto.getId() + "/accept")
-                        .contentType(MediaType.APPLICATION_JSON))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(Headers.REVIEWER, "reviewer-1"))
                 .andExpect(status().isOk())
                 .andExpect(content().json(objectMapper.writeValueAsString(taxFormDto)));
     }
 
+    @Test
+    void testAcceptHandlesFormClaimedByOtherReviewer() throws Exception {
+        given(taxFormService.accept(taxFormDto.getId(), "reviewer-2")).willThrow(new TaxFormClaimedException(
+                TaxForm.builder()
+                        .id(taxFormDto.getId())
+                        .claimedBy("reviewer-1")
+                        .claimExpiresAt(ZonedDateTime.now().plusMinutes(10))
+                        .build()
+        ));
+
+        mockMvc.perform(patch(Endpoints.FORMS + "/" + taxFormDto.getId() + "/accept")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(Headers.REVIEWER, "reviewer-2"))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void testAcceptHandlesNotFound() throws Exception {
         mockMvc.perform(patch(Endpoints.FORMS + "/" + taxFormDto.getId() + "/accept")
@@ -0,0 +1,64 @@
+package consulting.reason.tax_forms_api.controller;
+
+import consulting.reason.tax_forms_api.AbstractControllerTest;
+import consulting.reason.tax_forms_api.exception.TaxFormHistoryArchiveException;
+import consulting.reason.tax_forms_api.service.TaxFormHistoryPartitionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(value = TaxFormHistoryPartitionController.class)
+public class TaxFormHistoryPartitionControllerTest extends AbstractControllerTest {
+
+    @Autowired
+    protected MockMvc mockMvc;
+    @MockBean
+    private TaxFormHistoryPartitionService taxFormHistoryPartitionService;
+
+    @Test
+    void testCreateFuturePartitions() throws Exception {
+        List<String> partitions = List.of("tax_form_histories_2026", "tax_form_histories_2027");
+        given(taxFormHistoryPartitionService.createFuturePartitions()).willReturn(partitions);
+
+        mockMvc.perform(post(Endpoints.HISTORY_PARTITIONS))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(partitions)));
+    }
+
+    @Test
+    void testArchive() throws Exception {
+        given(taxFormHistoryPartitionService.archive(2020))
+                .willReturn(Optional.of("tax_form_archive.tax_form_histories_2020"));
+
+        mockMvc.perform(post(Endpoints.HISTORY_PARTITIONS + "/2020/archive"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("tax_form_archive.tax_form_histories_2020"));
+    }
+
+    @Test
+    void testArchiveHandlesNotFound() throws Exception {
+        given(taxFormHistoryPartitionService.archive(2020)).willReturn(Optional.empty());
+
+        mockMvc.perform(post(Endpoints.HISTORY_PARTITIONS + "/2020/archive"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testArchiveHandlesOpenYear() throws Exception {
+        given(taxFormHistoryPartitionService.archive(2026))
+                .willThrow(new TaxFormHistoryArchiveException(2026, 2025));
+
+        mockMvc.perform(post(Endpoints.HISTORY_PARTITIONS + "/2026/archive"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+}
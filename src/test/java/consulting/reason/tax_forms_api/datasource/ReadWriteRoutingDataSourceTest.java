@@ -0,0 +1,122 @@
+package consulting.reason.tax_forms_api.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadWriteRoutingDataSourceTest {
+    private ReadWriteRoutingDataSource routingDataSource;
+    private ReplicaLagGuard replicaLagGuard;
+
+    @BeforeEach
+    void before() {
+        routingDataSource = new ReadWriteRoutingDataSource(
+                new HikariDataSource(),
+                List.of(new HikariDataSource(), new HikariDataSource())
+        );
+
+        TaxFormsApiProperties taxFormsApiProperties = new TaxFormsApiProperties();
+        taxFormsApiProperties.getReadReplicas().setLagWindow(Duration.ofMinutes(1));
+        taxFormsApiProperties.getReadReplicas().setInstances(List.of(new TaxFormsApiProperties.ConnectionPool()));
+        replicaLagGuard = new ReplicaLagGuard(taxFormsApiProperties);
+    }
+
+    @AfterEach
+    void after() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void testWritesRouteToPrimary() {
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    void testReadOnlyRoutesToReplicasInTurn() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo("replica-0");
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo("replica-1");
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo("replica-0");
+    }
+
+    @Test
+    void testRecentWriteRoutesReadsOfWritingSessionToPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        AtomicLong reportedWrite = new AtomicLong();
+
+        replicaLagGuard.start(0, reportedWrite::set);
+        try {
+            assertThat(replicaLagGuard.read(routingDataSource::determineCurrentLookupKey)).isEqualTo("replica-0");
+            replicaLagGuard.recordWrite();
+            assertThat(replicaLagGuard.read(routingDataSource::determineCurrentLookupKey))
+                    .isEqualTo(ReadWriteRoutingDataSource.PRIMARY);
+            assertThat(reportedWrite.get()).isPositive();
+        } finally {
+            replicaLagGuard.stop();
+        }
+
+        replicaLagGuard.start(0, writtenAt -> {
+        });
+        try {
+            assertThat(replicaLagGuard.read(routingDataSource::determineCurrentLookupKey)).isEqualTo("replica-1");
+        } finally {
+            replicaLagGuard.stop();
+        }
+    }
+
+    @Test
+    void testWriteCookiePinsLaterRequestsOfClient() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaLagFilter replicaLagFilter = new ReplicaLagFilter(replicaLagGuard);
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+
+        replicaLagFilter.doFilter(new MockHttpServletRequest(), writeResponse,
+                (request, response) -> replicaLagGuard.recordWrite());
+        Cookie cookie = writeResponse.getCookie(ReplicaLagFilter.COOKIE);
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.getMaxAge()).isEqualTo(60);
+
+        assertThat(readThroughFilter(cookie)).isEqualTo(ReadWriteRoutingDataSource.PRIMARY);
+        assertThat(readThroughFilter(null)).isEqualTo("replica-0");
+        assertThat(readThroughFilter(new Cookie(
+                ReplicaLagFilter.COOKIE,
+                Long.toString(System.currentTimeMillis() - Duration.ofMinutes(2).toMillis())
+        ))).isEqualTo("replica-1");
+    }
+
+    private Object readThroughFilter(Cookie cookie) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        AtomicReference<Object> lookupKey = new AtomicReference<>();
+
+        if (cookie != null) {
+            request.setCookies(cookie);
+        }
+        new ReplicaLagFilter(replicaLagGuard).doFilter(request, new MockHttpServletResponse(),
+                (filteredRequest, response) -> lookupKey.set(
+                        replicaLagGuard.read(routingDataSource::determineCurrentLookupKey)));
+
+        return lookupKey.get();
+    }
+
+    @Test
+    void testNoReplicasRoutesToPrimary() {
+        routingDataSource = new ReadWriteRoutingDataSource(new HikariDataSource(), List.of());
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routingDataSource.determineCurrentLookupKey()).isEqualTo(ReadWriteRoutingDataSource.PRIMARY);
+    }
+}
@@ -0,0 +1,50 @@
+package consulting.reason.tax_forms_api.datasource;
+
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.dto.SlowStatementDto;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class SlowStatementSummaryTest {
+    private static SlowStatementSummary summary(int topStatements, int maxTrackedStatements) {
+        TaxFormsApiProperties taxFormsApiProperties = new TaxFormsApiProperties();
+        taxFormsApiProperties.getSqlLogging().setTopStatements(topStatements);
+        taxFormsApiProperties.getSqlLogging().setMaxTrackedStatements(maxTrackedStatements);
+
+        return new SlowStatementSummary(taxFormsApiProperties);
+    }
+
+    @Test
+    void testRanksStatementsByTotalTime() {
+        SlowStatementSummary slowStatementSummary = summary(2, 10);
+
+        slowStatementSummary.record("select a", 300);
+        slowStatementSummary.record("select b", 250);
+        slowStatementSummary.record("select b", 400);
+        slowStatementSummary.record("select c", 210);
+
+        assertThat(slowStatementSummary.top()).containsExactly(
+                SlowStatementDto.builder().sql("select b").count(2).totalMillis(650).maxMillis(400).build(),
+                SlowStatementDto.builder().sql("select a").count(1).totalMillis(300).maxMillis(300).build()
+        );
+    }
+
+    @Test
+    void testStopsTrackingNewStatementsAtCapacity() {
+        SlowStatementSummary slowStatementSummary = summary(10, 1);
+
+        slowStatementSummary.record("select a", 300);
+        slowStatementSummary.record("select b", 500);
+        slowStatementSummary.record("select a", 200);
+
+        assertThat(slowStatementSummary.top())
+                .extracting(SlowStatementDto::getSql, SlowStatementDto::getCount)
+                .containsExactly(tuple("select a", 2L));
+
+        slowStatementSummary.reset();
+
+        assertThat(slowStatementSummary.top()).isEmpty();
+    }
+}
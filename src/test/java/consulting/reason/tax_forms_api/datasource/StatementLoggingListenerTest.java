@@ -0,0 +1,82 @@
+package consulting.reason.tax_forms_api.datasource;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.dto.SlowStatementDto;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class StatementLoggingListenerTest {
+    private final Logger logger = (Logger) LoggerFactory.getLogger("tax_forms.sql");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private TaxFormsApiProperties taxFormsApiProperties;
+    private SlowStatementSummary slowStatementSummary;
+
+    @BeforeEach
+    void before() {
+        taxFormsApiProperties = new TaxFormsApiProperties();
+        taxFormsApiProperties.getSqlLogging().setThreshold(Duration.ofMillis(100));
+        taxFormsApiProperties.getSqlLogging().setSampleRate(0);
+        slowStatementSummary = new SlowStatementSummary(taxFormsApiProperties);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void after() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void testLogsOnlySlowStatementsWhenNotSampling() {
+        StatementLoggingListener listener = new StatementLoggingListener(taxFormsApiProperties, slowStatementSummary);
+
+        listener.afterQuery(execution(5, 1), List.of(new QueryInfo("update fast")));
+        listener.afterQuery(execution(150, 3), List.of(new QueryInfo("update \"slow\"")));
+        listener.afterQuery(execution(200, mock(ResultSet.class)), List.of(new QueryInfo("select slow")));
+
+        assertThat(appender.list)
+                .extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactly(
+                        "sql duration_ms=150 slow=true params=0 rows=3 statement=\"update 'slow'\"",
+                        "sql duration_ms=200 slow=true params=0 statement=\"select slow\""
+                );
+        assertThat(slowStatementSummary.top())
+                .extracting(SlowStatementDto::getSql)
+                .containsExactly("select slow", "update \"slow\"");
+    }
+
+    @Test
+    void testLogsEveryStatementWhenSamplingAll() {
+        taxFormsApiProperties.getSqlLogging().setSampleRate(1);
+        StatementLoggingListener listener = new StatementLoggingListener(taxFormsApiProperties, slowStatementSummary);
+
+        listener.afterQuery(execution(5, new int[]{1, 2, -2}), List.of(new QueryInfo("insert a")));
+
+        assertThat(appender.list)
+                .extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactly("sql duration_ms=5 slow=false params=0 rows=3 statement=\"insert a\"");
+        assertThat(slowStatementSummary.top()).isEmpty();
+    }
+
+    private static ExecutionInfo execution(long elapsedMillis, Object result) {
+        ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setElapsedTime(elapsedMillis);
+        executionInfo.setResult(result);
+
+        return executionInfo;
+    }
+}
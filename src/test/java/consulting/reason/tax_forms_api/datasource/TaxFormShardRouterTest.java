@@ -0,0 +1,111 @@
+package consulting.reason.tax_forms_api.datasource;
+
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.deadline.RequestDeadline;
+import consulting.reason.tax_forms_api.exception.TaxFormDeadlineExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TaxFormShardRouterTest {
+    private TaxFormsApiProperties taxFormsApiProperties;
+    private TaxFormShardRouter taxFormShardRouter;
+
+    @BeforeEach
+    void before() {
+        taxFormsApiProperties = new TaxFormsApiProperties();
+        taxFormsApiProperties.setShards(List.of(
+                shard("archive", 1, 2020, 2021, 2022),
+                shard("current", 2, 2025)
+        ));
+        taxFormShardRouter = new TaxFormShardRouter(taxFormsApiProperties, new ReplicaLagGuard(taxFormsApiProperties));
+    }
+
+    @Test
+    void testShardForYear() {
+        assertThat(taxFormShardRouter.shardForYear(2021)).isEqualTo("archive");
+        assertThat(taxFormShardRouter.shardForYear(2025)).isEqualTo("current");
+        assertThat(taxFormShardRouter.shardForYear(2024)).isEqualTo(DataSourceRoutingContext.DEFAULT_SHARD);
+    }
+
+    @Test
+    void testShardForId() {
+        assertThat(taxFormShardRouter.shardForId(1)).isEqualTo(DataSourceRoutingContext.DEFAULT_SHARD);
+        assertThat(taxFormShardRouter.shardForId(TaxFormShardRouter.lastId(0)))
+                .isEqualTo(DataSourceRoutingContext.DEFAULT_SHARD);
+        assertThat(taxFormShardRouter.shardForId(TaxFormShardRouter.firstId(1))).isEqualTo("archive");
+        assertThat(taxFormShardRouter.shardForId(TaxFormShardRouter.lastId(1))).isEqualTo("archive");
+        assertThat(taxFormShardRouter.shardForId(TaxFormShardRouter.firstId(2))).isEqualTo("current");
+        assertThat(taxFormShardRouter.shardForId(TaxFormShardRouter.firstId(3)))
+                .isEqualTo(DataSourceRoutingContext.DEFAULT_SHARD);
+    }
+
+    @Test
+    void testIdRanges() {
+        assertThat(TaxFormShardRouter.firstId(0)).isEqualTo(1);
+        assertThat(TaxFormShardRouter.lastId(0)).isEqualTo(67_108_863);
+        assertThat(TaxFormShardRouter.firstId(1)).isEqualTo(67_108_864);
+        assertThat(TaxFormShardRouter.lastId(TaxFormShardRouter.MAX_SHARD_NUMBER)).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void testRefusesWorkAfterRequestDeadline() {
+        RequestDeadline.start(Duration.ofMillis(-1));
+
+        try {
+            assertThatThrownBy(() -> taxFormShardRouter.readForm(1, () -> {
+                throw new AssertionError("Ran after the deadline");
+            })).isInstanceOf(TaxFormDeadlineExceededException.class);
+        } finally {
+            RequestDeadline.stop();
+        }
+    }
+
+    @Test
+    void testRoutesWithinShardContext() {
+        assertThat(taxFormShardRouter.readYear(2020, DataSourceRoutingContext::currentShard)).isEqualTo("archive");
+        assertThat(taxFormShardRouter.readForm(TaxFormShardRouter.firstId(2), DataSourceRoutingContext::currentShard))
+                .isEqualTo("current");
+        assertThat(taxFormShardRouter.writeForm(5, DataSourceRoutingContext::currentShard))
+                .isEqualTo(DataSourceRoutingContext.DEFAULT_SHARD);
+        assertThat(DataSourceRoutingContext.currentShard()).isEqualTo(DataSourceRoutingContext.DEFAULT_SHARD);
+    }
+
+    @Test
+    void testRejectsYearOnTwoShards() {
+        taxFormsApiProperties.setShards(List.of(
+                shard("archive", 1, 2020),
+                shard("current", 2, 2020)
+        ));
+
+        assertThatThrownBy(() -> new TaxFormShardRouter(taxFormsApiProperties, new ReplicaLagGuard(taxFormsApiProperties)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Year 2020 is mapped to shards archive and current");
+    }
+
+    @Test
+    void testRejectsNumberOnTwoShards() {
+        taxFormsApiProperties.setShards(List.of(
+                shard("archive", 1, 2020),
+                shard("current", 1, 2025)
+        ));
+
+        assertThatThrownBy(() -> new TaxFormShardRouter(taxFormsApiProperties, new ReplicaLagGuard(taxFormsApiProperties)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Shards archive and current share number 1");
+    }
+
+    private static TaxFormsApiProperties.Shard shard(String name, int number, Integer... years) {
+        TaxFormsApiProperties.Shard shard = new TaxFormsApiProperties.Shard();
+        shard.setName(name);
+        shard.setNumber(number);
+        shard.setYears(List.of(years));
+
+        return shard;
+    }
+}
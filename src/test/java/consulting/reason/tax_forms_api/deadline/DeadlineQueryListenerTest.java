@@ -0,0 +1,100 @@
+package consulting.reason.tax_forms_api.deadline;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+
+public class DeadlineQueryListenerTest {
+    private final DeadlineQueryListener deadlineQueryListener = new DeadlineQueryListener(false, null);
+    private final DeadlineQueryListener serverTimeoutsListener = new DeadlineQueryListener(true, Duration.ofSeconds(30));
+    private final Statement statement = mock(Statement.class);
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement preparedStatement = mock(PreparedStatement.class);
+
+    @BeforeEach
+    void before() throws Exception {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        given(metaData.getDatabaseProductName()).willReturn("PostgreSQL");
+        given(connection.getMetaData()).willReturn(metaData);
+        given(connection.getAutoCommit()).willReturn(false);
+        given(connection.prepareStatement(anyString())).willReturn(preparedStatement);
+        given(statement.getConnection()).willReturn(connection);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void after() {
+        RequestDeadline.stop();
+        TransactionSynchronizationManager.unbindResourceIfPossible(serverTimeoutsListener);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void testLeavesStatementsOutsideRequestsAlone() throws Exception {
+        deadlineQueryListener.beforeQuery(executionInfo(), List.of());
+
+        then(statement).should(never()).setQueryTimeout(anyInt());
+    }
+
+    @Test
+    void testBoundsStatementByRemainingBudget() throws Exception {
+        RequestDeadline.start(Duration.ofMillis(2500));
+
+        deadlineQueryListener.beforeQuery(executionInfo(), List.of());
+
+        then(statement).should().setQueryTimeout(3);
+    }
+
+    @Test
+    void testBoundsStatementAfterDeadlineByShortestTimeout() throws Exception {
+        RequestDeadline.start(Duration.ofMillis(-1));
+
+        deadlineQueryListener.beforeQuery(executionInfo(), List.of());
+
+        then(statement).should().setQueryTimeout(1);
+    }
+
+    @Test
+    void testSetsServerTimeoutsOnceWhenBelowConnectionDefault() throws Exception {
+        RequestDeadline.start(Duration.ofSeconds(5));
+
+        serverTimeoutsListener.beforeQuery(executionInfo(), List.of());
+        serverTimeoutsListener.beforeQuery(executionInfo(), List.of());
+
+        then(connection).should().prepareStatement(anyString());
+        then(preparedStatement).should().execute();
+    }
+
+    @Test
+    void testSkipsServerTimeoutsWhenConnectionDefaultIsShorter() throws Exception {
+        RequestDeadline.start(Duration.ofSeconds(60));
+
+        serverTimeoutsListener.beforeQuery(executionInfo(), List.of());
+
+        then(statement).should().setQueryTimeout(60);
+        then(connection).should(never()).prepareStatement(anyString());
+    }
+
+    private ExecutionInfo executionInfo() {
+        ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setStatement(statement);
+
+        return executionInfo;
+    }
+}
@@ -0,0 +1,91 @@
+package consulting.reason.tax_forms_api.jfr;
+
+import consulting.reason.tax_forms_api.dto.TaxFormDto;
+import consulting.reason.tax_forms_api.entity.TaxForm;
+import consulting.reason.tax_forms_api.enums.TaxFormStatus;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TaxFormEventsTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRecordsOperationTransition() throws Exception {
+        ProxyFactory proxyFactory = new ProxyFactory(new Operations());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new OperationEventInterceptor());
+        Operations operations = (Operations) proxyFactory.getProxy();
+
+        List<RecordedEvent> events = record("consulting.reason.tax_forms.Operation", () -> operations.submit(7));
+
+        assertThat(events).hasSize(1);
+        RecordedEvent event = events.get(0);
+        assertThat(event.getString("operation")).isEqualTo("submit");
+        assertThat(event.getInt("formId")).isEqualTo(7);
+        assertThat(event.getInt("year")).isEqualTo(2024);
+        assertThat(event.getString("fromStatus")).isEqualTo("IN_PROGRESS");
+        assertThat(event.getString("toStatus")).isEqualTo("SUBMITTED");
+        assertThat(event.getInt("historySize")).isZero();
+        assertThat(event.getInt("forms")).isEqualTo(1);
+    }
+
+    @Test
+    void testRecordsRepositoryCallsOnlyWhenEnabled() throws Exception {
+        ProxyFactory proxyFactory = new ProxyFactory(List.of(1, 2, 3));
+        proxyFactory.addAdvice(new RepositoryEventInterceptor(List.class));
+        List<?> list = (List<?>) proxyFactory.getProxy();
+
+        assertThat(list.subList(0, 2)).hasSize(2);
+
+        List<RecordedEvent> events = record("consulting.reason.tax_forms.Repository", () -> list.subList(0, 2));
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getString("repository")).isEqualTo("List");
+        assertThat(events.get(0).getString("method")).isEqualTo("subList");
+        assertThat(events.get(0).getInt("results")).isEqualTo(2);
+    }
+
+    private List<RecordedEvent> record(String eventName, Runnable runnable) throws Exception {
+        Path file = tempDir.resolve("events.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(eventName).withThreshold(Duration.ZERO);
+            recording.start();
+            runnable.run();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(eventName))
+                .toList();
+    }
+
+    public static class Operations {
+        public Optional<TaxFormDto> submit(Integer id) {
+            TaxFormOperationEvent.found(Optional.of(TaxForm.builder()
+                    .id(id)
+                    .formYear(2024)
+                    .status(TaxFormStatus.IN_PROGRESS)
+                    .build()));
+
+            return Optional.of(TaxFormDto.builder()
+                    .id(id)
+                    .status(TaxFormStatus.SUBMITTED)
+                    .history(List.of())
+                    .build());
+        }
+    }
+}
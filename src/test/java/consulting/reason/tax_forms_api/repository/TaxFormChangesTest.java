@@ -0,0 +1,101 @@
+package consulting.reason.tax_forms_api.repository;
+
+import consulting.reason.tax_forms_api.AbstractPostgresTest;
+import consulting.reason.tax_forms_api.entity.TaxForm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TaxFormChangesTest extends AbstractPostgresTest {
+    private static final int YEAR = 2031;
+
+    @Autowired
+    private TaxFormRepository taxFormRepository;
+    @Autowired
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void before() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void after() {
+        jdbcTemplate.update("DELETE FROM tax_forms WHERE form_year = ?", YEAR);
+    }
+
+    @Test
+    void testClaimOnlyUpdateKeepsChangeSeq() {
+        Integer id = insert("Claimed Form");
+        long inserted = changeSeq(id);
+
+        jdbcTemplate.update("""
+                UPDATE tax_forms
+                SET claimed_by = 'reviewer-1', claim_expires_at = now() + INTERVAL '5 minutes', updated_at = now()
+                WHERE id = ?
+                """, id);
+        assertThat(changeSeq(id)).isEqualTo(inserted);
+
+        jdbcTemplate.update("UPDATE tax_forms SET form_name = 'Renamed Form', updated_at = now() WHERE id = ?", id);
+        assertThat(changeSeq(id)).isGreaterThan(inserted);
+    }
+
+    @Test
+    void testChangesStopBelowInFlightTransaction() throws Exception {
+        Integer first = insert("First Form");
+        Integer second = insert("Second Form");
+        long since = changeSeq(first) - 1;
+
+        try (Connection writer = dataSource.getConnection()) {
+            writer.setAutoCommit(false);
+            try (PreparedStatement statement = writer.prepareStatement(
+                    "UPDATE tax_forms SET form_name = 'First Form Renamed' WHERE id = ?")) {
+                statement.setInt(1, first);
+                statement.executeUpdate();
+            }
+            jdbcTemplate.update("UPDATE tax_forms SET form_name = 'Second Form Renamed' WHERE id = ?", second);
+
+            assertThat(changes(since))
+                    .extracting(TaxForm::getId, TaxForm::getFormName)
+                    .containsExactly(tuple(first, "First Form"));
+
+            writer.commit();
+        }
+
+        assertThat(changes(since))
+                .extracting(TaxForm::getId)
+                .containsExactly(first, second);
+    }
+
+    private List<TaxForm> changes(long since) {
+        return taxFormRepository.findChanges(YEAR, since, taxFormRepository.findChangeWatermark(), Limit.of(10));
+    }
+
+    private Integer insert(String formName) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO tax_forms (form_name, form_year) VALUES (?, ?) RETURNING id",
+                Integer.class,
+                formName,
+                YEAR
+        );
+    }
+
+    private long changeSeq(Integer id) {
+        return jdbcTemplate.queryForObject("SELECT change_seq FROM tax_forms WHERE id = ?", Long.class, id);
+    }
+}
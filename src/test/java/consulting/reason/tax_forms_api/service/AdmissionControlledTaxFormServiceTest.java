@@ -0,0 +1,107 @@
+package consulting.reason.tax_forms_api.service;
+
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.dto.TaxFormDto;
+import consulting.reason.tax_forms_api.dto.request.TaxFormDetailsRequest;
+import consulting.reason.tax_forms_api.exception.TaxFormOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+
+public class AdmissionControlledTaxFormServiceTest {
+    private static final Integer ID = 1;
+    private static final TaxFormDetailsRequest DETAILS = TaxFormDetailsRequest.builder()
+            .assessedValue(1)
+            .build();
+
+    private final CoalescingTaxFormService coalescingTaxFormService = mock(CoalescingTaxFormService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TaxFormsApiProperties taxFormsApiProperties;
+    private AdmissionControlledTaxFormService admissionControlledTaxFormService;
+
+    @BeforeEach
+    void before() {
+        taxFormsApiProperties = new TaxFormsApiProperties();
+        taxFormsApiProperties.getAdmissionControl().setRetryAfter(Duration.ofSeconds(3));
+        for (TaxFormsApiProperties.ConcurrencyLimit concurrencyLimit : List.of(
+                taxFormsApiProperties.getAdmissionControl().getReads(),
+                taxFormsApiProperties.getAdmissionControl().getBulkReads(),
+                taxFormsApiProperties.getAdmissionControl().getWrites())) {
+            concurrencyLimit.setInitialLimit(1);
+            concurrencyLimit.setMinLimit(1);
+        }
+        admissionControlledTaxFormService = admissionControlledTaxFormService();
+    }
+
+    @Test
+    void testRejectsReadOverTheLimitWithRetryAfter() {
+        given(coalescingTaxFormService.findById(ID))
+                .willAnswer(invocation -> admissionControlledTaxFormService.findById(2));
+
+        assertThatThrownBy(() -> admissionControlledTaxFormService.findById(ID))
+                .isInstanceOfSatisfying(TaxFormOverloadedException.class, e -> {
+                    assertThat(e.getStatusCode().value()).isEqualTo(503);
+                    assertThat(e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+                });
+        assertThat(meterRegistry.get("tax_forms.admission.rejections")
+                .tag("pool", "reads")
+                .counter()
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void testAutosaveIsAdmittedAsRead() {
+        given(coalescingTaxFormService.findById(ID)).willAnswer(invocation -> {
+            admissionControlledTaxFormService.autosave(ID, DETAILS);
+            return Optional.empty();
+        });
+
+        assertThatThrownBy(() -> admissionControlledTaxFormService.findById(ID))
+                .isInstanceOf(TaxFormOverloadedException.class);
+        then(coalescingTaxFormService).should(never()).autosave(ID, DETAILS);
+
+        admissionControlledTaxFormService.autosave(ID, DETAILS);
+
+        then(coalescingTaxFormService).should().autosave(ID, DETAILS);
+    }
+
+    @Test
+    void testBulkReadsDoNotTakeFromTheReadLimit() {
+        given(coalescingTaxFormService.findAllByYear(2024)).willAnswer(invocation ->
+                admissionControlledTaxFormService.findById(ID).stream().toList());
+        given(coalescingTaxFormService.findById(ID)).willReturn(Optional.of(TaxFormDto.builder().id(ID).build()));
+
+        assertThat(admissionControlledTaxFormService.findAllByYear(2024)).hasSize(1);
+    }
+
+    @Test
+    void testDisabledAdmissionControlPassesCallsThrough() {
+        taxFormsApiProperties.getAdmissionControl().setEnabled(false);
+        admissionControlledTaxFormService = admissionControlledTaxFormService();
+        willAnswer(invocation -> {
+            admissionControlledTaxFormService.autosave(2, DETAILS);
+            return null;
+        }).given(coalescingTaxFormService).autosave(ID, DETAILS);
+
+        admissionControlledTaxFormService.autosave(ID, DETAILS);
+
+        then(coalescingTaxFormService).should().autosave(2, DETAILS);
+    }
+
+    private AdmissionControlledTaxFormService admissionControlledTaxFormService() {
+        return new AdmissionControlledTaxFormService(coalescingTaxFormService, taxFormsApiProperties, meterRegistry);
+    }
+}
@@ -0,0 +1,144 @@
+package consulting.reason.tax_forms_api.service;
+
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.datasource.ReplicaLagGuard;
+import consulting.reason.tax_forms_api.dto.TaxFormDto;
+import consulting.reason.tax_forms_api.dto.request.TaxFormDetailsRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+
+public class CoalescingTaxFormServiceTest {
+    private static final Integer ID = 1;
+
+    private final TaxFormServiceImpl taxFormServiceImpl = mock(TaxFormServiceImpl.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch loading = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private TaxFormsApiProperties taxFormsApiProperties;
+    private ReplicaLagGuard replicaLagGuard;
+    private CoalescingTaxFormService coalescingTaxFormService;
+
+    @BeforeEach
+    void before() {
+        taxFormsApiProperties = new TaxFormsApiProperties();
+        taxFormsApiProperties.getReadReplicas().setInstances(List.of(new TaxFormsApiProperties.ConnectionPool()));
+        replicaLagGuard = new ReplicaLagGuard(taxFormsApiProperties);
+        coalescingTaxFormService = new CoalescingTaxFormService(
+                taxFormServiceImpl,
+                replicaLagGuard,
+                taxFormsApiProperties,
+                meterRegistry
+        );
+        given(taxFormServiceImpl.findById(ID)).willAnswer(invocation -> blockingLoad());
+    }
+
+    @AfterEach
+    void after() {
+        release.countDown();
+        replicaLagGuard.stop();
+    }
+
+    @Test
+    void testConcurrentReadsOfFormShareOneLoad() throws Exception {
+        CompletableFuture<Optional<TaxFormDto>> leader = readAsync();
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Optional<TaxFormDto>> waiter = readAsync();
+        awaitCollapsed();
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(waiter.get(5, TimeUnit.SECONDS));
+        then(taxFormServiceImpl).should(times(1)).findById(ID);
+    }
+
+    @Test
+    void testPinnedReadDoesNotJoinReadOfOtherClient() throws Exception {
+        CompletableFuture<Optional<TaxFormDto>> other = readAsync();
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        willReturn(Optional.of(taxFormDto("after write"))).given(taxFormServiceImpl).findById(ID);
+
+        replicaLagGuard.start(System.currentTimeMillis(), writtenAt -> {
+        });
+
+        assertThat(coalescingTaxFormService.findById(ID)).contains(taxFormDto("after write"));
+        assertThat(other).isNotDone();
+        release.countDown();
+        assertThat(other.get(5, TimeUnit.SECONDS)).contains(taxFormDto("loaded 1"));
+    }
+
+    @Test
+    void testWriteDropsInFlightRead() throws Exception {
+        TaxFormDetailsRequest taxFormDetailsRequest = TaxFormDetailsRequest.builder().assessedValue(1).build();
+        given(taxFormServiceImpl.save(ID, taxFormDetailsRequest)).willReturn(Optional.of(taxFormDto("saved")));
+
+        CompletableFuture<Optional<TaxFormDto>> before = readAsync();
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        coalescingTaxFormService.save(ID, taxFormDetailsRequest);
+        willReturn(Optional.of(taxFormDto("after write"))).given(taxFormServiceImpl).findById(ID);
+
+        assertThat(coalescingTaxFormService.findById(ID)).contains(taxFormDto("after write"));
+        release.countDown();
+        assertThat(before.get(5, TimeUnit.SECONDS)).contains(taxFormDto("loaded 1"));
+    }
+
+    @Test
+    void testDisabledCoalescingPassesReadsThrough() {
+        taxFormsApiProperties.getReadCoalescing().setEnabled(false);
+        coalescingTaxFormService = new CoalescingTaxFormService(
+                taxFormServiceImpl,
+                replicaLagGuard,
+                taxFormsApiProperties,
+                meterRegistry
+        );
+        given(taxFormServiceImpl.findAllByYear(2024)).willReturn(List.of(taxFormDto("listed")));
+
+        assertThat(coalescingTaxFormService.findAllByYear(2024)).containsExactly(taxFormDto("listed"));
+        assertThat(meterRegistry.find("tax_forms.single_flight.calls").counters())
+                .allSatisfy(counter -> assertThat(counter.count()).isZero());
+    }
+
+    private CompletableFuture<Optional<TaxFormDto>> readAsync() {
+        return CompletableFuture.supplyAsync(() -> coalescingTaxFormService.findById(ID));
+    }
+
+    private Optional<TaxFormDto> blockingLoad() throws InterruptedException {
+        loading.countDown();
+        release.await(5, TimeUnit.SECONDS);
+
+        return Optional.of(taxFormDto("loaded " + loads.incrementAndGet()));
+    }
+
+    private void awaitCollapsed() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (meterRegistry.find("tax_forms.single_flight.calls").tag("outcome", "collapsed").counters().isEmpty()
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static TaxFormDto taxFormDto(String formName) {
+        return TaxFormDto.builder()
+                .id(ID)
+                .formName(formName)
+                .formYear(2024)
+                .build();
+    }
+}
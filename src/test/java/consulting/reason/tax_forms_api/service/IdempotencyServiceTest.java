@@ -0,0 +1,114 @@
+package consulting.reason.tax_forms_api.service;
+
+import consulting.reason.tax_forms_api.AbstractServiceTest;
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.exception.TaxFormIdempotencyConflictException;
+import consulting.reason.tax_forms_api.exception.TaxFormIdempotencyMismatchException;
+import consulting.reason.tax_forms_api.idempotency.IdempotentResponse;
+import consulting.reason.tax_forms_api.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class IdempotencyServiceTest extends AbstractServiceTest {
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    private TaxFormsApiProperties taxFormsApiProperties;
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void before() {
+        taxFormsApiProperties = new TaxFormsApiProperties();
+        idempotencyService = newNode();
+    }
+
+    @AfterEach
+    void after() {
+        idempotencyKeyRepository.deleteAll();
+    }
+
+    @Test
+    void testReplaysCompletedResponseOnEveryNode() {
+        byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(idempotencyService.begin("key-1", "fingerprint")).isEmpty();
+        assertThatThrownBy(() -> newNode().begin("key-1", "fingerprint"))
+                .isInstanceOf(TaxFormIdempotencyConflictException.class);
+        assertThatThrownBy(() -> idempotencyService.begin("key-1", "fingerprint"))
+                .isInstanceOf(TaxFormIdempotencyConflictException.class);
+
+        idempotencyService.complete("key-1", "fingerprint", 200, "application/json", body);
+
+        for (IdempotencyService node : new IdempotencyService[]{idempotencyService, newNode()}) {
+            IdempotentResponse response = node.begin("key-1", "fingerprint").orElseThrow();
+
+            assertThat(response.status()).isEqualTo(200);
+            assertThat(response.contentType()).isEqualTo("application/json");
+            assertThat(response.body()).isEqualTo(body);
+        }
+    }
+
+    @Test
+    void testRejectsKeyReusedForDifferentRequest() {
+        assertThat(idempotencyService.begin("key-1", "fingerprint")).isEmpty();
+        idempotencyService.complete("key-1", "fingerprint", 200, null, new byte[0]);
+
+        assertThatThrownBy(() -> idempotencyService.begin("key-1", "other"))
+                .isInstanceOf(TaxFormIdempotencyMismatchException.class);
+        assertThatThrownBy(() -> newNode().begin("key-1", "other"))
+                .isInstanceOf(TaxFormIdempotencyMismatchException.class);
+    }
+
+    @Test
+    void testReleasedKeyRunsAgain() {
+        assertThat(idempotencyService.begin("key-1", "fingerprint")).isEmpty();
+
+        idempotencyService.release("key-1");
+
+        assertThat(newNode().begin("key-1", "fingerprint")).isEmpty();
+    }
+
+    @Test
+    void testInFlightKeyIsTakenOverAfterLease() {
+        taxFormsApiProperties.getIdempotency().setInFlightLease(Duration.ofSeconds(-1));
+        taxFormsApiProperties.getDeadlines().setEnabled(false);
+        IdempotencyService otherNode = newNode();
+
+        assertThat(idempotencyService.begin("key-1", "fingerprint")).isEmpty();
+        assertThat(otherNode.begin("key-1", "fingerprint")).isEmpty();
+
+        idempotencyService.complete("key-1", "fingerprint", 200, null, new byte[0]);
+        assertThat(idempotencyKeyRepository.findById("key-1").orElseThrow().getStatus()).isNull();
+
+        otherNode.complete("key-1", "fingerprint", 201, null, new byte[0]);
+        assertThat(idempotencyKeyRepository.findById("key-1").orElseThrow().getStatus()).isEqualTo(201);
+    }
+
+    @Test
+    void testExpiredKeyRunsAgainAndIsPurged() {
+        taxFormsApiProperties.getIdempotency().setTtl(Duration.ofSeconds(-1));
+
+        assertThat(idempotencyService.begin("key-1", "fingerprint")).isEmpty();
+        idempotencyService.complete("key-1", "fingerprint", 200, null, new byte[0]);
+        assertThat(idempotencyService.begin("key-1", "fingerprint")).isEmpty();
+        assertThat(idempotencyService.purgeExpired()).isEqualTo(1);
+        assertThat(idempotencyKeyRepository.count()).isZero();
+    }
+
+    private IdempotencyService newNode() {
+        return new IdempotencyServiceImpl(idempotencyKeyRepository, transactionManager, taxFormsApiProperties);
+    }
+}
@@ -0,0 +1,126 @@
+package consulting.reason.tax_forms_api.service;
+
+import consulting.reason.tax_forms_api.AbstractServiceTest;
+import consulting.reason.tax_forms_api.analytics.TaxFormYearSnapshotCache;
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.datasource.ReplicaLagGuard;
+import consulting.reason.tax_forms_api.datasource.TaxFormShardRouter;
+import consulting.reason.tax_forms_api.dto.TaxFormDetailsDto;
+import consulting.reason.tax_forms_api.dto.TaxFormHistogramDto;
+import consulting.reason.tax_forms_api.dto.TaxFormPercentilesDto;
+import consulting.reason.tax_forms_api.dto.request.TaxFormDetailsRequest;
+import consulting.reason.tax_forms_api.entity.TaxForm;
+import consulting.reason.tax_forms_api.enums.TaxFormStatus;
+import consulting.reason.tax_forms_api.repository.TaxFormHistoryRepository;
+import consulting.reason.tax_forms_api.repository.TaxFormRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TaxFormAnalyticsServiceTest extends AbstractServiceTest {
+    @Autowired
+    private TaxFormRepository taxFormRepository;
+    @Autowired
+    private TaxFormHistoryRepository taxFormHistoryRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    private TaxFormAnalyticsService taxFormAnalyticsService;
+    private TaxFormServiceImpl taxFormService;
+    private TaxForm taxForm;
+
+    @BeforeEach
+    void before() {
+        TaxFormsApiProperties taxFormsApiProperties = new TaxFormsApiProperties();
+        TaxFormShardRouter taxFormShardRouter = new TaxFormShardRouter(
+                taxFormsApiProperties,
+                new ReplicaLagGuard(taxFormsApiProperties)
+        );
+        TaxFormYearSnapshotCache taxFormYearSnapshotCache = new TaxFormYearSnapshotCache();
+        taxFormAnalyticsService = new TaxFormAnalyticsServiceImpl(
+                taxFormRepository,
+                taxFormShardRouter,
+                taxFormYearSnapshotCache,
+                transactionManager,
+                taxFormsApiProperties,
+                new SimpleMeterRegistry()
+        );
+        taxFormService = new TaxFormServiceImpl(
+                taxFormRepository,
+                taxFormHistoryRepository,
+                modelMapper,
+                taxFormShardRouter,
+                new TaxFormAutosaveBuffer(new SimpleMeterRegistry()),
+                taxFormsApiProperties,
+                taxFormYearSnapshotCache,
+                transactionTemplate
+        );
+
+        taxForm = taxFormRepository.save(TaxForm.builder()
+                .formName("Analytics Form 1")
+                .formYear(2024)
+                .status(TaxFormStatus.IN_PROGRESS)
+                .details(TaxFormDetailsDto.builder().assessedValue(100).ratio(0.25).build())
+                .build());
+        taxFormRepository.save(TaxForm.builder()
+                .formName("Analytics Form 2")
+                .formYear(2024)
+                .status(TaxFormStatus.ACCEPTED)
+                .details(TaxFormDetailsDto.builder().assessedValue(300).ratio(0.75).build())
+                .build());
+        taxFormRepository.save(TaxForm.builder()
+                .formName("Analytics Form 3")
+                .formYear(2025)
+                .status(TaxFormStatus.NOT_STARTED)
+                .build());
+    }
+
+    @Test
+    void testHistogramAndPercentiles() {
+        TaxFormHistogramDto histogram = taxFormAnalyticsService.assessedValueHistogram(2024, 2);
+        TaxFormPercentilesDto percentiles = taxFormAnalyticsService.ratioPercentiles(2024, null, List.of(50.0, 99.9));
+
+        assertThat(taxFormAnalyticsService.snapshot(2024).getForms()).isEqualTo(2);
+        assertThat(histogram.getMin()).isEqualTo(100);
+        assertThat(histogram.getMax()).isEqualTo(300);
+        assertThat(histogram.getCounts().get(TaxFormStatus.IN_PROGRESS)).containsExactly(1, 0);
+        assertThat(histogram.getCounts().get(TaxFormStatus.ACCEPTED)).containsExactly(0, 1);
+        assertThat(percentiles.getCount()).isEqualTo(2);
+        assertThat(percentiles.getPercentiles()).containsEntry("p50", 0.25).containsEntry("p99.9", 0.75);
+    }
+
+    @Test
+    void testSnapshotIsInvalidatedBySaveOfItsYear() {
+        assertThat(taxFormAnalyticsService.ratioPercentiles(2024, TaxFormStatus.IN_PROGRESS, List.of(50.0))
+                .getPercentiles()).containsEntry("p50", 0.25);
+
+        taxFormService.save(taxForm.getId(), TaxFormDetailsRequest.builder()
+                .assessedValue(200)
+                .ratio(0.5)
+                .build());
+
+        assertThat(taxFormAnalyticsService.ratioPercentiles(2024, TaxFormStatus.IN_PROGRESS, List.of(50.0))
+                .getPercentiles()).containsEntry("p50", 0.5);
+    }
+
+    @Test
+    void testSnapshotIsRebuiltAfterWriteOfOtherNode() {
+        assertThat(taxFormAnalyticsService.ratioPercentiles(2024, TaxFormStatus.IN_PROGRESS, List.of(50.0))
+                .getPercentiles()).containsEntry("p50", 0.25);
+
+        taxForm.setDetails(TaxFormDetailsDto.builder().assessedValue(200).ratio(0.5).build());
+        taxForm.setChangeSeq(1L);
+        taxFormRepository.saveAndFlush(taxForm);
+
+        assertThat(taxFormAnalyticsService.ratioPercentiles(2024, TaxFormStatus.IN_PROGRESS, List.of(50.0))
+                .getPercentiles()).containsEntry("p50", 0.5);
+    }
+}
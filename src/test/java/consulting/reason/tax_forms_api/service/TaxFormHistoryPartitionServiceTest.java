@@ -0,0 +1,92 @@
+package consulting.reason.tax_forms_api.service;
+
+import consulting.reason.tax_forms_api.AbstractPostgresTest;
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.entity.TaxForm;
+import consulting.reason.tax_forms_api.entity.TaxFormHistory;
+import consulting.reason.tax_forms_api.enums.TaxFormHistoryStatus;
+import consulting.reason.tax_forms_api.enums.TaxFormStatus;
+import consulting.reason.tax_forms_api.repository.TaxFormHistoryRepository;
+import consulting.reason.tax_forms_api.repository.TaxFormRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Year;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TaxFormHistoryPartitionServiceTest extends AbstractPostgresTest {
+    private static final int CLOSED_YEAR = 2015;
+
+    @Autowired
+    private TaxFormRepository taxFormRepository;
+    @Autowired
+    private TaxFormHistoryRepository taxFormHistoryRepository;
+    @Autowired
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TaxFormHistoryPartitionService taxFormHistoryPartitionService;
+
+    @BeforeEach
+    void before() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        taxFormHistoryPartitionService = new TaxFormHistoryPartitionServiceImpl(
+                jdbcTemplate,
+                new TaxFormsApiProperties()
+        );
+    }
+
+    @Test
+    void testArchiveMovesHistoryOfYearIntoArchiveSchema() {
+        TaxForm taxForm = submittedForm(CLOSED_YEAR);
+
+        assertThat(taxFormHistoryPartitionService.archive(CLOSED_YEAR))
+                .contains("tax_form_archive.tax_form_histories_" + CLOSED_YEAR);
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT type FROM tax_form_archive.tax_form_histories_" + CLOSED_YEAR + " WHERE tax_form_id = ?",
+                String.class,
+                taxForm.getId()
+        )).isEqualTo(TaxFormHistoryStatus.SUBMITTED.name());
+        assertThat(taxFormHistoryRepository.findRecent(taxForm.getId(), CLOSED_YEAR, Limit.unlimited())).isEmpty();
+    }
+
+    @Test
+    void testArchiveOfYearWithoutHistoryFindsNothing() {
+        assertThat(taxFormHistoryPartitionService.archive(CLOSED_YEAR - 1)).isEmpty();
+    }
+
+    @Test
+    void testHistoryOfFormIsReadFromPartitionOfItsYear() {
+        int year = Year.now(ZoneOffset.UTC).getValue();
+        TaxForm taxForm = submittedForm(year);
+
+        assertThat(taxFormHistoryRepository.findRecent(taxForm.getId(), year, Limit.unlimited()))
+                .extracting(TaxFormHistory::getType)
+                .containsExactly(TaxFormHistoryStatus.SUBMITTED);
+        assertThat(String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM tax_form_histories WHERE tax_form_id = " + taxForm.getId()
+                        + " AND form_year = " + year,
+                String.class
+        )))
+                .contains("tax_form_histories_" + year)
+                .doesNotContain("tax_form_histories_default")
+                .doesNotContain("tax_form_histories_" + (year + 1));
+    }
+
+    private TaxForm submittedForm(int year) {
+        TaxForm taxForm = TaxForm.builder()
+                .formName("Partitioned Form " + year)
+                .formYear(year)
+                .status(TaxFormStatus.SUBMITTED)
+                .build();
+        taxForm.addHistory(TaxFormHistory.builder().type(TaxFormHistoryStatus.SUBMITTED).build());
+
+        return taxFormRepository.saveAndFlush(taxForm);
+    }
+}
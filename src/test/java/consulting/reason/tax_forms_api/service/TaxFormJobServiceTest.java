@@ -0,0 +1,314 @@
+package consulting.reason.tax_forms_api.service;
+
+import consulting.reason.tax_forms_api.AbstractServiceTest;
+import consulting.reason.tax_forms_api.analytics.TaxFormYearSnapshotCache;
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.datasource.ReplicaLagGuard;
+import consulting.reason.tax_forms_api.datasource.TaxFormShardRouter;
+import consulting.reason.tax_forms_api.dto.TaxFormJobDto;
+import consulting.reason.tax_forms_api.dto.request.TaxFormJobRequest;
+import consulting.reason.tax_forms_api.entity.TaxForm;
+import consulting.reason.tax_forms_api.entity.TaxFormJob;
+import consulting.reason.tax_forms_api.entity.TaxFormJobChunk;
+import consulting.reason.tax_forms_api.enums.TaxFormHistoryStatus;
+import consulting.reason.tax_forms_api.enums.TaxFormJobChunkStatus;
+import consulting.reason.tax_forms_api.enums.TaxFormJobStatus;
+import consulting.reason.tax_forms_api.enums.TaxFormJobType;
+import consulting.reason.tax_forms_api.enums.TaxFormStatus;
+import consulting.reason.tax_forms_api.exception.TaxFormJobNotFoundException;
+import consulting.reason.tax_forms_api.exception.TaxFormJobStateException;
+import consulting.reason.tax_forms_api.jobs.FlagNotStartedProcessor;
+import consulting.reason.tax_forms_api.jobs.ReturnStaleSubmittedProcessor;
+import consulting.reason.tax_forms_api.jobs.TaxFormJobRunner;
+import consulting.reason.tax_forms_api.repository.TaxFormHistoryRepository;
+import consulting.reason.tax_forms_api.repository.TaxFormJobChunkRepository;
+import consulting.reason.tax_forms_api.repository.TaxFormJobRepository;
+import consulting.reason.tax_forms_api.repository.TaxFormRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TaxFormJobServiceTest extends AbstractServiceTest {
+    private static final ZonedDateTime CUTOFF = ZonedDateTime.now().minusDays(30);
+
+    @Autowired
+    private TaxFormRepository taxFormRepository;
+    @Autowired
+    private TaxFormHistoryRepository taxFormHistoryRepository;
+    @Autowired
+    private TaxFormJobRepository taxFormJobRepository;
+    @Autowired
+    private TaxFormJobChunkRepository taxFormJobChunkRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    private TaxFormJobRunner taxFormJobRunner;
+    private TaxFormJobService taxFormJobService;
+
+    @BeforeEach
+    void before() {
+        TaxFormsApiProperties taxFormsApiProperties = new TaxFormsApiProperties();
+        taxFormsApiProperties.getJobs().setChunkSize(2);
+        taxFormsApiProperties.getJobs().setPauseBetweenChunks(Duration.ZERO);
+        TaxFormShardRouter taxFormShardRouter = new TaxFormShardRouter(
+                taxFormsApiProperties,
+                new ReplicaLagGuard(taxFormsApiProperties)
+        );
+
+        taxFormJobRunner = new TaxFormJobRunner(
+                taxFormRepository,
+                taxFormJobRepository,
+                taxFormJobChunkRepository,
+                taxFormShardRouter,
+                new TaxFormYearSnapshotCache(),
+                transactionManager,
+                taxFormsApiProperties,
+                List.of(
+                        new ReturnStaleSubmittedProcessor(taxFormRepository),
+                        new FlagNotStartedProcessor(taxFormRepository)
+                )
+        );
+        taxFormJobService = new TaxFormJobServiceImpl(
+                taxFormJobRepository,
+                taxFormJobChunkRepository,
+                taxFormJobRunner,
+                taxFormShardRouter,
+                taxFormsApiProperties,
+                transactionManager
+        );
+    }
+
+    @AfterEach
+    void after() {
+        taxFormJobRunner.destroy();
+        taxFormJobChunkRepository.deleteAll();
+        taxFormJobRepository.deleteAll();
+        taxFormHistoryRepository.deleteAll();
+        taxFormRepository.deleteAll();
+    }
+
+    @Test
+    void testReturnsStaleSubmittedForms() throws InterruptedException {
+        List<TaxForm> stale = List.of(
+                save(2024, TaxFormStatus.SUBMITTED, CUTOFF.minusDays(1)),
+                save(2024, TaxFormStatus.SUBMITTED, CUTOFF.minusDays(2)),
+                save(2024, TaxFormStatus.SUBMITTED, CUTOFF.minusDays(3))
+        );
+        TaxForm recent = save(2024, TaxFormStatus.SUBMITTED, CUTOFF.plusDays(1));
+        TaxForm accepted = save(2024, TaxFormStatus.ACCEPTED, CUTOFF.minusDays(1));
+        TaxForm otherYear = save(2023, TaxFormStatus.SUBMITTED, CUTOFF.minusDays(1));
+
+        TaxFormJobDto started = taxFormJobService.start(request(TaxFormJobType.RETURN_STALE_SUBMITTED));
+        TaxFormJobDto finished = awaitFinished(started);
+
+        assertThat(finished.getStatus()).isEqualTo(TaxFormJobStatus.COMPLETED);
+        assertThat(finished.getChunks()).isEqualTo(3);
+        assertThat(finished.getChunksDone()).isEqualTo(3);
+        assertThat(finished.getFormsUpdated()).isEqualTo(3);
+        assertThat(finished.getFinishedAt()).isNotNull();
+        for (TaxForm taxForm : stale) {
+            assertThat(taxFormRepository.findById(taxForm.getId()).orElseThrow().getStatus())
+                    .isEqualTo(TaxFormStatus.RETURNED);
+        }
+        assertThat(taxFormRepository.findById(recent.getId()).orElseThrow().getStatus())
+                .isEqualTo(TaxFormStatus.SUBMITTED);
+        assertThat(taxFormRepository.findById(accepted.getId()).orElseThrow().getStatus())
+                .isEqualTo(TaxFormStatus.ACCEPTED);
+        assertThat(taxFormRepository.findById(otherYear.getId()).orElseThrow().getStatus())
+                .isEqualTo(TaxFormStatus.SUBMITTED);
+        assertThat(taxFormHistoryRepository.findAll())
+                .hasSize(3)
+                .allSatisfy(history -> assertThat(history.getType()).isEqualTo(TaxFormHistoryStatus.RETURNED));
+    }
+
+    @Test
+    void testResumesFromCheckpoint() throws InterruptedException {
+        TaxForm done = save(2024, TaxFormStatus.NOT_STARTED, null);
+        TaxForm pending = save(2024, TaxFormStatus.NOT_STARTED, null);
+        TaxForm unplanned = save(2024, TaxFormStatus.NOT_STARTED, null);
+        TaxFormJob job = taxFormJobRepository.save(TaxFormJob.builder()
+                .type(TaxFormJobType.FLAG_NOT_STARTED)
+                .formYear(2024)
+                .status(TaxFormJobStatus.FAILED)
+                .cutoff(ZonedDateTime.now().plusDays(1))
+                .chunkSize(1)
+                .nextId(pending.getId())
+                .error("Connection reset")
+                .build());
+        taxFormJobChunkRepository.save(chunk(job, done, TaxFormJobChunkStatus.DONE));
+        taxFormJobChunkRepository.save(chunk(job, pending, TaxFormJobChunkStatus.PENDING));
+
+        TaxFormJobDto finished = awaitFinished(taxFormJobService.resume(2024, job.getId()));
+
+        assertThat(finished.getStatus()).isEqualTo(TaxFormJobStatus.COMPLETED);
+        assertThat(finished.getError()).isNull();
+        assertThat(finished.getChunks()).isEqualTo(3);
+        assertThat(finished.getFormsUpdated()).isEqualTo(2);
+        assertThat(finished.getNextId()).isEqualTo(unplanned.getId());
+        assertThat(taxFormRepository.findById(done.getId()).orElseThrow().getFlaggedAt()).isNull();
+        assertThat(taxFormRepository.findById(pending.getId()).orElseThrow().getFlaggedAt()).isNotNull();
+        assertThat(taxFormRepository.findById(unplanned.getId()).orElseThrow().getFlaggedAt()).isNotNull();
+
+        assertThatThrownBy(() -> taxFormJobService.resume(2024, job.getId()))
+                .isInstanceOf(TaxFormJobStateException.class);
+        assertThatThrownBy(() -> taxFormJobService.cancel(2024, job.getId()))
+                .isInstanceOf(TaxFormJobStateException.class);
+    }
+
+    @Test
+    void testCancelsJobNotRunningOnThisNode() {
+        TaxFormJob job = taxFormJobRepository.save(TaxFormJob.builder()
+                .type(TaxFormJobType.FLAG_NOT_STARTED)
+                .formYear(2024)
+                .status(TaxFormJobStatus.RUNNING)
+                .cutoff(CUTOFF)
+                .chunkSize(2)
+                .nextId(0)
+                .build());
+
+        assertThat(taxFormJobService.cancel(2024, job.getId()).getStatus()).isEqualTo(TaxFormJobStatus.CANCELLED);
+        assertThat(taxFormJobRepository.findById(job.getId()).orElseThrow().getFinishedAt()).isNotNull();
+        assertThatThrownBy(() -> taxFormJobService.cancel(2023, job.getId()))
+                .isInstanceOf(TaxFormJobNotFoundException.class);
+    }
+
+    @Test
+    void testResumesOnlyAfterLeaseOfOwnerLapsed() throws InterruptedException {
+        save(2024, TaxFormStatus.NOT_STARTED, null);
+        TaxFormJob job = taxFormJobRepository.save(running("other-node", ZonedDateTime.now().plusHours(1)));
+
+        assertThatThrownBy(() -> taxFormJobService.resume(2024, job.getId()))
+                .isInstanceOf(TaxFormJobStateException.class);
+
+        job.setLeaseExpiresAt(ZonedDateTime.now().minusMinutes(1));
+        taxFormJobRepository.save(job);
+        TaxFormJobDto finished = awaitFinished(taxFormJobService.resume(2024, job.getId()));
+
+        assertThat(finished.getStatus()).isEqualTo(TaxFormJobStatus.COMPLETED);
+        assertThat(finished.getOwner()).isEqualTo(taxFormJobRunner.getOwner());
+        assertThat(finished.getFormsUpdated()).isEqualTo(1);
+    }
+
+    @Test
+    void testResumesAbandonedJobs() throws InterruptedException {
+        save(2024, TaxFormStatus.NOT_STARTED, null);
+        TaxFormJob abandoned = taxFormJobRepository.save(running("dead-node", ZonedDateTime.now().minusMinutes(1)));
+        TaxFormJob leased = taxFormJobRepository.save(running("other-node", ZonedDateTime.now().plusHours(1)));
+
+        taxFormJobRunner.resumeAbandoned();
+
+        TaxFormJobDto finished = awaitFinished(taxFormJobService.findById(2024, abandoned.getId()).orElseThrow());
+        assertThat(finished.getStatus()).isEqualTo(TaxFormJobStatus.COMPLETED);
+        assertThat(finished.getOwner()).isEqualTo(taxFormJobRunner.getOwner());
+        assertThat(taxFormJobRepository.findById(leased.getId()).orElseThrow().getOwner()).isEqualTo("other-node");
+    }
+
+    @Test
+    void testCancelIsNotOverwrittenByOwner() {
+        TaxFormJob job = taxFormJobRepository.save(running("other-node", ZonedDateTime.now().plusHours(1)));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        assertThat(taxFormJobService.cancel(2024, job.getId()).getStatus()).isEqualTo(TaxFormJobStatus.CANCELLED);
+        assertThat(transactionTemplate.execute(status -> taxFormJobRepository.finish(
+                job.getId(),
+                "other-node",
+                TaxFormJobStatus.COMPLETED,
+                null,
+                ZonedDateTime.now()
+        ))).isZero();
+        assertThat(transactionTemplate.execute(status -> taxFormJobRepository.renew(
+                job.getId(),
+                "other-node",
+                ZonedDateTime.now(),
+                ZonedDateTime.now().plusHours(1)
+        ))).isZero();
+        assertThat(transactionTemplate.execute(status -> taxFormJobRepository.findRunningForUpdate(
+                job.getId(),
+                "other-node"
+        ))).isEmpty();
+        assertThat(taxFormJobRepository.findById(job.getId()).orElseThrow().getStatus())
+                .isEqualTo(TaxFormJobStatus.CANCELLED);
+    }
+
+    @Test
+    void testChunkLocksOnlyRunningJobOfOwner() {
+        TaxFormJob job = taxFormJobRepository.save(running("other-node", ZonedDateTime.now().plusHours(1)));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        assertThat(transactionTemplate.execute(status -> taxFormJobRepository.findRunningForUpdate(
+                job.getId(),
+                "other-node"
+        ))).isPresent();
+        assertThat(transactionTemplate.execute(status -> taxFormJobRepository.findRunningForUpdate(
+                job.getId(),
+                taxFormJobRunner.getOwner()
+        ))).isEmpty();
+    }
+
+    private TaxForm save(Integer year, TaxFormStatus status, ZonedDateTime submittedAt) {
+        return taxFormRepository.save(TaxForm.builder()
+                .formName("Form %s %s".formatted(year, status))
+                .formYear(year)
+                .status(status)
+                .submittedAt(submittedAt)
+                .build());
+    }
+
+    private static TaxFormJob running(String owner, ZonedDateTime leaseExpiresAt) {
+        return TaxFormJob.builder()
+                .type(TaxFormJobType.FLAG_NOT_STARTED)
+                .formYear(2024)
+                .status(TaxFormJobStatus.RUNNING)
+                .cutoff(ZonedDateTime.now().plusDays(1))
+                .chunkSize(2)
+                .nextId(0)
+                .owner(owner)
+                .leaseExpiresAt(leaseExpiresAt)
+                .build();
+    }
+
+    private static TaxFormJobRequest request(TaxFormJobType type) {
+        return TaxFormJobRequest.builder()
+                .type(type)
+                .year(2024)
+                .cutoff(CUTOFF)
+                .build();
+    }
+
+    private static TaxFormJobChunk chunk(TaxFormJob job, TaxForm taxForm, TaxFormJobChunkStatus status) {
+        return TaxFormJobChunk.builder()
+                .jobId(job.getId())
+                .firstId(taxForm.getId())
+                .lastId(taxForm.getId())
+                .status(status)
+                .formsUpdated(status == TaxFormJobChunkStatus.DONE ? 0 : null)
+                .build();
+    }
+
+    private TaxFormJobDto awaitFinished(TaxFormJobDto job) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+
+        while (System.nanoTime() < deadline) {
+            TaxFormJobDto current = taxFormJobService.findById(job.getFormYear(), job.getId()).orElseThrow();
+
+            if (current.getStatus() != TaxFormJobStatus.RUNNING) {
+                return current;
+            }
+            Thread.sleep(20);
+        }
+
+        throw new AssertionError("Job %d did not finish".formatted(job.getId()));
+    }
+}
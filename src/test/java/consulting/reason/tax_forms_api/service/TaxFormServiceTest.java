@@ -1,24 +1,51 @@
 package consulting.reason.tax_forms_api.service;
 
 import consulting.reason.tax_forms_api.AbstractServiceTest;
+import consulting.reason.tax_forms_api.analytics.TaxFormYearSnapshotCache;
+import consulting.reason.tax_forms_api.budget.PerformanceBudget;
+import consulting.reason.tax_forms_api.budget.PerformanceBudgetRecorder;
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.datasource.ReplicaLagGuard;
+import consulting.reason.tax_forms_api.datasource.TaxFormShardRouter;
+import consulting.reason.tax_forms_api.dto.TaxFormBatchDto;
+import consulting.reason.tax_forms_api.dto.TaxFormChangesDto;
 import consulting.reason.tax_forms_api.dto.TaxFormDetailsDto;
 import consulting.reason.tax_forms_api.dto.TaxFormDto;
+import consulting.reason.tax_forms_api.dto.TaxFormHistoryDto;
+import consulting.reason.tax_forms_api.dto.TaxFormSaveResultDto;
 import consulting.reason.tax_forms_api.dto.request.TaxFormDetailsRequest;
 import consulting.reason.tax_forms_api.entity.TaxForm;
 import consulting.reason.tax_forms_api.entity.TaxFormHistory;
 import consulting.reason.tax_forms_api.enums.TaxFormHistoryStatus;
+import consulting.reason.tax_forms_api.enums.TaxFormSaveOutcome;
 import consulting.reason.tax_forms_api.enums.TaxFormStatus;
+import consulting.reason.tax_forms_api.exception.TaxFormBatchIdsException;
+import consulting.reason.tax_forms_api.exception.TaxFormClaimedException;
+import consulting.reason.tax_forms_api.exception.TaxFormNotFoundException;
 import consulting.reason.tax_forms_api.exception.TaxFormStatusException;
+import consulting.reason.tax_forms_api.exception.TaxFormSyncTokenException;
+import consulting.reason.tax_forms_api.repository.TaxFormHistoryRepository;
 import consulting.reason.tax_forms_api.repository.TaxFormRepository;
+import consulting.reason.tax_forms_api.util.TaxFormSyncTokens;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -26,7 +53,15 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 public class TaxFormServiceTest extends AbstractServiceTest {
     @Autowired
     private TaxFormRepository taxFormRepository;
-    private TaxFormService taxFormService;
+    @Autowired
+    private TaxFormHistoryRepository taxFormHistoryRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private TestEntityManager testEntityManager;
+    private TaxFormServiceImpl taxFormService;
+    private TaxFormsApiProperties taxFormsApiProperties;
+    private TaxFormAutosaveBuffer taxFormAutosaveBuffer;
     private TaxForm taxForm;
     private TaxFormDto taxFormDto;
     private final TaxFormDetailsRequest taxFormDetailsRequest = TaxFormDetailsRequest.builder()
@@ -38,9 +73,17 @@ public class TaxFormServiceTest extends AbstractServiceTest {
 
     @BeforeEach
     void before() {
+        taxFormsApiProperties = new TaxFormsApiProperties();
+        taxFormAutosaveBuffer = new TaxFormAutosaveBuffer(new SimpleMeterRegistry());
         taxFormService = new TaxFormServiceImpl(
                 taxFormRepository,
-                modelMapper
+                taxFormHistoryRepository,
+                modelMapper,
+                new TaxFormShardRouter(taxFormsApiProperties, new ReplicaLagGuard(taxFormsApiProperties)),
+                taxFormAutosaveBuffer,
+                taxFormsApiProperties,
+                new TaxFormYearSnapshotCache(),
+                transactionTemplate
         );
 
         taxForm = taxFormRepository.save(TaxForm.builder()
@@ -63,6 +106,95 @@ public class TaxFormServiceTest extends AbstractServiceTest {
         assertThat(taxFormService.findById(0)).isEmpty();
     }
 
+    @Test
+    void testFindAllByIds() {
+        TaxForm taxForm2 = taxFormRepository.save(TaxForm.builder()
+                .formName("Test Form 2")
+                .formYear(2025)
+                .status(TaxFormStatus.NOT_STARTED)
+                .build());
+
+        TaxFormBatchDto result = taxFormService.findAllByIds(List.of(taxForm2.getId(), 0, taxForm.getId(), taxForm2.getId()));
+
+        assertThat(result.getForms()).extracting(TaxFormDto::getId).containsExactly(taxForm2.getId(), taxForm.getId());
+        assertThat(result.getMissingIds()).containsExactly(0);
+    }
+
+    @Test
+    void testFindAllByIdsRejectsEmptyId() {
+        assertThatThrownBy(() -> taxFormService.findAllByIds(Arrays.asList(taxForm.getId(), null)))
+                .isInstanceOf(TaxFormBatchIdsException.class);
+    }
+
+    @Test
+    @PerformanceBudget(statements = 1, allocatedBytes = 4_000_000)
+    void testFindAllByIdsBudget(PerformanceBudgetRecorder performanceBudgetRecorder) throws Exception {
+        List<Integer> ids = IntStream.range(0, 20)
+                .mapToObj(i -> {
+                    TaxForm form = TaxForm.builder()
+                            .formName("Budget Form " + i)
+                            .formYear(2024)
+                            .status(TaxFormStatus.SUBMITTED)
+                            .build();
+                    form.addHistory(TaxFormHistory.builder().type(TaxFormHistoryStatus.SUBMITTED).build());
+                    return taxFormRepository.save(form).getId();
+                })
+                .toList();
+        taxFormService.findAllByIds(ids);
+
+        TaxFormBatchDto result = performanceBudgetRecorder.measure(
+                "findAllByIds",
+                () -> taxFormService.findAllByIds(ids)
+        );
+
+        assertThat(result.getForms()).hasSize(20);
+    }
+
+    @Test
+    @PerformanceBudget(statements = 2, allocatedBytes = 4_000_000)
+    void testFindAllBudget(PerformanceBudgetRecorder performanceBudgetRecorder) throws Exception {
+        IntStream.range(0, 20).forEach(i -> {
+            TaxForm form = TaxForm.builder()
+                    .formName("Budget Form " + i)
+                    .formYear(2024)
+                    .status(TaxFormStatus.SUBMITTED)
+                    .build();
+            form.addHistory(TaxFormHistory.builder().type(TaxFormHistoryStatus.SUBMITTED).build());
+            form.addHistory(TaxFormHistory.builder().type(TaxFormHistoryStatus.RETURNED).build());
+            taxFormRepository.save(form);
+        });
+        taxFormService.findAllByYear(2024);
+
+        List<TaxFormDto> result = performanceBudgetRecorder.measure(
+                "findAllByYear",
+                () -> taxFormService.findAllByYear(2024)
+        );
+
+        assertThat(result).hasSize(21);
+    }
+
+    @Test
+    @PerformanceBudget(statements = 2, allocatedBytes = 2_000_000)
+    void testFindByIdBudget(PerformanceBudgetRecorder performanceBudgetRecorder) throws Exception {
+        taxFormService.findById(taxForm.getId());
+
+        assertThat(performanceBudgetRecorder.measure(
+                "findById",
+                () -> taxFormService.findById(taxForm.getId())
+        )).isPresent();
+    }
+
+    @Test
+    @PerformanceBudget(statements = 4, allocatedBytes = 2_000_000)
+    void testSubmitBudget(PerformanceBudgetRecorder performanceBudgetRecorder) throws Exception {
+        taxForm.setStatus(TaxFormStatus.IN_PROGRESS);
+
+        assertThat(performanceBudgetRecorder.measure(
+                "submit",
+                () -> taxFormService.submit(taxForm.getId())
+        )).isPresent();
+    }
+
     @Test
     void testSave() {
         TaxFormDetailsDto taxFormDetailsDto = TaxFormDetailsDto.builder()
@@ -97,6 +229,322 @@ public class TaxFormServiceTest extends AbstractServiceTest {
                 .hasMessage(taxFormStatusException.getMessage());
     }
 
+    @Test
+    void testAutosaveIsBufferedUntilFlushed() {
+        taxFormService.autosave(taxForm.getId(), taxFormDetailsRequest);
+
+        assertThat(taxFormRepository.findById(taxForm.getId()).get().getDetails()).isNull();
+
+        Map<Integer, TaxFormAutosave> pending = taxFormAutosaveBuffer.drain();
+        assertThat(pending).containsOnlyKeys(taxForm.getId());
+        assertThat(taxFormService.saveAutosaves(pending))
+                .extracting(TaxFormSaveResultDto::getOutcome)
+                .containsExactly(TaxFormSaveOutcome.SAVED);
+
+        TaxForm taxResult = taxFormRepository.findById(taxForm.getId()).get();
+        assertThat(taxResult.getStatus()).isEqualTo(TaxFormStatus.IN_PROGRESS);
+        assertThat(taxResult.getDetails()).isEqualTo(modelMapper.map(taxFormDetailsRequest, TaxFormDetailsDto.class));
+    }
+
+    @Test
+    void testAutosaveKeepsLatestDetails() {
+        TaxFormDetailsRequest latest = TaxFormDetailsRequest.builder()
+                .ratio(0.7)
+                .assessedValue(300)
+                .build();
+
+        taxFormService.autosave(taxForm.getId(), taxFormDetailsRequest);
+        taxFormService.autosave(taxForm.getId(), latest);
+
+        assertThat(taxFormAutosaveBuffer.drain().get(taxForm.getId()).details()).isEqualTo(latest);
+    }
+
+    @Test
+    void testAutosaveDrainedBeforeLaterSaveIsSuperseded() {
+        TaxFormDetailsRequest saved = TaxFormDetailsRequest.builder()
+                .ratio(0.9)
+                .assessedValue(900)
+                .build();
+        taxFormService.autosave(taxForm.getId(), taxFormDetailsRequest);
+
+        Map<Integer, TaxFormAutosave> drained = taxFormAutosaveBuffer.drain();
+        taxFormService.save(taxForm.getId(), saved);
+
+        assertThat(taxFormService.saveAutosaves(drained))
+                .extracting(TaxFormSaveResultDto::getOutcome)
+                .containsExactly(TaxFormSaveOutcome.REJECTED);
+        assertThat(taxFormRepository.findById(taxForm.getId()).orElseThrow().getDetails())
+                .isEqualTo(modelMapper.map(saved, TaxFormDetailsDto.class));
+    }
+
+    @Test
+    void testAutosaveAcceptedAfterFlushIsNotSupersededByIt() {
+        taxFormService.autosave(taxForm.getId(), taxFormDetailsRequest);
+        Map<Integer, TaxFormAutosave> drained = taxFormAutosaveBuffer.drain();
+        taxFormService.autosave(taxForm.getId(), taxFormDetailsRequest);
+
+        taxFormService.saveAutosaves(drained);
+        taxFormRepository.flush();
+        taxFormAutosaveBuffer.rebase(drained.keySet(), ZonedDateTime.now());
+
+        assertThat(taxFormService.saveAutosaves(taxFormAutosaveBuffer.drain()))
+                .extracting(TaxFormSaveResultDto::getOutcome)
+                .containsExactly(TaxFormSaveOutcome.SAVED);
+    }
+
+    @Test
+    void testSaveAutosavesSkipsInvalidStatus() {
+        taxForm.setStatus(TaxFormStatus.SUBMITTED);
+
+        assertThat(taxFormService.saveAutosaves(Map.of(
+                taxForm.getId(), new TaxFormAutosave(taxFormDetailsRequest, ZonedDateTime.now()),
+                0, new TaxFormAutosave(taxFormDetailsRequest, ZonedDateTime.now())
+        )))
+                .extracting(TaxFormSaveResultDto::getOutcome)
+                .containsExactly(TaxFormSaveOutcome.REJECTED);
+        assertThat(taxForm.getDetails()).isNull();
+    }
+
+    @Test
+    void testSaveAllReportsEachForm() {
+        TaxForm submitted = taxFormRepository.save(TaxForm.builder()
+                .formName("Test Form 2")
+                .formYear(2024)
+                .status(TaxFormStatus.SUBMITTED)
+                .build());
+        Map<Integer, TaxFormDetailsRequest> detailsById = new LinkedHashMap<>();
+        detailsById.put(submitted.getId(), taxFormDetailsRequest);
+        detailsById.put(0, taxFormDetailsRequest);
+        detailsById.put(taxForm.getId(), taxFormDetailsRequest);
+
+        assertThat(taxFormService.saveAll(detailsById)).containsExactly(
+                TaxFormSaveResultDto.builder()
+                        .id(submitted.getId())
+                        .formYear(2024)
+                        .outcome(TaxFormSaveOutcome.REJECTED)
+                        .message("Cannot update form id %d to status IN_PROGRESS from status SUBMITTED"
+                                .formatted(submitted.getId()))
+                        .build(),
+                TaxFormSaveResultDto.builder()
+                        .id(0)
+                        .outcome(TaxFormSaveOutcome.NOT_FOUND)
+                        .build(),
+                TaxFormSaveResultDto.builder()
+                        .id(taxForm.getId())
+                        .formYear(2024)
+                        .outcome(TaxFormSaveOutcome.SAVED)
+                        .build()
+        );
+        assertThat(taxForm.getStatus()).isEqualTo(TaxFormStatus.IN_PROGRESS);
+        assertThat(taxForm.getDetails()).isEqualTo(modelMapper.map(taxFormDetailsRequest, TaxFormDetailsDto.class));
+    }
+
+    @Test
+    void testSaveAllDiscardsPendingAutosaveOfSavedFormsOnly() {
+        TaxForm submitted = submittedForm("Submitted Form", ZonedDateTime.now());
+        TaxFormDetailsRequest pending = TaxFormDetailsRequest.builder()
+                .assessedValue(7)
+                .build();
+        taxFormAutosaveBuffer.put(taxForm.getId(), pending);
+        taxFormAutosaveBuffer.put(submitted.getId(), pending);
+        taxFormAutosaveBuffer.put(0, pending);
+        Map<Integer, TaxFormDetailsRequest> detailsById = new LinkedHashMap<>();
+        detailsById.put(taxForm.getId(), taxFormDetailsRequest);
+        detailsById.put(submitted.getId(), taxFormDetailsRequest);
+        detailsById.put(0, taxFormDetailsRequest);
+
+        assertThat(taxFormService.saveAll(detailsById))
+                .extracting(TaxFormSaveResultDto::getOutcome)
+                .containsExactly(TaxFormSaveOutcome.SAVED, TaxFormSaveOutcome.REJECTED, TaxFormSaveOutcome.NOT_FOUND);
+        assertThat(taxFormAutosaveBuffer.drain()).containsOnlyKeys(submitted.getId(), 0);
+    }
+
+    @Test
+    void testSaveAllKeepsAutosaveAcceptedAfterItsWrite() {
+        TaxFormDetailsRequest newer = TaxFormDetailsRequest.builder()
+                .assessedValue(7)
+                .build();
+        taxFormAutosaveBuffer.requeue(Map.of(
+                taxForm.getId(),
+                new TaxFormAutosave(newer, ZonedDateTime.now().plusMinutes(1))
+        ));
+
+        assertThat(taxFormService.saveAll(Map.of(taxForm.getId(), taxFormDetailsRequest)))
+                .extracting(TaxFormSaveResultDto::getOutcome)
+                .containsExactly(TaxFormSaveOutcome.SAVED);
+        assertThat(taxFormAutosaveBuffer.drain().get(taxForm.getId()).details()).isEqualTo(newer);
+    }
+
+    @Test
+    void testSaveDiscardsPendingAutosave() {
+        taxFormService.autosave(taxForm.getId(), taxFormDetailsRequest);
+        taxFormService.save(taxForm.getId(), taxFormDetailsRequest);
+
+        assertThat(taxFormAutosaveBuffer.drain()).isEmpty();
+    }
+
+    @Test
+    void testSubmitFlushesPendingAutosave() {
+        taxFormService.autosave(taxForm.getId(), taxFormDetailsRequest);
+
+        Optional<TaxFormDto> result = taxFormService.submit(taxForm.getId());
+
+        assertThat(result).isPresent();
+        assertThat(result.get().getStatus()).isEqualTo(TaxFormStatus.SUBMITTED);
+        assertThat(result.get().getDetails()).isEqualTo(modelMapper.map(taxFormDetailsRequest, TaxFormDetailsDto.class));
+        assertThat(taxFormAutosaveBuffer.drain()).isEmpty();
+    }
+
+    @Test
+    void testAutosaveRejectsMissingForm() {
+        assertThatThrownBy(() -> taxFormService.autosave(Integer.MAX_VALUE, taxFormDetailsRequest))
+                .isInstanceOf(TaxFormNotFoundException.class);
+        assertThat(taxFormAutosaveBuffer.drain()).isEmpty();
+    }
+
+    @Test
+    void testAutosaveRejectsSubmittedForm() {
+        TaxForm submitted = submittedForm("Submitted Form", ZonedDateTime.now());
+
+        assertThatThrownBy(() -> taxFormService.autosave(submitted.getId(), taxFormDetailsRequest))
+                .isInstanceOf(TaxFormStatusException.class);
+        assertThat(taxFormAutosaveBuffer.drain()).isEmpty();
+    }
+
+    @Test
+    void testReturnAndAcceptDiscardPendingAutosave() {
+        TaxForm returned = submittedForm("Returned Form", ZonedDateTime.now());
+        TaxForm accepted = submittedForm("Accepted Form", ZonedDateTime.now());
+        taxFormAutosaveBuffer.put(returned.getId(), taxFormDetailsRequest);
+        taxFormAutosaveBuffer.put(accepted.getId(), taxFormDetailsRequest);
+
+        assertThat(taxFormService.returnForm(returned.getId(), "reviewer-1").orElseThrow().getStatus())
+                .isEqualTo(TaxFormStatus.RETURNED);
+        assertThat(taxFormService.accept(accepted.getId(), "reviewer-1").orElseThrow().getStatus())
+                .isEqualTo(TaxFormStatus.ACCEPTED);
+        assertThat(taxFormAutosaveBuffer.drain()).isEmpty();
+    }
+
+    @Test
+    void testFindChangesPagesBySyncToken() {
+        List<Integer> ids = IntStream.rangeClosed(1, 3)
+                .mapToObj(changeSeq -> taxFormRepository.save(TaxForm.builder()
+                        .formName("Changed Form " + changeSeq)
+                        .formYear(2024)
+                        .status(TaxFormStatus.IN_PROGRESS)
+                        .changeSeq((long) changeSeq)
+                        .build()).getId())
+                .toList();
+
+        TaxFormChangesDto first = taxFormService.findChanges(2024, null, 2);
+        assertThat(first.getForms()).extracting(TaxFormDto::getId).containsExactly(ids.get(0), ids.get(1));
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(first.getSyncToken()).isEqualTo(TaxFormSyncTokens.encode(2024, 2));
+
+        TaxFormChangesDto second = taxFormService.findChanges(2024, first.getSyncToken(), 2);
+        assertThat(second.getForms()).extracting(TaxFormDto::getId).containsExactly(ids.get(2));
+        assertThat(second.isHasMore()).isFalse();
+
+        TaxFormChangesDto third = taxFormService.findChanges(2024, second.getSyncToken(), 2);
+        assertThat(third.getForms()).isEmpty();
+        assertThat(third.getSyncToken()).isEqualTo(second.getSyncToken());
+    }
+
+    @Test
+    void testFindChangesRejectsTokenOfOtherYear() {
+        String syncToken = TaxFormSyncTokens.encode(2023, 5);
+
+        assertThatThrownBy(() -> taxFormService.findChanges(2024, syncToken, 10))
+                .isInstanceOf(TaxFormSyncTokenException.class);
+    }
+
+    @Test
+    void testClaimOldestSubmittedFirst() {
+        TaxForm older = submittedForm("Older", ZonedDateTime.now().minusDays(2));
+        TaxForm newer = submittedForm("Newer", ZonedDateTime.now().minusDays(1));
+
+        List<TaxFormDto> claimed = taxFormService.claim(2024, "reviewer-1", 1);
+
+        assertThat(claimed).extracting(TaxFormDto::getId).containsExactly(older.getId());
+        assertThat(claimed.get(0).getClaimedBy()).isEqualTo("reviewer-1");
+        assertThat(claimed.get(0).getClaimExpiresAt()).isAfter(ZonedDateTime.now());
+
+        assertThat(taxFormService.claim(2024, "reviewer-2", 5))
+                .extracting(TaxFormDto::getId)
+                .containsExactly(newer.getId());
+        assertThat(taxFormService.claim(2024, "reviewer-3", 5)).isEmpty();
+    }
+
+    @Test
+    void testClaimReclaimsExpiredLease() {
+        TaxForm taxForm1 = submittedForm("Expired", ZonedDateTime.now().minusDays(1));
+        taxForm1.setClaimedBy("reviewer-1");
+        taxForm1.setClaimExpiresAt(ZonedDateTime.now().minusMinutes(1));
+
+        assertThat(taxFormService.claim(2024, "reviewer-2", 1))
+                .extracting(TaxFormDto::getClaimedBy)
+                .containsExactly("reviewer-2");
+    }
+
+    @Test
+    void testReturnReleasesClaim() {
+        TaxForm submitted = submittedForm("Claimed", ZonedDateTime.now().minusDays(1));
+        taxFormService.claim(2024, "reviewer-1", 1);
+
+        Optional<TaxFormDto> result = taxFormService.returnForm(submitted.getId(), "reviewer-1");
+
+        assertThat(result).isPresent();
+        assertThat(result.get().getClaimedBy()).isNull();
+        assertThat(result.get().getClaimExpiresAt()).isNull();
+    }
+
+    @Test
+    void testReturnAndAcceptRejectFormClaimedByOtherReviewer() {
+        TaxForm submitted = submittedForm("Claimed", ZonedDateTime.now().minusDays(1));
+        taxFormService.claim(2024, "reviewer-1", 1);
+
+        assertThatThrownBy(() -> taxFormService.returnForm(submitted.getId(), "reviewer-2"))
+                .isInstanceOf(TaxFormClaimedException.class);
+        assertThatThrownBy(() -> taxFormService.accept(submitted.getId(), null))
+                .isInstanceOf(TaxFormClaimedException.class);
+
+        TaxForm unchanged = taxFormRepository.findById(submitted.getId()).orElseThrow();
+        assertThat(unchanged.getStatus()).isEqualTo(TaxFormStatus.SUBMITTED);
+        assertThat(unchanged.getClaimedBy()).isEqualTo("reviewer-1");
+    }
+
+    @Test
+    void testAcceptTakesOverExpiredClaim() {
+        TaxForm submitted = submittedForm("Expired", ZonedDateTime.now().minusDays(1));
+        submitted.setClaimedBy("reviewer-1");
+        submitted.setClaimExpiresAt(ZonedDateTime.now().minusMinutes(1));
+
+        Optional<TaxFormDto> result = taxFormService.accept(submitted.getId(), "reviewer-2");
+
+        assertThat(result).isPresent();
+        assertThat(result.get().getStatus()).isEqualTo(TaxFormStatus.ACCEPTED);
+        assertThat(result.get().getClaimedBy()).isNull();
+    }
+
+    @Test
+    void testSubmitSetsSubmittedAt() {
+        taxForm.setStatus(TaxFormStatus.IN_PROGRESS);
+
+        Optional<TaxFormDto> result = taxFormService.submit(taxForm.getId());
+
+        assertThat(result).isPresent();
+        assertThat(result.get().getSubmittedAt()).isNotNull();
+    }
+
+    private TaxForm submittedForm(String formName, ZonedDateTime submittedAt) {
+        return taxFormRepository.save(TaxForm.builder()
+                .formName(formName)
+                .formYear(2024)
+                .status(TaxFormStatus.SUBMITTED)
+                .submittedAt(submittedAt)
+                .build());
+    }
+
     //
     // SUBMIT FROM
     //
@@ -135,7 +583,11 @@ public class TaxFormServiceTest extends AbstractServiceTest {
         assertThat(taxResult.getStatus()).isEqualTo(TaxFormStatus.SUBMITTED);
 
         // Check that the history was created
-        List<TaxFormHistory> taxHistoryResult = taxResult.getHistory();
+        List<TaxFormHistory> taxHistoryResult = taxFormHistoryRepository.findRecent(
+                taxForm.getId(),
+                taxForm.getFormYear(),
+                Limit.unlimited()
+        );
         assertThat(taxHistoryResult.size()).isEqualTo(1);
         assertThat(taxHistoryResult.get(0).getType()).isEqualTo(TaxFormHistoryStatus.SUBMITTED);
         
@@ -164,7 +616,7 @@ public class TaxFormServiceTest extends AbstractServiceTest {
                 TaxFormStatus.RETURNED
         );
 
-        assertThatThrownBy(() -> taxFormService.returnForm(taxForm.getId()))
+        assertThatThrownBy(() -> taxFormService.returnForm(taxForm.getId(), "reviewer-1"))
                 .isInstanceOf(TaxFormStatusException.class)
                 .hasMessage(taxFormStatusException.getMessage());
     }
@@ -173,7 +625,7 @@ public class TaxFormServiceTest extends AbstractServiceTest {
     void testReturnFormSuccess() {
         taxForm.setStatus(TaxFormStatus.SUBMITTED);
         
-        Optional<TaxFormDto> result = taxFormService.returnForm(taxForm.getId());
+        Optional<TaxFormDto> result = taxFormService.returnForm(taxForm.getId(), "reviewer-1");
         
         assertThat(result).isPresent();
         assertThat(result.get().getStatus()).isEqualTo(TaxFormStatus.RETURNED);
@@ -184,14 +636,18 @@ public class TaxFormServiceTest extends AbstractServiceTest {
         assertThat(taxResult.getStatus()).isEqualTo(TaxFormStatus.RETURNED);
 
         // Check that the history was created
-        List<TaxFormHistory> taxHistoryResult = taxResult.getHistory();
+        List<TaxFormHistory> taxHistoryResult = taxFormHistoryRepository.findRecent(
+                taxForm.getId(),
+                taxForm.getFormYear(),
+                Limit.unlimited()
+        );
         assertThat(taxHistoryResult.size()).isEqualTo(1);
         assertThat(taxHistoryResult.get(0).getType()).isEqualTo(TaxFormHistoryStatus.RETURNED);
     }
 
     @Test
     void testReturnFormNotFound() {
-        assertThat(taxFormService.returnForm(0)).isEmpty();
+        assertThat(taxFormService.returnForm(0, "reviewer-1")).isEmpty();
     }
 
     //
@@ -212,7 +668,7 @@ public class TaxFormServiceTest extends AbstractServiceTest {
                 TaxFormStatus.ACCEPTED
         );
 
-        assertThatThrownBy(() -> taxFormService.accept(taxForm.getId()))
+        assertThatThrownBy(() -> taxFormService.accept(taxForm.getId(), "reviewer-1"))
                 .isInstanceOf(TaxFormStatusException.class)
                 .hasMessage(taxFormStatusException.getMessage());
     }
@@ -221,7 +677,7 @@ public class TaxFormServiceTest extends AbstractServiceTest {
     void testAcceptFormSuccess() {
         taxForm.setStatus(TaxFormStatus.SUBMITTED);
         
-        Optional<TaxFormDto> result = taxFormService.accept(taxForm.getId());
+        Optional<TaxFormDto> result = taxFormService.accept(taxForm.getId(), "reviewer-1");
         
         // Check Return values
         assertThat(result).isPresent();
@@ -234,7 +690,11 @@ public class TaxFormServiceTest extends AbstractServiceTest {
         assertThat(taxResult.getStatus()).isEqualTo(TaxFormStatus.ACCEPTED);
 
         // Check that the history was created
-        List<TaxFormHistory> taxHistoryResult = taxResult.getHistory();
+        List<TaxFormHistory> taxHistoryResult = taxFormHistoryRepository.findRecent(
+                taxForm.getId(),
+                taxForm.getFormYear(),
+                Limit.unlimited()
+        );
         assertThat(taxHistoryResult.size()).isEqualTo(1);
         assertThat(taxHistoryResult.get(0).getType()).isEqualTo(TaxFormHistoryStatus.ACCEPTED);
     }
@@ -251,7 +711,7 @@ public class TaxFormServiceTest extends AbstractServiceTest {
         assertThat(result.get().getHistory().size()).isEqualTo(1);
         assertThat(result.get().getHistory().get(0).getType()).isEqualTo(TaxFormHistoryStatus.SUBMITTED);
 
-        result = taxFormService.returnForm(taxForm.getId());
+        result = taxFormService.returnForm(taxForm.getId(), "reviewer-1");
         assertThat(result).isPresent();
         assertThat(result.get().getStatus()).isEqualTo(TaxFormStatus.RETURNED);
         assertThat(result.get().getHistory().size()).isEqualTo(2);
@@ -270,7 +730,7 @@ public class TaxFormServiceTest extends AbstractServiceTest {
         assertThat(result.get().getHistory().size()).isEqualTo(1);
         assertThat(result.get().getHistory().get(0).getType()).isEqualTo(TaxFormHistoryStatus.SUBMITTED);
 
-        result = taxFormService.accept(taxForm.getId());
+        result = taxFormService.accept(taxForm.getId(), "reviewer-1");
         assertThat(result).isPresent();
         assertThat(result.get().getStatus()).isEqualTo(TaxFormStatus.ACCEPTED);
         assertThat(result.get().getHistory().size()).isEqualTo(2);
@@ -290,7 +750,7 @@ public class TaxFormServiceTest extends AbstractServiceTest {
         assertThat(result.get().getHistory().get(0).getType()).isEqualTo(TaxFormHistoryStatus.SUBMITTED);
 
         // Return
-        result = taxFormService.returnForm(taxForm.getId());
+        result = taxFormService.returnForm(taxForm.getId(), "reviewer-1");
         assertThat(result).isPresent();
         assertThat(result.get().getStatus()).isEqualTo(TaxFormStatus.RETURNED);
         assertThat(result.get().getHistory().size()).isEqualTo(2);
@@ -311,15 +771,57 @@ public class TaxFormServiceTest extends AbstractServiceTest {
         assertThat(result.get().getHistory().get(2).getType()).isEqualTo(TaxFormHistoryStatus.SUBMITTED);
 
         // Accept
-        result = taxFormService.accept(taxForm.getId());
+        result = taxFormService.accept(taxForm.getId(), "reviewer-1");
         assertThat(result).isPresent();
         assertThat(result.get().getStatus()).isEqualTo(TaxFormStatus.ACCEPTED);
         assertThat(result.get().getHistory().size()).isEqualTo(4);
         assertThat(result.get().getHistory().get(3).getType()).isEqualTo(TaxFormHistoryStatus.ACCEPTED);
     }
 
+    @Test
+    void testTransitionResponsesCarryLatestHistoryOnly() {
+        taxFormsApiProperties.getHistory().setResponseLimit(2);
+        taxForm.setStatus(TaxFormStatus.IN_PROGRESS);
+
+        taxFormService.submit(taxForm.getId());
+        taxFormService.returnForm(taxForm.getId(), "reviewer-1");
+        taxFormService.save(taxForm.getId(), taxFormDetailsRequest);
+        Optional<TaxFormDto> result = taxFormService.submit(taxForm.getId());
+
+        assertThat(result).isPresent();
+        assertThat(result.get().getHistory())
+                .extracting(TaxFormHistoryDto::getType)
+                .containsExactly(TaxFormHistoryStatus.RETURNED, TaxFormHistoryStatus.SUBMITTED);
+        assertThat(taxFormHistoryRepository.findRecent(taxForm.getId(), taxForm.getFormYear(), Limit.unlimited()))
+                .hasSize(3);
+    }
+
+    @Test
+    void testTransitionsLeaveHistoryCollectionUnloaded() {
+        TaxForm withHistory = TaxForm.builder()
+                .formName("Form With History")
+                .formYear(2024)
+                .status(TaxFormStatus.RETURNED)
+                .build();
+        withHistory.addHistory(TaxFormHistory.builder().type(TaxFormHistoryStatus.SUBMITTED).build());
+        withHistory.addHistory(TaxFormHistory.builder().type(TaxFormHistoryStatus.RETURNED).build());
+        Integer id = taxFormRepository.saveAndFlush(withHistory).getId();
+        testEntityManager.clear();
+
+        taxFormService.submit(id);
+        taxFormService.accept(id, "reviewer-1");
+        testEntityManager.flush();
+
+        TaxForm reloaded = taxFormRepository.findById(id).orElseThrow();
+        assertThat(Hibernate.isInitialized(reloaded.getHistory())).isFalse();
+        assertThat(taxFormHistoryRepository.findRecent(id, 2024, Limit.unlimited()))
+                .extracting(TaxFormHistory::getType)
+                .containsExactly(TaxFormHistoryStatus.ACCEPTED, TaxFormHistoryStatus.SUBMITTED,
+                        TaxFormHistoryStatus.RETURNED, TaxFormHistoryStatus.SUBMITTED);
+    }
+
     @Test
     void testAcceptFormNotFound() {
-        assertThat(taxFormService.accept(0)).isEmpty();
+        assertThat(taxFormService.accept(0, "reviewer-1")).isEmpty();
     }
 }
@@ -0,0 +1,85 @@
+package consulting.reason.tax_forms_api.service;
+
+import consulting.reason.tax_forms_api.config.ModelMapperConfig;
+import consulting.reason.tax_forms_api.config.TaxFormsApiProperties;
+import consulting.reason.tax_forms_api.repository.TaxFormRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+
+public class TaxFormWarmupRunnerTest {
+    private final TaxFormRepository taxFormRepository = mock(TaxFormRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private TaxFormsApiProperties taxFormsApiProperties;
+    private TaxFormWarmupRunner taxFormWarmupRunner;
+
+    @BeforeEach
+    void before() {
+        taxFormsApiProperties = new TaxFormsApiProperties();
+        taxFormsApiProperties.getWarmup().setIterations(3);
+        taxFormsApiProperties.getWarmup().setQueryIterations(5);
+        given(transactionManager.getTransaction(any())).willReturn(new SimpleTransactionStatus());
+        taxFormWarmupRunner = new TaxFormWarmupRunner(
+                taxFormsApiProperties,
+                new ModelMapperConfig().modelMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                Jackson2ObjectMapperBuilder.json().build(),
+                taxFormRepository,
+                transactionManager
+        );
+    }
+
+    @Test
+    void testRunsWarmupQueriesInReadOnlyTransactions() {
+        taxFormWarmupRunner.run(null);
+
+        then(taxFormRepository).should(times(5)).findAllByFormYear(0);
+        then(taxFormRepository).should(times(5)).findById(-1);
+        then(transactionManager).should(times(5)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        then(transactionManager).should(times(5)).commit(any());
+    }
+
+    @Test
+    void testFailingQueryDoesNotFailStartup() {
+        given(taxFormRepository.findAllByFormYear(0)).willThrow(new QueryTimeoutException("canceling statement"));
+
+        assertThatCode(() -> taxFormWarmupRunner.run(null)).doesNotThrowAnyException();
+
+        then(taxFormRepository).should(times(1)).findAllByFormYear(0);
+        then(transactionManager).should(times(1)).rollback(any());
+    }
+
+    @Test
+    void testStopsAtTimeout() {
+        taxFormsApiProperties.getWarmup().setTimeout(Duration.ZERO);
+
+        taxFormWarmupRunner.run(null);
+
+        then(taxFormRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void testDisabledWarmupDoesNothing() {
+        taxFormsApiProperties.getWarmup().setEnabled(false);
+
+        taxFormWarmupRunner.run(null);
+
+        then(taxFormRepository).shouldHaveNoInteractions();
+        then(transactionManager).shouldHaveNoInteractions();
+    }
+}
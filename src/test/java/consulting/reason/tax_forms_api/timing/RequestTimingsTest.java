@@ -0,0 +1,51 @@
+package consulting.reason.tax_forms_api.timing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RequestTimingsTest {
+    @AfterEach
+    void after() {
+        RequestTimings.stop();
+    }
+
+    @Test
+    void testChargesNestedSpansExclusively() throws Exception {
+        RequestTimings.start();
+
+        RequestTimings.time(RequestTimings.MAP, () -> {
+            sleep(20);
+            RequestTimings.begin(RequestTimings.DB);
+            sleep(50);
+            RequestTimings.end();
+
+            return null;
+        });
+        RequestTimings requestTimings = RequestTimings.stop();
+
+        assertThat(requestTimings.count(RequestTimings.DB)).isEqualTo(1);
+        assertThat(requestTimings.count(RequestTimings.MAP)).isEqualTo(1);
+        assertThat(requestTimings.millis(RequestTimings.DB)).isGreaterThanOrEqualTo(50);
+        assertThat(requestTimings.millis(RequestTimings.MAP)).isGreaterThanOrEqualTo(20).isLessThan(50);
+        assertThat(requestTimings.toServerTiming()).matches("db;dur=[0-9.]+, map;dur=[0-9.]+, ser;dur=0\\.0, total;dur=[0-9.]+");
+    }
+
+    @Test
+    void testIgnoresSpansWithoutActiveRequest() {
+        RequestTimings.begin(RequestTimings.DB);
+        RequestTimings.end();
+
+        assertThat(RequestTimings.time(RequestTimings.MAP, () -> "mapped")).isEqualTo("mapped");
+        assertThat(RequestTimings.stop()).isNull();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
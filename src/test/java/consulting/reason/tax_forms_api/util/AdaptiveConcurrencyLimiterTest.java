@@ -0,0 +1,86 @@
+package consulting.reason.tax_forms_api.util;
+
+import consulting.reason.tax_forms_api.exception.TaxFormOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AdaptiveConcurrencyLimiterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testRejectsCallsOverTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, Duration.ofSeconds(1));
+
+        assertThatThrownBy(() -> limiter.execute(() -> limiter.execute(() -> "nested")))
+                .isInstanceOfSatisfying(TaxFormOverloadedException.class, e -> {
+                    assertThat(e.getStatusCode().value()).isEqualTo(503);
+                    assertThat(e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+                });
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(meterRegistry.get("tax_forms.admission.rejections").counter().count()).isEqualTo(1);
+        assertThat(limiter.execute(() -> "admitted")).isEqualTo("admitted");
+    }
+
+    @Test
+    void testRaisesLimitOnlyWhileHalfOfItIsInUse() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, Duration.ofSeconds(1));
+
+        for (int i = 0; i < 5; i++) {
+            limiter.execute(() -> "fast");
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(3);
+        assertThat(meterRegistry.get("tax_forms.admission.limit").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    void testBacksOffOnSlowCallsAndTimeouts() {
+        AdaptiveConcurrencyLimiter slow = limiter(10, Duration.ofNanos(-1));
+        slow.execute(() -> "slow");
+
+        assertThat(slow.getLimit()).isEqualTo(9);
+
+        AdaptiveConcurrencyLimiter timingOut = limiter(10, Duration.ofSeconds(1));
+        assertThatThrownBy(() -> timingOut.execute(() -> {
+            throw new QueryTimeoutException("timeout");
+        })).isInstanceOf(QueryTimeoutException.class);
+
+        assertThat(timingOut.getLimit()).isEqualTo(9);
+        assertThat(timingOut.getInFlight()).isZero();
+    }
+
+    @Test
+    void testBacksOffOncePerLimitOfCompletions() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, Duration.ofNanos(-1));
+
+        for (int i = 0; i < 9; i++) {
+            limiter.execute(() -> "slow");
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(9);
+
+        limiter.execute(() -> "slow");
+
+        assertThat(limiter.getLimit()).isEqualTo(8);
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit, Duration latencyThreshold) {
+        return new AdaptiveConcurrencyLimiter(
+                "test",
+                initialLimit,
+                1,
+                100,
+                0.9,
+                latencyThreshold,
+                Duration.ofSeconds(2),
+                meterRegistry
+        );
+    }
+}
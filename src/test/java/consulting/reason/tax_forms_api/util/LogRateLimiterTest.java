@@ -0,0 +1,24 @@
+package consulting.reason.tax_forms_api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LogRateLimiterTest {
+    @Test
+    void testLetsOneLinePerKeyThroughAndCountsSuppressed() throws Exception {
+        LogRateLimiter<String> logRateLimiter = new LogRateLimiter<>(Duration.ofMillis(100));
+
+        assertThat(logRateLimiter.acquire("not-found")).isZero();
+        assertThat(logRateLimiter.acquire("not-found")).isEqualTo(-1);
+        assertThat(logRateLimiter.acquire("not-found")).isEqualTo(-1);
+        assertThat(logRateLimiter.acquire("status")).isZero();
+
+        Thread.sleep(150);
+
+        assertThat(logRateLimiter.acquire("not-found")).isEqualTo(2);
+        assertThat(logRateLimiter.acquire("not-found")).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,137 @@
+package consulting.reason.tax_forms_api.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTest {
+    private SimpleMeterRegistry meterRegistry;
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch loading = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void before() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testConcurrentCallsShareOneLoad() throws Exception {
+        SingleFlight<Integer, String> singleFlight = new SingleFlight<>("test", Duration.ofSeconds(5), meterRegistry);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute(2024, this::blockingLoad));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<String> waiter = CompletableFuture.supplyAsync(() -> singleFlight.execute(2024, this::blockingLoad));
+        awaitCount("collapsed", 1);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("loaded 1");
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isEqualTo("loaded 1");
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(count("leader")).isEqualTo(1);
+    }
+
+    @Test
+    void testWaiterLoadsItselfAfterTimeout() throws Exception {
+        SingleFlight<Integer, String> singleFlight = new SingleFlight<>("test", Duration.ofMillis(10), meterRegistry);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute(2024, this::blockingLoad));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(singleFlight.execute(2024, () -> "loaded alone")).isEqualTo("loaded alone");
+        assertThat(count("timeout")).isEqualTo(1);
+
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("loaded 1");
+    }
+
+    @Test
+    void testWaiterTakesFallbackAfterTimeout() throws Exception {
+        SingleFlight<Integer, String> singleFlight = new SingleFlight<>("test", Duration.ofMillis(10), meterRegistry);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute(2024, this::blockingLoad));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(singleFlight.execute(2024, () -> "loaded alone", () -> "previous")).isEqualTo("previous");
+        assertThat(count("timeout")).isEqualTo(1);
+
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("loaded 1");
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testWaiterWithoutFallbackKeepsWaiting() throws Exception {
+        SingleFlight<Integer, String> singleFlight = new SingleFlight<>("test", Duration.ofMillis(10), meterRegistry);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute(2024, this::blockingLoad));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<String> waiter = CompletableFuture.supplyAsync(
+                () -> singleFlight.execute(2024, () -> "loaded alone", () -> null)
+        );
+        awaitCount("timeout", 1);
+        assertThat(waiter).isNotDone();
+        release.countDown();
+
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isEqualTo("loaded 1");
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("loaded 1");
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testSequentialCallsLoadAgain() {
+        SingleFlight<Integer, String> singleFlight = new SingleFlight<>("test", Duration.ofSeconds(5), meterRegistry);
+
+        assertThat(singleFlight.execute(2024, () -> "loaded " + loads.incrementAndGet())).isEqualTo("loaded 1");
+        assertThat(singleFlight.execute(2024, () -> "loaded " + loads.incrementAndGet())).isEqualTo("loaded 2");
+        assertThat(count("collapsed")).isZero();
+    }
+
+    @Test
+    void testLoadFailurePropagates() {
+        SingleFlight<Integer, String> singleFlight = new SingleFlight<>("test", Duration.ofSeconds(5), meterRegistry);
+
+        assertThatThrownBy(() -> singleFlight.execute(2024, () -> {
+            throw new IllegalArgumentException("failed");
+        })).isInstanceOf(IllegalArgumentException.class);
+        assertThat(singleFlight.execute(2024, () -> "recovered")).isEqualTo("recovered");
+    }
+
+    private String blockingLoad() {
+        loading.countDown();
+
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        return "loaded " + loads.incrementAndGet();
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("tax_forms.single_flight.calls")
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
+
+    private void awaitCount(String outcome, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (count(outcome) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -129,4 +129,14 @@ public class TaxFormStatusUtilsTest {
                 .isInstanceOf(TaxFormStatusException.class)
                 .hasMessage(taxFormStatusException.getMessage());
     }
+
+    @Test
+    void testRejectionIsStacklessAndKeepsMessage() {
+        taxForm.setStatus(TaxFormStatus.ACCEPTED);
+
+        assertThatThrownBy(() -> TaxFormStatusUtils.submit(taxForm))
+                .isInstanceOf(TaxFormStatusException.class)
+                .hasMessage("422 UNPROCESSABLE_ENTITY \"Cannot update form id 1 to status SUBMITTED from status ACCEPTED\"")
+                .satisfies(e -> assertThat(e.getStackTrace()).isEmpty());
+    }
 }
@@ -0,0 +1,30 @@
+package consulting.reason.tax_forms_api.util;
+
+import consulting.reason.tax_forms_api.enums.TaxFormStatus;
+import consulting.reason.tax_forms_api.enums.TaxFormTransition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TaxFormWorkflowTest {
+    @ParameterizedTest
+    @EnumSource(TaxFormTransition.class)
+    void testTablesAgreeWithDefinition(TaxFormTransition transition) {
+        for (TaxFormStatus taxFormStatus : TaxFormStatus.values()) {
+            boolean source = transition.getSources().contains(taxFormStatus);
+
+            assertThat(TaxFormWorkflow.permits(transition, taxFormStatus)).isEqualTo(source);
+            assertThat(TaxFormWorkflow.sources(transition).contains(taxFormStatus)).isEqualTo(source);
+            assertThat(TaxFormWorkflow.sqlGuard(transition).contains("'" + taxFormStatus.name() + "'")).isEqualTo(source);
+        }
+    }
+
+    @Test
+    void testSqlGuard() {
+        assertThat(TaxFormWorkflow.sqlGuard(TaxFormTransition.SAVE))
+                .isEqualTo("status IN ('NOT_STARTED', 'IN_PROGRESS', 'RETURNED')");
+        assertThat(TaxFormWorkflow.sqlGuard(TaxFormTransition.ACCEPT)).isEqualTo("status IN ('SUBMITTED')");
+    }
+}
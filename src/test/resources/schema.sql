@@ -0,0 +1 @@
+CREATE ALIAS IF NOT EXISTS tax_forms_change_watermark FOR 'consulting.reason.tax_forms_api.H2Functions.changeWatermark';